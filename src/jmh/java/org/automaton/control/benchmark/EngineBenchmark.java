@@ -0,0 +1,111 @@
+package org.automaton.control.benchmark;
+
+import org.automaton.control.enums.GameStatus;
+import org.automaton.control.enums.InputType;
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.enums.NeighborhoodType;
+import org.automaton.control.game.GameEngine;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.grid.RandomFill;
+import org.automaton.control.model.GameConfigModel;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmark of one generation of the engine for every neighborhood, map mode, board size and density.
+ * Every invocation starts again from the same seeded board and computes a few generations, so the density describes
+ * the measured generations and the settled regions skipped by the tile tracking do not pile up over the iterations.
+ * The history is turned off, the score is the engine step alone.
+ * The score is the generations per second, the cells counter is the same throughput in the cells per second.
+ * The full matrix is long, a part of it is selected by the parameters, e.g. {@code -p size=1024 -p density=30}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class EngineBenchmark {
+
+    /** the generations of one invocation, the soup is still close to its first density */
+    private static final int GENERATIONS = 16;
+
+    @Param({"MOORE", "VON_NEUMANN", "VON_NEUMANN_EXTENDED"})
+    private NeighborhoodType neighborhood;
+
+    @Param({"FINITE", "INFINITE", "UNBOUNDED"})
+    private MapMode mapMode;
+
+    @Param({"64", "256", "1024", "4096", "8192"})
+    private int size;
+
+    /** the part of the live cells of the seeded board, in percent */
+    @Param({"5", "30", "60"})
+    private int density;
+
+    private final GameEngine engine = GameEngine.getInstance();
+    private BitGrid seeded;
+
+    /**
+     * The counter of the computed cells, it is reported by JMH as the cells per second
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Cells {
+        public long cells;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        GameConfigModel model = GameConfigModel.getInstance();
+        model.getRows().set(this.size);
+        model.getCols().set(this.size);
+        model.getGameStatus().set(GameStatus.STOPED);
+        model.getEpochCount().set(0);
+        model.getSelectedNeighborhood().set(this.neighborhood);
+        model.getSelectedMode().set(this.mapMode);
+        // the reset clears the board instead of seeding it, the benchmark copies its own seeded board
+        model.getGameInputType().set(InputType.MANUAL);
+        model.getHistoryBudget().set(0);
+
+        this.seeded = new BitGrid(this.size, this.size);
+        RandomFill.fill(this.seeded, this.density / 100.0, 42);
+        model.reshapeDataGrip();
+        this.engine.setSelectedNeighborhoodStrategy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GENERATIONS)
+    public void performOneEpochIteration(Cells counter) {
+        restart();
+        for (int i = 0; i < GENERATIONS; i++) {
+            this.engine.performOneEpochIteration();
+        }
+        counter.cells += (long) GENERATIONS * this.size * this.size;
+    }
+
+    /**
+     * Put the seeded board back, the engine forgets the unbounded plane and the tile tracking of the previous invocation
+     */
+    private void restart() {
+        this.engine.resetGame();
+        GameConfigModel model = GameConfigModel.getInstance();
+        BitGrid grid = (BitGrid) model.getGridData().get();
+        System.arraycopy(this.seeded.getWords(), 0, grid.getWords(), 0, grid.getWords().length);
+        model.markGridDirty();
+    }
+}
@@ -0,0 +1,64 @@
+package org.automaton.control.benchmark;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.enums.NeighborhoodType;
+import org.automaton.control.game.Simulation;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.grid.RandomFill;
+import org.automaton.control.game.rule.TotalisticRule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmark of one generation of the Generations rules against their two-state B/S part,
+ * the decay on top of the binary step should cost only a part of the step itself
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class GenerationsBenchmark {
+
+    @Param({"B2/S", "B2/S/C3", "B3/S23", "B3/S23/C8"})
+    private String rule;
+
+    @Param({"1024"})
+    private int size;
+
+    private Simulation simulation;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        TotalisticRule parsed = TotalisticRule.parse(this.rule);
+        this.simulation = new Simulation(NeighborhoodType.MOORE.getStrategy(), parsed, MapMode.INFINITE, 1);
+        BitGrid grid = new BitGrid(this.size, this.size);
+        RandomFill.fill(grid, 0.3, 42);
+        this.simulation.load(grid, 0, true);
+    }
+
+    @Benchmark
+    public int step() {
+        this.simulation.step();
+        return this.simulation.getLiveCount();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.simulation.close();
+    }
+}
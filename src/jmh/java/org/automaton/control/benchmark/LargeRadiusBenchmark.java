@@ -0,0 +1,72 @@
+package org.automaton.control.benchmark;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.grid.RandomFill;
+import org.automaton.control.game.kernel.LargeRadiusKernel;
+import org.automaton.control.game.neighborhood.LargeRadiusStrategy;
+import org.automaton.control.game.rule.LargerThanLifeRule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmark of one generation of the Larger than Life kernel over the radius, the time should stay about
+ * the same from the radius 1 to 50, as the counts come from the sliding sums
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LargeRadiusBenchmark {
+
+    @Param({"1", "5", "20", "50"})
+    private int radius;
+
+    @Param({"false", "true"})
+    private boolean cross;
+
+    @Param({"FINITE", "INFINITE"})
+    private MapMode mapMode;
+
+    @Param({"1024"})
+    private int size;
+
+    private LargeRadiusKernel kernel;
+    private BitGrid front;
+    private BitGrid back;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        int neighbors = this.cross ? 4 * this.radius + 1 : (2 * this.radius + 1) * (2 * this.radius + 1);
+        // the ranges around the half of the neighborhood keep the board busy
+        LargerThanLifeRule rule = new LargerThanLifeRule(this.radius, this.cross, true,
+                neighbors * 3 / 10, neighbors / 2, neighbors * 3 / 10, neighbors * 2 / 5);
+        this.kernel = new LargeRadiusKernel(new LargeRadiusStrategy(rule), rule, this.mapMode);
+        this.front = new BitGrid(this.size, this.size);
+        this.back = new BitGrid(this.size, this.size);
+        RandomFill.fill(this.front, 0.4, 42);
+    }
+
+    @Benchmark
+    public int step() {
+        int live = this.kernel.step(this.front, this.back);
+        BitGrid swap = this.front;
+        this.front = this.back;
+        this.back = swap;
+        return live;
+    }
+}
@@ -0,0 +1,43 @@
+package org.automaton.control.benchmark;
+
+import org.automaton.control.game.GridDrawingMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmark of the view metrics which are calculated on every redraw and every mouse event
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+
+    @Param({"64", "1024", "8192"})
+    private int size;
+
+    private double zoom = 1;
+
+    @Benchmark
+    public GridDrawingMetrics calculate() {
+        this.zoom = this.zoom > 8 ? 1 : this.zoom * 1.25;
+        return GridDrawingMetrics.calculate(this.size, this.size, 1000, 800, this.zoom, 10, -10);
+    }
+
+    @Benchmark
+    public long calculateVisibleCells() {
+        return GridDrawingMetrics.calculate(this.size, this.size, 1000, 800, 4, 10, -10).visibleCells();
+    }
+}
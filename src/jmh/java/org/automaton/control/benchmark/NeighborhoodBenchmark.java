@@ -0,0 +1,47 @@
+package org.automaton.control.benchmark;
+
+import org.automaton.control.enums.NeighborhoodType;
+import org.automaton.control.game.neighborhood.NeighborhoodStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmark of the reference per-cell neighborhood lookup, it allocates the list of the points on every call,
+ * so it is mostly interesting with the gc profiler
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NeighborhoodBenchmark {
+
+    @Param({"MOORE", "VON_NEUMANN", "VON_NEUMANN_EXTENDED"})
+    private NeighborhoodType neighborhood;
+
+    private NeighborhoodStrategy strategy;
+    private int point;
+
+    @Setup
+    public void setup() {
+        this.strategy = this.neighborhood.getStrategy();
+    }
+
+    @Benchmark
+    public Object pointsNeighborhoods() {
+        this.point = (this.point + 1) & 1023;
+        return this.strategy.pointsNeighborhoods(this.point, this.point ^ 511);
+    }
+}
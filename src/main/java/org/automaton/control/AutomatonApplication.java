@@ -1,17 +1,28 @@
 package org.automaton.control;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
 import javafx.scene.layout.*;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
 import org.automaton.control.game.GameEngine;
 import org.automaton.control.enums.GameStatus;
+import org.automaton.control.game.io.BoardFile;
+import org.automaton.control.game.io.BoardState;
+import org.automaton.control.game.io.PatternFiles;
+import org.automaton.control.game.io.RleFormat;
+import org.automaton.control.game.grid.BitGrid;
 import org.automaton.control.model.GameConfigModel;
 import org.automaton.control.ui.ConfigurationPanel;
 import org.automaton.control.ui.GameFieldPanel;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
 
 public class AutomatonApplication extends Application {
 
@@ -35,18 +46,104 @@ public class AutomatonApplication extends Application {
         configurationPanel.getPauseButton().setOnAction(e -> {
             if (model.getGameStatus().get().equals(GameStatus.RUNNING)) {
                 model.setGameStatus(GameStatus.PAUSED);
-                gameEngine.cancelCurrentTimer();
+                gameEngine.stopSimulation();
             } else {
                 model.setGameStatus(GameStatus.RUNNING);
                 gameEngine.startGame();
             }
         });
 
+        // the jump runs on the simulation thread like the run, the controls are locked until its snapshot arrives,
+        // Pause and Reset cancel it
+        configurationPanel.getJumpButton().setOnAction(e -> {
+            model.setGameStatus(GameStatus.RUNNING);
+            gameEngine.jumpGenerations(model.getJumpSizePrimitive());
+        });
+
         configurationPanel.getResetButton().setOnAction(e -> {
             model.setGameStatus(GameStatus.STOPED);
             gameEngine.resetGame();
         });
 
+        configurationPanel.getBackButton().setOnAction(e -> gameEngine.rewindTo(model.getEpochCountPrimitive() - 1));
+
+        configurationPanel.getHistoryScrubber().setOnRewind(gameEngine::rewindTo);
+
+        FileChooser boardChooser = new FileChooser();
+        boardChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Board", "*.board"));
+
+        configurationPanel.getSaveButton().setOnAction(e -> {
+            // the copy is asked right away, the simulation thread takes it and the file is written in the background
+            // while the game goes on
+            CompletableFuture<BoardState> capture = gameEngine.captureBoard();
+            File file = boardChooser.showSaveDialog(primaryStage);
+            if (file == null) return;
+
+            capture.thenCompose(state -> BoardFile.saveAsync(state, file.toPath())).exceptionally(error -> {
+                Platform.runLater(() -> showError("The board was not saved", error.getMessage()));
+                return null;
+            });
+        });
+
+        configurationPanel.getLoadButton().setOnAction(e -> {
+            File file = boardChooser.showOpenDialog(primaryStage);
+            if (file == null) return;
+
+            BoardState state;
+            try {
+                state = BoardFile.load(file.toPath());
+            } catch (IOException error) {
+                showError("The board was not loaded", error.getMessage());
+                return;
+            }
+            if (!fitsPanel(state.grid().getRows()) || !fitsPanel(state.grid().getCols())) {
+                showError("The board was not loaded", "The board size must be from " + ConfigurationPanel.MIN_GRID_SIZE +
+                        " to " + ConfigurationPanel.MAX_GRID_SIZE + " cells");
+                return;
+            }
+
+            configurationPanel.setGridSize(state.grid().getRows(), state.grid().getCols());
+            gameEngine.loadGame(state);
+            // the field is applied after the map mode of the board is set, the rule is checked against it
+            configurationPanel.setRule(state.rule());
+        });
+        FileChooser patternChooser = new FileChooser();
+        patternChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Pattern", "*.rle", "*.cells"),
+                new FileChooser.ExtensionFilter("RLE", "*.rle"),
+                new FileChooser.ExtensionFilter("Plaintext", "*.cells"));
+
+        configurationPanel.getImportButton().setOnAction(e -> {
+            File file = patternChooser.showOpenDialog(primaryStage);
+            if (file == null) return;
+
+            try {
+                PatternFiles.read(file.toPath(), (BitGrid) model.getGridData().get(),
+                        model.getPatternRowPrimitive(), model.getPatternColPrimitive());
+            } catch (IOException error) {
+                showError("The pattern was not imported", error.getMessage());
+            }
+            // the part read before the error stays on the board as well
+            model.markGridDirty();
+        });
+
+        configurationPanel.getExportButton().setOnAction(e -> {
+            CompletableFuture<BoardState> capture = gameEngine.captureBoard();
+            String rule = RleFormat.ruleOf(model.getSelectedNeighborhood().get(), model.getActiveRule());
+            File file = patternChooser.showSaveDialog(primaryStage);
+            if (file == null) return;
+
+            capture.thenAcceptAsync(state -> {
+                try {
+                    PatternFiles.write(file.toPath(), state.grid(), rule);
+                } catch (IOException error) {
+                    throw new UncheckedIOException(error);
+                }
+            }).exceptionally(error -> {
+                Platform.runLater(() -> showError("The pattern was not exported", error.getMessage()));
+                return null;
+            });
+        });
 
         Scene scene = new Scene(root, 1200, 800); // Initial width and height
         primaryStage.setTitle("Automaton Simulation");
@@ -54,6 +151,16 @@ public class AutomatonApplication extends Application {
         primaryStage.show();
     }
 
+    private static boolean fitsPanel(int size) {
+        return size >= ConfigurationPanel.MIN_GRID_SIZE && size <= ConfigurationPanel.MAX_GRID_SIZE;
+    }
+
+    private static void showError(String header, String message) {
+        Alert alert = new Alert(Alert.AlertType.ERROR, message);
+        alert.setHeaderText(header);
+        alert.show();
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -0,0 +1,140 @@
+package org.automaton.control;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.enums.NeighborhoodType;
+import org.automaton.control.game.Simulation;
+import org.automaton.control.game.grid.SparseGrid;
+import org.automaton.control.game.rule.TotalisticRule;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The command line of the batch runners: the pairs of the option and its value, the option given twice keeps
+ * its last value. The values are read with their defaults, the invalid value fails with the name of its option.
+ */
+final class CommandLine {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    /**
+     * @param args - the pairs of the option and its value
+     * @param options - the known options
+     * @throws IllegalArgumentException when the option is unknown or its value is missing
+     */
+    CommandLine(String[] args, String... options) {
+        Set<String> known = Set.of(options);
+        for (int i = 0; i < args.length; i += 2) {
+            String option = args[i];
+            if (!known.contains(option)) throw new IllegalArgumentException("Unknown option " + option);
+            if (i + 1 >= args.length) throw new IllegalArgumentException("Missing the value of " + option);
+            this.values.put(option, args[i + 1]);
+        }
+    }
+
+    String get(String option, String defaultValue) {
+        return this.values.getOrDefault(option, defaultValue);
+    }
+
+    /**
+     * @param option - the option
+     * @param defaultValue - the value when the option is not given
+     * @param parser - turns the value into its type, it may throw NumberFormatException or IllegalArgumentException
+     * @return the parsed value
+     * @throws IllegalArgumentException when the value can not be parsed
+     */
+    <T> T get(String option, T defaultValue, Function<String, T> parser) {
+        String value = this.values.get(option);
+        if (value == null) return defaultValue;
+        try {
+            return parser.apply(value.trim());
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException is the IllegalArgumentException as well
+            throw new IllegalArgumentException("Invalid value for " + option + ": " + value, e);
+        }
+    }
+
+    int getInt(String option, int defaultValue) {
+        return get(option, defaultValue, Integer::parseInt);
+    }
+
+    long getLong(String option, long defaultValue) {
+        return get(option, defaultValue, Long::parseLong);
+    }
+
+    /**
+     * @throws IllegalArgumentException when the value is not a positive number
+     */
+    int getPositive(String option, int defaultValue) {
+        int value = getInt(option, defaultValue);
+        if (value <= 0) throw new IllegalArgumentException(option + " must be positive");
+        return value;
+    }
+
+    <E extends Enum<E>> E getEnum(String option, E defaultValue) {
+        return get(option, defaultValue, value -> Enum.valueOf(defaultValue.getDeclaringClass(), value.toUpperCase(Locale.ROOT)));
+    }
+
+    /**
+     * @param parser - turns one item of the comma separated list into its type
+     * @return the items, the blank ones are skipped
+     */
+    <T> List<T> getList(String option, List<T> defaultValue, Function<String, T> parser) {
+        return get(option, defaultValue, value -> {
+            List<T> items = new ArrayList<>();
+            for (String item : value.split(",")) {
+                if (!item.isBlank()) items.add(parser.apply(item.trim()));
+            }
+            return items;
+        });
+    }
+
+    /**
+     * Check that the simulation can run the rule, only the unbounded plane limits the rules
+     * @param neighborhood - the selected neighborhood, the Larger than Life rule brings its own
+     * @param rule - the rule
+     * @param mapMode - the edges of the board
+     * @throws IllegalArgumentException when the rule can not run in the map mode
+     */
+    static void checkSupported(NeighborhoodType neighborhood, TotalisticRule rule, MapMode mapMode) {
+        if (!Simulation.supports(rule.neighborhoodFor(neighborhood.getStrategy()), rule, mapMode)) {
+            throw new IllegalArgumentException("The rule " + rule + " can not run in the " + mapMode + " mode, the unbounded"
+                    + " plane needs the two states, no birth on 0 neighbors and the radius below " + SparseGrid.CHUNK_SIZE);
+        }
+    }
+
+    /**
+     * @param path - the file, "-" for the standard output, or null
+     * @return the writer of the file, or null for no path
+     */
+    static Writer openWriter(String path) throws IOException {
+        if (path == null) return null;
+        return path.equals("-") ? stdoutWriter() : Files.newBufferedWriter(Path.of(path));
+    }
+
+    /**
+     * @return the buffered writer of the standard output which does not close it
+     */
+    static Writer stdoutWriter() {
+        PrintStream stdout = System.out;
+        return new BufferedWriter(new OutputStreamWriter(stdout, StandardCharsets.UTF_8)) {
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+}
@@ -0,0 +1,180 @@
+package org.automaton.control;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.enums.NeighborhoodType;
+import org.automaton.control.game.Simulation;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.grid.RandomFill;
+import org.automaton.control.game.io.PlaintextFormat;
+import org.automaton.control.game.rule.TotalisticRule;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * The entry point for the batch runs without the UI, no JavaFX class is loaded here.
+ * The board is filled randomly from the seed, stepped as fast as possible and the final generation is written
+ * in the plain text format of the .cells files, one row per line with 'O' for the live and '.' for the dead cells.
+ * The dying cells of the Generations rules are written as the dead ones.
+ * The per-generation stats are written as CSV of the generation, the live cells and the step time in nanoseconds.
+ * <p>
+ * Example: {@code java -cp target/classes org.automaton.control.HeadlessRunner --rows 1024 --cols 1024
+ * --mode INFINITE --neighborhood MOORE --rule B36/S23 --seed 42 --live 30 --generations 1000 --stats stats.csv --out final.cells}
+ */
+public class HeadlessRunner {
+
+    private static final String USAGE = """
+            Usage: HeadlessRunner [options]
+              --rows <n>             the number of the rows, 64 by default
+              --cols <n>             the number of the columns, 64 by default
+              --mode <mode>          FINITE, INFINITE or UNBOUNDED, FINITE by default
+              --neighborhood <type>  VON_NEUMANN, VON_NEUMANN_EXTENDED or MOORE, MOORE by default
+              --rule <rule>          the B/S rule, e.g. B36/S23, the Generations rule, e.g. B2/S/C3,
+                                     or the Larger than Life rule with its own
+                                     neighborhood, e.g. R5,C0,M1,S34..58,B34..45,NM,
+                                     the default rule of the neighborhood by default
+              --seed <n>             the seed of the random fill, 0 by default
+              --live <percent>       the part of the live cells in the random fill, 30 by default
+              --generations <n>      the number of the generations to run, 100 by default
+              --threads <n>          the number of the threads of one step, 1 by default
+              --cycle-limit <n>      the longest period of the detected cycles, the run skips its rest over
+                                     the cycle without the stats, 0 (no detection) by default
+              --stats <file>         the file for the per-generation CSV stats, '-' for the standard output
+              --out <file>           the file for the final generation, the standard output by default
+            """;
+
+    /**
+     * The parsed command line
+     * @param rows - the number of the rows
+     * @param cols - the number of the columns
+     * @param mapMode - the edges of the board
+     * @param neighborhood - the neighborhood, the Larger than Life rule brings its own
+     * @param rule - the rule applied to the neighbor counts
+     * @param seed - the seed of the random fill
+     * @param livePercent - the part of the live cells in the random fill, in percent
+     * @param generations - the number of the generations to run
+     * @param threads - the parallelism of one step
+     * @param cycleLimit - the longest period of the detected cycles, 0 for no detection
+     * @param statsPath - the file of the stats, "-" for the standard output, or null for no stats
+     * @param outPath - the file of the final generation, or null for the standard output
+     */
+    public record Options(int rows, int cols, MapMode mapMode, NeighborhoodType neighborhood, TotalisticRule rule, long seed, int livePercent,
+                          long generations, int threads, int cycleLimit, String statsPath, String outPath) {}
+
+    /**
+     * The result of the run
+     * @param grid - the final generation
+     * @param epoch - the number of the final generation
+     * @param liveCount - the live cells of the final generation
+     * @param elapsedNanos - the time of the stepping only
+     * @param period - the period of the cycle the board ended in, 0 when no cycle was detected
+     * @param cycleStart - the first generation of the cycle, -1 when no cycle was detected
+     */
+    public record Result(BitGrid grid, long epoch, int liveCount, long elapsedNanos, int period, long cycleStart) {}
+
+    public static void main(String[] args) {
+        Options options;
+        try {
+            options = parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        try (Writer stats = CommandLine.openWriter(options.statsPath());
+             Writer out = options.outPath() == null ? CommandLine.stdoutWriter() : Files.newBufferedWriter(Path.of(options.outPath()))) {
+            Result result = run(options, stats);
+            PlaintextFormat.write(result.grid(), out, "HeadlessRunner");
+            out.flush();
+
+            double seconds = result.elapsedNanos() / 1e9;
+            double cells = (double) options.rows() * options.cols() * options.generations();
+            System.err.printf(Locale.ROOT, "%d generations in %.3f s, %.1f gen/s, %.3e cells/s, %d live%n",
+                    options.generations(), seconds, options.generations() / seconds, cells / seconds, result.liveCount());
+            if (result.period() > 0) {
+                System.err.printf(Locale.ROOT, "the cycle of the period %d from the generation %d%n", result.period(), result.cycleStart());
+            }
+        } catch (IOException e) {
+            System.err.println("The output failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Parse the command line, the options not given get their defaults
+     * @param args - the pairs of the option and its value
+     * @return the options of the run
+     * @throws IllegalArgumentException when the option is unknown or its value is invalid
+     */
+    public static Options parse(String[] args) {
+        CommandLine line = new CommandLine(args, "--rows", "--cols", "--mode", "--neighborhood", "--rule", "--seed", "--live",
+                "--generations", "--threads", "--cycle-limit", "--stats", "--out");
+        int rows = line.getPositive("--rows", 64);
+        int cols = line.getPositive("--cols", 64);
+        MapMode mapMode = line.getEnum("--mode", MapMode.FINITE);
+        NeighborhoodType neighborhood = line.getEnum("--neighborhood", NeighborhoodType.MOORE);
+        TotalisticRule rule = line.get("--rule", neighborhood.getStrategy().getDefaultRule(), TotalisticRule::parse);
+        long seed = line.getLong("--seed", 0);
+        int livePercent = line.getInt("--live", 30);
+        long generations = line.getLong("--generations", 100);
+        int threads = line.getPositive("--threads", 1);
+        int cycleLimit = line.getInt("--cycle-limit", 0);
+
+        if (livePercent < 0 || livePercent > 100) throw new IllegalArgumentException("--live must be from 0 to 100");
+        if (generations < 0) throw new IllegalArgumentException("--generations must not be negative");
+        if (cycleLimit < 0) throw new IllegalArgumentException("--cycle-limit must not be negative");
+        CommandLine.checkSupported(neighborhood, rule, mapMode);
+
+        return new Options(rows, cols, mapMode, neighborhood, rule, seed, livePercent, generations, threads, cycleLimit,
+                line.get("--stats", null), line.get("--out", null));
+    }
+
+    /**
+     * Fill the board and run the generations
+     * @param options - the options of the run
+     * @param stats - the writer for the per-generation stats, or null for no stats
+     * @return the final generation
+     * @throws IOException when the stats can not be written
+     */
+    public static Result run(Options options, Writer stats) throws IOException {
+        BitGrid grid = new BitGrid(options.rows(), options.cols());
+        RandomFill.fill(grid, options.livePercent() / 100.0, options.seed());
+
+        try (Simulation simulation = new Simulation(options.rule().neighborhoodFor(options.neighborhood().getStrategy()), options.rule(),
+                options.mapMode(), options.threads())) {
+            simulation.setCycleLimit(options.cycleLimit());
+            simulation.load(grid, 0, true);
+            if (stats != null) {
+                stats.write("generation,live,nanos\n");
+                stats.write("0," + simulation.getLiveCount() + ",0\n");
+            }
+
+            long elapsed = 0;
+            for (long i = 0; i < options.generations(); i++) {
+                long start = System.nanoTime();
+                simulation.step();
+                long nanos = System.nanoTime() - start;
+                elapsed += nanos;
+                if (stats != null) {
+                    stats.write(simulation.getEpoch() + "," + simulation.getLiveCount() + "," + nanos + "\n");
+                }
+                if (simulation.getPeriod() > 0) {
+                    // the rest of the run only repeats the cycle
+                    start = System.nanoTime();
+                    simulation.fastForward(options.generations() - i - 1);
+                    elapsed += System.nanoTime() - start;
+                    break;
+                }
+            }
+            if (stats != null) stats.flush();
+
+            return new Result(simulation.getGrid(), simulation.getEpoch(), simulation.getLiveCount(), elapsed,
+                    simulation.getPeriod(), simulation.getCycleStart());
+        }
+    }
+}
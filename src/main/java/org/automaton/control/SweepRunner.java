@@ -0,0 +1,110 @@
+package org.automaton.control;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.enums.NeighborhoodType;
+import org.automaton.control.sweep.SweepCsvWriter;
+import org.automaton.control.sweep.SweepEngine;
+import org.automaton.control.sweep.SweepParameters;
+import org.automaton.control.sweep.SweepSeeds;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The entry point for the parameter sweeps without the UI, the runs themselves are made by the {@link SweepEngine}
+ * and written as CSV, one line per run as the runs finish.
+ * <p>
+ * Example: {@code java -cp target/classes org.automaton.control.SweepRunner --live 10,30,50
+ * --neighborhood MOORE,VON_NEUMANN --mode FINITE,INFINITE --size 64,256 --seeds 1..100 --generations 10000
+ * --out sweep.csv}
+ */
+public class SweepRunner {
+
+    private static final String USAGE = """
+            Usage: SweepRunner [options], the lists are comma separated
+              --live <percents>          the parts of the live cells in the random fill, 30 by default
+              --neighborhood <types>     VON_NEUMANN, VON_NEUMANN_EXTENDED or MOORE, MOORE by default
+              --mode <modes>             FINITE, INFINITE or UNBOUNDED, FINITE by default
+              --size <sizes>             the sizes of the square boards, 64 by default
+              --seeds <seeds>            the seeds, the list or the range from..to, 1..10 by default
+              --generations <n>          the longest run, 10000 by default
+              --cycle-limit <n>          the longest period of the detected cycles, 64 by default, 0 runs all generations
+              --parallel <n>             the number of the runs at once, the number of the processors by default,
+                                         lowered so the memory of the runs at once fits the heap
+              --memory <megabytes>       the memory one run may take, 256 by default
+              --out <file>               the CSV file of the results, the standard output by default
+            """;
+
+    private SweepRunner() {}
+
+    public static void main(String[] args) throws InterruptedException {
+        Options options;
+        try {
+            options = parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        int parallel = SweepEngine.fitParallel(options.parallel(), options.parameters().memoryLimit());
+        if (parallel < options.parallel()) {
+            System.err.println("Only " + parallel + " runs at once fit the heap of " + (Runtime.getRuntime().maxMemory() >> 20) +
+                    " megabytes with --memory " + (options.parameters().memoryLimit() >> 20));
+        }
+
+        long start = System.nanoTime();
+        try (Writer out = options.outPath() == null ? CommandLine.stdoutWriter() : Files.newBufferedWriter(Path.of(options.outPath()))) {
+            SweepEngine.run(options.parameters(), parallel, new SweepCsvWriter(out));
+        } catch (IOException e) {
+            System.err.println("The output failed: " + e.getMessage());
+            System.exit(1);
+        }
+        System.err.printf(Locale.ROOT, "%d runs in %.3f s%n", options.parameters().size(), (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * The parsed command line
+     * @param parameters - the parameter grid of the sweep
+     * @param parallel - the number of the runs at once
+     * @param outPath - the CSV file, or null for the standard output
+     */
+    public record Options(SweepParameters parameters, int parallel, String outPath) {}
+
+    /**
+     * Parse the command line, the options not given get their defaults
+     * @param args - the pairs of the option and its value
+     * @return the options of the sweep
+     * @throws IllegalArgumentException when the option is unknown or its value is invalid
+     */
+    public static Options parse(String[] args) {
+        CommandLine line = new CommandLine(args, "--live", "--neighborhood", "--mode", "--size", "--seeds", "--generations",
+                "--cycle-limit", "--parallel", "--memory", "--out");
+        List<Integer> livePercents = line.getList("--live", List.of(30), Integer::parseInt);
+        List<NeighborhoodType> neighborhoods = line.getList("--neighborhood", List.of(NeighborhoodType.MOORE),
+                type -> NeighborhoodType.valueOf(type.toUpperCase(Locale.ROOT)));
+        List<MapMode> mapModes = line.getList("--mode", List.of(MapMode.FINITE), mode -> MapMode.valueOf(mode.toUpperCase(Locale.ROOT)));
+        List<Integer> sizes = line.getList("--size", List.of(64), Integer::parseInt);
+        SweepSeeds seeds = line.get("--seeds", new SweepSeeds.Range(1, 10), SweepSeeds::parse);
+        long generations = line.getLong("--generations", 10_000);
+        int cycleLimit = line.getInt("--cycle-limit", 64);
+        int parallel = line.getPositive("--parallel", Runtime.getRuntime().availableProcessors());
+        int memoryMegabytes = line.getPositive("--memory", 256);
+
+        if (cycleLimit < 0) throw new IllegalArgumentException("--cycle-limit must not be negative");
+        for (NeighborhoodType neighborhood : neighborhoods) {
+            for (MapMode mapMode : mapModes) {
+                CommandLine.checkSupported(neighborhood, neighborhood.getStrategy().getDefaultRule(), mapMode);
+            }
+        }
+
+        SweepParameters parameters = new SweepParameters(livePercents, neighborhoods, mapModes, sizes, seeds,
+                generations, cycleLimit, (long) memoryMegabytes << 20);
+        return new Options(parameters, parallel, line.get("--out", null));
+    }
+}
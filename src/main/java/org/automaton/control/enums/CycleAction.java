@@ -0,0 +1,17 @@
+package org.automaton.control.enums;
+
+import lombok.Getter;
+import org.automaton.control.common.HasDisplayName;
+
+/**
+ * What the running game does when the board repeats itself
+ */
+@Getter
+public enum CycleAction implements HasDisplayName {
+    PAUSE("Pause"), FAST_FORWARD("Skip ahead");
+
+    public final String displayName;
+    CycleAction(String displayName) {
+        this.displayName = displayName;
+    }
+}
@@ -1,11 +1,17 @@
 package org.automaton.control.enums;
 
 import lombok.Getter;
+import org.automaton.control.common.HasDisplayName;
 
+/**
+ * The edges of the board: the finite board with the dead border, the torus over the board
+ * and the unbounded plane, where the board is only the visible part
+ */
 @Getter
-public enum MapMode {
+public enum MapMode implements HasDisplayName {
     INFINITE("Infinite"),
-    FINITE("Finite");
+    FINITE("Finite"),
+    UNBOUNDED("Unbounded");
 
     private final String displayName;
 
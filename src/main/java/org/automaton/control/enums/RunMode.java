@@ -0,0 +1,17 @@
+package org.automaton.control.enums;
+
+import lombok.Getter;
+import org.automaton.control.common.HasDisplayName;
+
+/**
+ * The pacing of the simulation thread
+ */
+@Getter
+public enum RunMode implements HasDisplayName {
+    FIXED_RATE("Fixed rate"), MAX_SPEED("Max speed");
+
+    public final String displayName;
+    RunMode(String displayName) {
+        this.displayName = displayName;
+    }
+}
@@ -52,6 +52,51 @@ public class UiComponentFactory {
         return new Pair<>(sliderBox, slider.valueProperty());
     }
 
+    /**
+     * Function to make a box of a Label Spinner combo, used for the values with the wide range
+     * @param labelValue - the text passed to the label
+     * @param minValue - minimum value of the spinner
+     * @param maxValue - maximum value of the spinner
+     * @param startValue - start value of the spinner
+     * @param step - the increment of the spinner arrows
+     * @return the pair of the HBox object and spinner data for binding, the value can be set to update the spinner
+     */
+    public static Pair<HBox, ObjectProperty<Integer>> createSpinnerBox(String labelValue, int minValue, int maxValue, int startValue, int step) {
+        HBox spinnerBox = new HBox(10);
+        spinnerBox.setAlignment(Pos.CENTER_LEFT);
+
+        Label spinnerLabel = UiComponentFactory.createLabel(labelValue, 14);
+
+        Spinner<Integer> spinner = new Spinner<>(minValue, maxValue, startValue, step);
+        spinner.setEditable(true);
+
+        spinnerBox.getChildren().addAll(spinnerLabel, spinner);
+        HBox.setHgrow(spinner, Priority.ALWAYS);
+
+        return new Pair<>(spinnerBox, spinner.getValueFactory().valueProperty());
+    }
+
+    /**
+     * Function to make a box of a Label TextField combo
+     * @param labelValue - the text passed to the label
+     * @param promptText - the hint shown while the field is empty
+     * @return the pair of the HBox object and the text field
+     */
+    public static Pair<HBox, TextField> createTextFieldBox(String labelValue, String promptText) {
+        HBox textFieldBox = new HBox(10);
+        textFieldBox.setAlignment(Pos.CENTER_LEFT);
+
+        Label textFieldLabel = UiComponentFactory.createLabel(labelValue, 14);
+
+        TextField textField = new TextField();
+        textField.setPromptText(promptText);
+
+        textFieldBox.getChildren().addAll(textFieldLabel, textField);
+        HBox.setHgrow(textField, Priority.ALWAYS);
+
+        return new Pair<>(textFieldBox, textField);
+    }
+
     /**
      * Function to create a generic label
      * @param text - the text we want to see in label
@@ -175,6 +220,13 @@ public class UiComponentFactory {
             }
         }
 
+        // the value set on the property from the code, e.g. by the load of the board, is shown by the buttons
+        targetProperty.addListener((obs, oldValue, newValue) -> {
+            for (Toggle toggle : toggleGroup.getToggles()) {
+                if (toggle.getUserData() == newValue && !toggle.isSelected()) toggle.setSelected(true);
+            }
+        });
+
         toggleGroup.selectedToggleProperty().addListener((obs, oldToggle, newToggle) -> {
             if (newToggle != null) {
                 RadioButton selectedRadioButton = (RadioButton) newToggle;
@@ -1,94 +1,354 @@
 package org.automaton.control.game;
 
-import javafx.application.Platform;
-import org.automaton.control.enums.InputType;
+import lombok.Getter;
+import org.automaton.control.enums.CycleAction;
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.enums.NeighborhoodType;
+import org.automaton.control.enums.RunMode;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.grid.ByteGrid;
+import org.automaton.control.game.hashlife.HashLifeStats;
+import org.automaton.control.game.history.GenerationHistory;
+import org.automaton.control.game.io.BoardState;
 import org.automaton.control.game.neighborhood.NeighborhoodStrategy;
+import org.automaton.control.game.rule.TotalisticRule;
 import org.automaton.control.model.GameConfigModel;
 
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 
 /**
- * The singleton class for the game logic modules
+ * The singleton class for the game logic modules.
+ * The generations are computed on the own simulation thread, which never touches the model while running,
+ * the renderer takes the published snapshots from the exchange on its own pace.
  */
 public class GameEngine {
 
     private static final GameEngine INSTANCE = new GameEngine();
     private final GameConfigModel model = GameConfigModel.getInstance();
     private NeighborhoodStrategy selectedNeighborhoodStrategy;
+    private NeighborhoodType selectedNeighborhood;
+    private TotalisticRule selectedRule;
+    /** the board and the kernels, while the simulation runs only the simulation thread touches it */
+    private Simulation simulation;
+    /** the grid revision of the model which was last published by the engine, other revisions are the edits */
+    private long syncedRevision = -1;
 
-    private Timer gameLoopTimer;
-    private TimerTask gameLoopTask;
+    /** the largest number of the history deltas between two full keyframes, it bounds the time of the rewind */
+    private static final int KEYFRAME_INTERVAL = 32;
+    /** the generations kept for the rewind, while running only the simulation thread records them */
+    private final GenerationHistory history = new GenerationHistory(KEYFRAME_INTERVAL, 0);
+
+    /** the speed is measured over the windows of this length */
+    private static final long RATE_WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Getter private final SnapshotExchange snapshots = new SnapshotExchange();
+    /** the capture of the board asked while the simulation runs, the simulation thread takes it after its generation */
+    private final AtomicReference<CompletableFuture<BoardState>> captureRequest = new AtomicReference<>();
+    private volatile boolean running;
+    private Thread simulationThread;
+
+    /** the pacing of the current run, 0 for the unthrottled run */
+    private long tickNanos;
+    /** the generations left in the current run, negative for no limit */
+    private long generationsLeft;
+    /** what the current run does when the board repeats itself */
+    private CycleAction cycleAction;
+    private long skippedTicks;
+    private double generationsPerSecond;
 
     private GameEngine() {}
 
     public static GameEngine getInstance() { return INSTANCE; }
 
     /**
-     * function to make a new timer and star a job
+     * function to take the current board and the pacing from the model and start the simulation thread
      */
     public void startGame(){
         setSelectedNeighborhoodStrategy();
 
-        gameLoopTimer = new Timer(true); // Create a new daemon Timer
-        gameLoopTask = new TimerTask() {
-            @Override
-            public void run() {
-                Platform.runLater(() -> {
-                    performOneEpochIteration();
-                });
+        loadModelGrid();
+
+        this.tickNanos = this.model.getRunMode().get() == RunMode.MAX_SPEED
+                ? 0
+                : TimeUnit.SECONDS.toNanos(1) / Math.max(1, this.model.getTargetRatePrimitive());
+        this.generationsLeft = this.model.getGenerationLimitPrimitive() > 0 ? this.model.getGenerationLimitPrimitive() : -1;
+        this.cycleAction = this.model.getCycleAction().get();
+        this.skippedTicks = 0;
+        this.generationsPerSecond = 0;
+        this.running = true;
+
+        this.simulationThread = new Thread(this::runSimulation, "simulation");
+        this.simulationThread.setDaemon(true);
+        this.simulationThread.start();
+    }
+
+    /**
+     * stop the simulation thread and publish its last generation into the model, used to pause or reset,
+     * the running jump is cancelled
+     */
+    public void stopSimulation() {
+        if (this.simulationThread == null) return;
+
+        this.running = false;
+        this.simulationThread.interrupt();
+        try {
+            this.simulationThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.simulationThread = null;
+        this.snapshots.clear();
+        // the capture asked right before the stop was not taken by the simulation thread
+        serveCapture();
+
+        this.model.setGenerationsPerSecond(this.generationsPerSecond);
+        this.model.setSkippedTicks(this.skippedTicks);
+        HashLifeStats stats = this.simulation.getHashLifeStats();
+        if (stats != null) {
+            this.model.setHashLifeNodes(stats.nodeCount());
+            this.model.setHashLifeHitRate(stats.hitRate());
+        }
+        publishGrid();
+        this.model.markGridDirty();
+        this.syncedRevision = this.model.getGridRevisionPrimitive();
+    }
+
+    /**
+     * The loop of the simulation thread, one generation per tick or without any pause in the max speed mode.
+     * When the step takes longer than the tick, the missed ticks are coalesced and counted, not caught up.
+     * The run ends when the board repeats itself, the limited run may skip its rest over the cycle first.
+     */
+    private void runSimulation() {
+        long nextTick = System.nanoTime();
+        long windowStart = nextTick;
+        long windowEpoch = this.simulation.getEpoch();
+
+        while (this.running) {
+            this.simulation.step();
+            recordHistory();
+
+            long now = System.nanoTime();
+            if (now - windowStart >= RATE_WINDOW_NANOS) {
+                this.generationsPerSecond = (this.simulation.getEpoch() - windowEpoch) * 1e9 / (now - windowStart);
+                windowStart = now;
+                windowEpoch = this.simulation.getEpoch();
             }
-        };
 
-        gameLoopTimer.scheduleAtFixedRate(gameLoopTask, 0, 200);
+            boolean finished = this.generationsLeft > 0 && --this.generationsLeft == 0;
+            if (!finished && this.simulation.getPeriod() > 0) {
+                if (this.cycleAction == CycleAction.FAST_FORWARD && this.generationsLeft > 0) {
+                    this.simulation.fastForward(this.generationsLeft);
+                    recordHistory();
+                }
+                finished = true;
+            }
+            this.snapshots.offer(this.simulation.getGrid(), this.simulation.getStates(), this.simulation.getEpoch(), this.simulation.getLiveCount(),
+                    this.generationsPerSecond, this.skippedTicks, this.simulation.getActiveTileRatio(), finished);
+            serveCapture();
+            if (finished) return;
+
+            if (this.tickNanos > 0) {
+                nextTick += this.tickNanos;
+                long wait = nextTick - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                } else {
+                    this.skippedTicks += -wait / this.tickNanos;
+                    nextTick = System.nanoTime();
+                }
+            }
+        }
     }
 
     /**
-     * stop the timer´, used to pause or reset
+     * Advance the paused or stopped game by the number of generations at once on the simulation thread.
+     * The Moore neighborhood on the torus goes through HashLife, the other configurations are stepped by the kernel,
+     * with the cycle detection turned on the rest of the jump is skipped over the detected cycle.
+     * The jump ends with the finished snapshot like the limited run, {@link #stopSimulation} cancels it
+     * at the generation reached so far.
+     * @param generations - the number of the generations to skip
      */
-    public void cancelCurrentTimer() {
-        if (gameLoopTimer != null) {
-            gameLoopTimer.cancel();
-            gameLoopTimer = null;
-            gameLoopTask = null;
-            System.out.println("Current game loop timer cancelled.");
+    public void jumpGenerations(long generations){
+        if (this.simulationThread != null) {
+            throw new IllegalStateException("The simulation must be stopped before the jump");
         }
+        setSelectedNeighborhoodStrategy();
+
+        loadModelGrid();
+
+        this.skippedTicks = 0;
+        this.generationsPerSecond = 0;
+        this.running = true;
+        this.simulationThread = new Thread(() -> runJump(generations), "simulation");
+        this.simulationThread.setDaemon(true);
+        this.simulationThread.start();
+    }
+
+    /**
+     * The body of the simulation thread for the jump, only the last generation is published
+     */
+    private void runJump(long generations) {
+        long start = System.nanoTime();
+        long startEpoch = this.simulation.getEpoch();
+
+        this.simulation.advance(generations);
+        recordHistory();
+
+        long elapsed = System.nanoTime() - start;
+        if (elapsed > 0) this.generationsPerSecond = (this.simulation.getEpoch() - startEpoch) * 1e9 / elapsed;
+        this.snapshots.offer(this.simulation.getGrid(), this.simulation.getStates(), this.simulation.getEpoch(), this.simulation.getLiveCount(),
+                this.generationsPerSecond, this.skippedTicks, this.simulation.getActiveTileRatio(), true);
+        serveCapture();
+    }
+
+    /**
+     * Take the private copy of the current generation for the save. While the simulation runs the copy is made
+     * by the simulation thread after its current generation, the jump is captured at its end,
+     * so the UI thread does not copy the running board
+     * @return the future of the state, it is complete already when the simulation is stopped
+     */
+    public CompletableFuture<BoardState> captureBoard(){
+        if (this.simulationThread == null) {
+            return CompletableFuture.completedFuture(new BoardState(this.model.getSelectedMode().get(),
+                    this.model.getSelectedNeighborhood().get(), this.model.getActiveRule(), this.model.getEpochCountPrimitive(),
+                    ((BitGrid) this.model.getGridData().get()).copy()));
+        }
+        // the captures asked before the simulation thread came to them share the same copy
+        return this.captureRequest.updateAndGet(request -> request != null ? request : new CompletableFuture<>());
+    }
+
+    /**
+     * Complete the pending capture with the copy of the current generation of the simulation
+     */
+    private void serveCapture(){
+        CompletableFuture<BoardState> request = this.captureRequest.getAndSet(null);
+        if (request == null) return;
+
+        request.complete(new BoardState(this.simulation.getMapMode(), this.selectedNeighborhood, this.selectedRule,
+                this.simulation.getEpoch(), this.simulation.getGrid().copy()));
     }
 
     /**
      * FUll reset of the game
      */
     public void resetGame(){
-        cancelCurrentTimer();
+        stopSimulation();
 
+        if (this.simulation != null) this.simulation.clearUniverse();
+        this.history.clear();
+        this.model.setHistoryRange(-1, -1);
         this.model.setEpochCount(0);
+        this.model.setDetectedPeriod(0);
         this.model.resetDataGrid();
     }
 
+    /**
+     * Replace the game by the loaded one, the simulation must be stopped
+     * @param state - the loaded state, its grid becomes the model grid and its rule the rule of the game
+     */
+    public void loadGame(BoardState state){
+        if (this.simulationThread != null) {
+            throw new IllegalStateException("The simulation must be stopped before the load");
+        }
+        if (this.simulation != null) this.simulation.clearUniverse();
+        this.history.clear();
+        this.model.setHistoryRange(-1, -1);
+
+        this.model.getSelectedMode().set(state.mapMode());
+        this.model.getSelectedNeighborhood().set(state.neighborhood());
+        this.model.getRule().set(state.rule());
+        this.model.setEpochCount(state.epoch());
+        this.model.setLiveCount(state.grid().countLive());
+        this.model.getStateData().set(null);
+        this.model.getGridData().set(state.grid());
+        this.model.markGridDirty();
+    }
+
+    /**
+     * Compute the next generation of the model grid synchronously on the calling thread and publish it into the model
+     */
     public void performOneEpochIteration(){
-        model.incrementEpochs();
+        loadModelGrid();
+        this.simulation.step();
+        recordHistory();
 
-        int[][] newGrid = new int[model.getRowsPrimitive()][model.getColsPrimitive()];
+        publishGrid();
+        this.syncedRevision = this.model.getGridRevisionPrimitive();
+    }
 
-        int survive = 0;
-        for (int i = 0; i < model.getRowsPrimitive(); i++){
-            for (int j = 0; j < model.getColsPrimitive(); j++){
-                int resultForCell = performOnePointIteration(i, j);
-                newGrid[i][j] = resultForCell;
-                if (resultForCell == 1) survive++;
-            }
+    /**
+     * Take the current generation from the model. The cells edited in place since the last published generation
+     * are not known to the tile tracking, it is dropped then. On the unbounded plane the model grid is its visible
+     * part, it replaces the same part of the plane and the rest of the plane is kept.
+     * The states of the Generations rule follow the edits of the live cells, the dying cells are kept.
+     */
+    private void loadModelGrid(){
+        boolean edited = this.model.getGridRevisionPrimitive() != this.syncedRevision;
+        this.simulation.load((BitGrid) this.model.getGridData().get(), this.model.getStateData().get(),
+                this.model.getEpochCountPrimitive(), edited);
+
+        // the edited generation replaces the recorded one, the rewound generation is already there
+        this.history.setMemoryBudget((long) this.model.getHistoryBudgetPrimitive() << 20);
+        if (edited || !this.history.contains(this.simulation.getEpoch())) recordHistory();
+    }
+
+    /**
+     * Add the current generation of the simulation to the history, when the history is turned on
+     */
+    private void recordHistory(){
+        if (this.history.getMemoryBudget() > 0) {
+            this.history.record(this.simulation.getEpoch(), this.simulation.getGrid());
+        }
+    }
+
+    /**
+     * Go back to the generation kept in the history, the simulation must be stopped.
+     * The later generations stay in the history until the next step, so the generations can be scrubbed both ways.
+     * On the unbounded plane only the board part of the plane is restored. The history keeps the live cells only,
+     * the dying cells of the Generations rule are not restored.
+     * @param epoch - the number of the generation
+     * @return false when the generation is not in the history
+     */
+    public boolean rewindTo(long epoch){
+        if (this.simulationThread != null) {
+            throw new IllegalStateException("The simulation must be stopped before the rewind");
         }
+        BitGrid grid = this.history.restore(epoch);
+        if (grid == null) return false;
 
-        model.setLiveCount(survive);
-        model.getGridData().set(newGrid);
+        if (this.simulation != null) this.simulation.clearUniverse();
+        this.model.setEpochCount(epoch);
+        this.model.setLiveCount(grid.countLive());
+        this.model.getStateData().set(null);
+        this.model.getGridData().set(grid);
+        this.model.markGridDirty();
+        // the restored generation is not an edit, it is in the history already
+        this.syncedRevision = this.model.getGridRevisionPrimitive();
+        return true;
     }
 
     /**
-     * The action on specific cell
+     * Put the current generation of the simulation and its counters into the model
+     */
+    private void publishGrid(){
+        this.model.setEpochCount(this.simulation.getEpoch());
+        this.model.setLiveCount(this.simulation.getLiveCount());
+        this.model.setActiveTileRatio(this.simulation.getActiveTileRatio());
+        this.model.setDetectedPeriod(this.simulation.getPeriod());
+        this.model.getStateData().set(this.simulation.getStates());
+        this.model.getGridData().set(this.simulation.getGrid());
+        this.model.setHistoryRange(this.history.getOldestEpoch(), this.history.getNewestEpoch());
+    }
+
+    /**
+     * The action on specific cell, it is the reference per-cell logic, the epoch itself is computed by the kernel
      * @param x - row of the desired cell
      * @param y - coll of the desired cell
-     * @return the value of 1 or 0 depending on the logic
+     * @return the next state of the cell, 1 or 0 for the two-state rules
      */
     public int performOnePointIteration(int x, int y){
         List<GridPoint> points = this.selectedNeighborhoodStrategy.pointsNeighborhoods(x, y);
@@ -98,14 +358,30 @@ public class GameEngine {
             lifeCount += this.model.getDataGridCoordinate(point.x(), point.y());
         }
 
-        if (this.model.getDataGridCoordinate(x, y) == 0){
-            return (this.selectedNeighborhoodStrategy.getBirthValue() == lifeCount) ? 1 : 0;
-        } else {
-            return (lifeCount < this.selectedNeighborhoodStrategy.getSurviveMin() || lifeCount > this.selectedNeighborhoodStrategy.getSurviveMax()) ? 0 : 1;
-        }
+        // the grid holds the live cells only, the dying cells of the Generations rule are in the states
+        ByteGrid states = this.model.getStateData().get();
+        int state = states != null ? states.get(x, y) : this.model.getDataGridCoordinate(x, y);
+        return this.selectedRule.next(state, lifeCount);
     }
 
+    /**
+     * Take the neighborhood, the rule, the map mode, the parallelism and the cycle detection from the model
+     * and compile the kernel for them
+     */
     public void setSelectedNeighborhoodStrategy() {
-        this.selectedNeighborhoodStrategy = this.model.getSelectedNeighborhood().get().getStrategy();;
+        this.selectedNeighborhoodStrategy = this.model.getActiveStrategy();
+        this.selectedNeighborhood = this.model.getSelectedNeighborhood().get();
+        this.selectedRule = this.model.getActiveRule();
+
+        NeighborhoodStrategy strategy = this.selectedNeighborhoodStrategy;
+        MapMode mapMode = this.model.getSelectedMode().get();
+        int parallelism = this.model.getParallelismPrimitive();
+
+        if (this.simulation == null) {
+            this.simulation = new Simulation(strategy, this.selectedRule, mapMode, parallelism);
+        } else {
+            this.simulation.configure(strategy, this.selectedRule, mapMode, parallelism);
+        }
+        this.simulation.setCycleLimit(this.model.getCycleLimitPrimitive());
     }
 }
@@ -0,0 +1,27 @@
+package org.automaton.control.game;
+
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.grid.ByteGrid;
+
+/**
+ * The immutable view of one generation published by the simulation thread for the renderer.
+ * The grid is a private copy, it is not changed until the renderer releases the snapshot.
+ * @param epoch - the number of the generation
+ * @param liveCount - the number of the live cells in the generation
+ * @param grid - the copy of the cells
+ * @param states - the copy of the states of the Generations rule, null for the two-state rules
+ * @param generationsPerSecond - the measured speed of the simulation
+ * @param skippedTicks - the number of the ticks which were coalesced, because the steps took longer than the tick
+ * @param activeTileRatio - the part of the board tiles which were recomputed for the generation
+ * @param finished - true for the last generation of the limited run, the simulation thread has stopped after it
+ */
+public record GenerationSnapshot(
+        long epoch,
+        int liveCount,
+        BitGrid grid,
+        ByteGrid states,
+        double generationsPerSecond,
+        long skippedTicks,
+        double activeTileRatio,
+        boolean finished
+) { }
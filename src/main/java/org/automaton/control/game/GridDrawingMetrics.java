@@ -6,10 +6,12 @@ package org.automaton.control.game;
  * @param rows - the number of the rows in the grid
  * @param cols - the number of the columns in the grid
  * @param cellSize - the size of the cell (of the sides, as we have square)
- * @param totalGridWidth - the total width of the grid (smaller than canvas size, used for grid drawing zB.)
+ * @param totalGridWidth - the total width of the grid (may be bigger than the canvas when zoomed in)
  * @param totalGridHeight - the total height of the grid
- * @param offsetX - the offset by X axis of the grid to place it in the center of canvas
- * @param offsetY - the offset by Y axis of the grid to place it in the center of canvas
+ * @param offsetX - the offset by X axis of the grid, the grid is centered in the canvas and then panned
+ * @param offsetY - the offset by Y axis of the grid
+ * @param viewWidth - the width of the canvas, only this part of the grid is visible
+ * @param viewHeight - the height of the canvas
  */
 public record GridDrawingMetrics(
         int rows,
@@ -18,7 +20,9 @@ public record GridDrawingMetrics(
         double totalGridWidth,
         double totalGridHeight,
         double offsetX,
-        double offsetY
+        double offsetY,
+        double viewWidth,
+        double viewHeight
 ) {
 
     /**
@@ -30,19 +34,82 @@ public record GridDrawingMetrics(
      * @return new record of the GridDrawingMetrics with calculated grid constants for the drawing and manual click detection
      */
     public static GridDrawingMetrics calculate(int rows, int cols, double availableGridWidth, double availableGridHeight) {
+        return calculate(rows, cols, availableGridWidth, availableGridHeight, 1, 0, 0);
+    }
+
+    /**
+     * Function to make the metrics of the zoomed and panned view, the zoom of 1 fits the whole grid into the canvas
+     * @param rows - number of the required rows
+     * @param cols - number of the required columns
+     * @param availableGridWidth - the width of the canvas
+     * @param availableGridHeight - the height of the canvas
+     * @param zoom - the scale relative to the fitted grid
+     * @param panX - the shift of the grid center from the canvas center in pixels
+     * @param panY - the vertical shift in pixels
+     * @return new record of the GridDrawingMetrics for the view
+     */
+    public static GridDrawingMetrics calculate(int rows, int cols, double availableGridWidth, double availableGridHeight,
+                                               double zoom, double panX, double panY) {
         double effectiveCanvasSize = Math.min(availableGridWidth, availableGridHeight);
 
         double possibleCellWidth = effectiveCanvasSize / cols;
         double possibleCellHeight = effectiveCanvasSize / rows;
 
-        double cellSize = Math.min(possibleCellWidth, possibleCellHeight);
+        double cellSize = Math.min(possibleCellWidth, possibleCellHeight) * zoom;
 
         double totalGridWidth = cellSize * cols;
         double totalGridHeight = cellSize * rows;
 
-        double offsetX = (availableGridWidth - totalGridWidth) / 2;
-        double offsetY = (availableGridHeight - totalGridHeight) / 2;
+        double offsetX = (availableGridWidth - totalGridWidth) / 2 + panX;
+        double offsetY = (availableGridHeight - totalGridHeight) / 2 + panY;
+
+        return new GridDrawingMetrics(rows, cols, cellSize, totalGridWidth, totalGridHeight, offsetX, offsetY,
+                availableGridWidth, availableGridHeight);
+    }
+
+    /**
+     * @return the first row which is at least partly inside the canvas
+     */
+    public int firstVisibleRow() { return visibleFrom(this.offsetY, this.rows); }
+
+    /**
+     * @return the row after the last visible one
+     */
+    public int lastVisibleRow() { return visibleTo(this.offsetY, this.viewHeight, this.rows); }
+
+    public int firstVisibleCol() { return visibleFrom(this.offsetX, this.cols); }
+
+    public int lastVisibleCol() { return visibleTo(this.offsetX, this.viewWidth, this.cols); }
+
+    /**
+     * @return the number of the cells inside the canvas
+     */
+    public long visibleCells() {
+        return (long) Math.max(0, lastVisibleRow() - firstVisibleRow()) * Math.max(0, lastVisibleCol() - firstVisibleCol());
+    }
+
+    /**
+     * The hit test of the view
+     * @param x - the X coordinate on the canvas
+     * @param y - the Y coordinate on the canvas
+     * @return the cell under the point, or null when the point is outside of the grid
+     */
+    public GridPoint cellAt(double x, double y) {
+        double gridX = x - this.offsetX;
+        double gridY = y - this.offsetY;
+        if (gridX < 0 || gridY < 0 || gridX >= this.totalGridWidth || gridY >= this.totalGridHeight) return null;
+
+        int row = (int) (gridY / this.cellSize);
+        int col = (int) (gridX / this.cellSize);
+        if (row >= this.rows || col >= this.cols) return null;
+        return new GridPoint(row, col);
+    }
+
+    private int visibleFrom(double offset, int count) {
+        return (int) Math.min(count, Math.max(0, Math.floor(-offset / this.cellSize)));
+    }
 
-        return new  GridDrawingMetrics(rows, cols, cellSize, totalGridWidth, totalGridHeight, offsetX, offsetY);
+    private int visibleTo(double offset, double viewSize, int count) {
+        return (int) Math.min(count, Math.max(0, Math.ceil((viewSize - offset) / this.cellSize)));
     }
 }
@@ -0,0 +1,326 @@
+package org.automaton.control.game;
+
+import lombok.Getter;
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.grid.ByteGrid;
+import org.automaton.control.game.grid.SparseGrid;
+import org.automaton.control.game.hashlife.HashLife;
+import org.automaton.control.game.hashlife.HashLifeStats;
+import org.automaton.control.game.history.CycleDetector;
+import org.automaton.control.game.kernel.ActiveTileKernel;
+import org.automaton.control.game.kernel.GenerationsKernel;
+import org.automaton.control.game.kernel.SparseKernel;
+import org.automaton.control.game.kernel.StepKernels;
+import org.automaton.control.game.neighborhood.NeighborhoodStrategy;
+import org.automaton.control.game.rule.GenerationsRule;
+import org.automaton.control.game.rule.TotalisticRule;
+
+/**
+ * The core of the simulation without any UI or model dependency, it is used by the GameEngine and by the headless runner.
+ * It owns the double buffered board, the kernels of the selected rule and the unbounded plane, and it is not thread safe,
+ * only one thread at a time may step it.
+ */
+public class Simulation implements AutoCloseable {
+
+    /** the size of the HashLife node cache which triggers its sweep */
+    private static final int HASH_LIFE_MAX_NODES = 1_000_000;
+    /**
+     * the generations stepped before the HashLife jump, the random soup settles in about this many generations,
+     * HashLife is slow on the unsettled soup and the settled board may be caught in the detected cycle
+     */
+    private static final long HASH_LIFE_PROBE = 16_384;
+
+    @Getter private NeighborhoodStrategy strategy;
+    @Getter private TotalisticRule rule;
+    @Getter private MapMode mapMode;
+    private ActiveTileKernel stepKernel;
+    /** the decay of the dying cells, null for the two-state rules */
+    private GenerationsKernel generationsKernel;
+    /** the kernel of the unbounded plane, null in the other map modes */
+    private SparseKernel sparseKernel;
+    /** created on the first jump, the node cache is kept between the jumps */
+    private HashLife hashLife;
+
+    /** the current generation, on the unbounded plane it is the visible part at the origin */
+    @Getter private BitGrid grid;
+    /** the states of the cells of the Generations rule, the grid holds its live cells, null for the two-state rules */
+    @Getter private ByteGrid states;
+    /** the grid of the previous generation, reused as the target of the next step */
+    private BitGrid backBuffer;
+    /** the whole unbounded plane */
+    private SparseGrid universe;
+    private SparseGrid universeBack;
+    @Getter private long epoch;
+    @Getter private int liveCount;
+
+    /** the longest detected period, 0 when the detection is turned off */
+    @Getter private int cycleLimit;
+    /** the detection of the still lifes and the oscillators, null when it is turned off */
+    private CycleDetector cycleDetector;
+    /** the first generation of the detected cycle, -1 before the detection */
+    @Getter private long cycleStart = -1;
+
+    /**
+     * @param strategy - the neighborhood
+     * @param rule - the rule applied to the neighbor counts
+     * @param mapMode - the edges of the board
+     * @param parallelism - the number of the threads of one step
+     */
+    public Simulation(NeighborhoodStrategy strategy, TotalisticRule rule, MapMode mapMode, int parallelism) {
+        configure(strategy, rule, mapMode, parallelism);
+    }
+
+    /**
+     * Compile the kernels for the rule, the current board is kept. The unbounded plane is dropped
+     * when the map mode is not unbounded anymore.
+     * @param strategy - the neighborhood
+     * @param rule - the rule applied to the neighbor counts
+     * @param mapMode - the edges of the board
+     * @param parallelism - the number of the threads of one step
+     * @throws IllegalArgumentException when the rule can not run in the map mode, see {@link #supports}
+     */
+    public void configure(NeighborhoodStrategy strategy, TotalisticRule rule, MapMode mapMode, int parallelism) {
+        if (!supports(strategy, rule, mapMode)) {
+            throw new IllegalArgumentException("The rule " + rule + " can not run on the unbounded plane");
+        }
+        close();
+        this.strategy = strategy;
+        this.rule = rule;
+        this.mapMode = mapMode;
+        // the HashLife cache is kept between the jumps of the same rule only
+        if (this.hashLife != null && !this.hashLife.getRule().equals(rule)) this.hashLife = null;
+
+        int radius = strategy.getRadius();
+        this.generationsKernel = rule instanceof GenerationsRule generations ? new GenerationsKernel(generations) : null;
+        if (this.generationsKernel == null) this.states = null;
+        // the kernel steps the live cells of the Generations rule by its B/S part, so the fastest kernel of the part is chosen
+        TotalisticRule liveRule = rule instanceof GenerationsRule generations ? generations.life() : rule;
+        this.stepKernel = new ActiveTileKernel(() -> StepKernels.create(strategy, liveRule, mapMode), radius, mapMode, parallelism);
+        if (mapMode == MapMode.UNBOUNDED) {
+            this.sparseKernel = new SparseKernel(StepKernels.create(strategy, rule, MapMode.FINITE), radius);
+        } else {
+            this.sparseKernel = null;
+            clearUniverse();
+        }
+        setCycleLimit(this.cycleLimit);
+    }
+
+    /**
+     * Turn on the detection of the cycles, it starts again from the current generation.
+     * The Generations rule repeats itself only when its live cells repeat for as many generations as the dying cells
+     * last, so the period is reported after that many repeats. On the unbounded plane the cycles are not detected.
+     * @param maxPeriod - the longest period to detect, 0 turns the detection off
+     */
+    public void setCycleLimit(int maxPeriod) {
+        this.cycleLimit = Math.max(0, maxPeriod);
+        this.cycleDetector = this.cycleLimit > 0 ? new CycleDetector(this.cycleLimit, this.rule.states() - 1) : null;
+        restartCycleDetection();
+    }
+
+    /**
+     * @return the period of the cycle the board is in, 1 for the still life, 0 while no cycle was detected
+     */
+    public int getPeriod() {
+        return this.cycleDetector == null ? 0 : this.cycleDetector.getPeriod();
+    }
+
+    /**
+     * The unbounded plane must stay empty around the population and its chunks are computed in the windows
+     * of the neighbor chunks, so the rule with the birth on 0 neighbors or the radius of the chunk size can not run there.
+     * The chunks hold the live cells only, the multi-state rules can not run there either.
+     * @param strategy - the neighborhood
+     * @param rule - the rule applied to the neighbor counts
+     * @param mapMode - the edges of the board
+     * @return true when the simulation can run the rule in the map mode
+     */
+    public static boolean supports(NeighborhoodStrategy strategy, TotalisticRule rule, MapMode mapMode) {
+        return mapMode != MapMode.UNBOUNDED
+                || (rule.states() == 2 && !rule.birthOnEmpty() && strategy.getRadius() < SparseGrid.CHUNK_SIZE);
+    }
+
+    /**
+     * Take the board to continue from. On the unbounded plane the grid replaces its visible part,
+     * the rest of the plane is kept.
+     * @param grid - the current generation, the simulation steps it in place of its buffers from now on
+     * @param epoch - the number of the generation
+     * @param edited - true when the cells may have been changed outside of the simulation since its last step
+     */
+    public void load(BitGrid grid, long epoch, boolean edited) {
+        load(grid, null, epoch, edited);
+    }
+
+    /**
+     * Take the board of the Generations rule to continue from, the states are brought in line with the live cells
+     * of the grid, so the cells edited in the grid take their place in the states
+     * @param grid - the live cells of the current generation
+     * @param states - the states of the current generation, or null to start with no dying cells
+     * @param epoch - the number of the generation
+     * @param edited - true when the cells may have been changed outside of the simulation since its last step
+     */
+    public void load(BitGrid grid, ByteGrid states, long epoch, boolean edited) {
+        if (this.generationsKernel != null) {
+            if (states == null || states.getRows() != grid.getRows() || states.getCols() != grid.getCols()) {
+                states = new ByteGrid(grid.getRows(), grid.getCols());
+            }
+            this.generationsKernel.load(grid, states);
+        }
+        this.states = this.generationsKernel != null ? states : null;
+        this.grid = grid;
+        this.epoch = epoch;
+        if (edited) this.stepKernel.invalidate();
+        restartCycleDetection();
+
+        if (this.sparseKernel == null) {
+            this.liveCount = grid.countLive();
+            return;
+        }
+        if (this.universe == null) {
+            this.universe = new SparseGrid();
+            this.universeBack = new SparseGrid();
+        }
+        this.universe.pasteWindow(grid, 0, 0);
+        this.liveCount = this.universe.countLive();
+    }
+
+    /**
+     * Forget the seen generations, the detection starts from the current one
+     */
+    private void restartCycleDetection() {
+        this.cycleStart = -1;
+        if (this.cycleDetector != null && this.grid != null) this.cycleDetector.reset(this.grid);
+    }
+
+    /**
+     * Forget the unbounded plane, the next load starts it from the loaded grid only
+     */
+    public void clearUniverse() {
+        this.universe = null;
+        this.universeBack = null;
+    }
+
+    /**
+     * Compute the next generation into the back buffer and swap the buffers
+     */
+    public void step() {
+        BitGrid nextGrid = obtainBackBuffer();
+        if (this.universe != null) {
+            this.liveCount = this.sparseKernel.step(this.universe, this.universeBack);
+            SparseGrid swap = this.universe;
+            this.universe = this.universeBack;
+            this.universeBack = swap;
+            this.universe.copyWindow(nextGrid, 0, 0);
+        } else if (this.generationsKernel != null) {
+            // the decay changes the cells behind the back of the tile tracking, every tile is computed
+            this.stepKernel.invalidate();
+            this.stepKernel.step(this.grid, nextGrid);
+            this.liveCount = this.generationsKernel.decay(this.grid, nextGrid, this.states);
+        } else {
+            this.liveCount = this.stepKernel.step(this.grid, nextGrid);
+        }
+        // the board in the cycle stays in it, the hash is not needed anymore
+        if (this.cycleDetector != null && this.universe == null && this.cycleDetector.getPeriod() == 0) {
+            // the tile tracking knows the changed words of the binary step, the decay changes the cells after it
+            boolean[] changedTiles = this.generationsKernel == null ? this.stepKernel.getChangedTiles() : null;
+            int period = changedTiles != null
+                    ? this.cycleDetector.update(this.grid, nextGrid, changedTiles, ActiveTileKernel.TILE_ROWS)
+                    : this.cycleDetector.update(this.grid, nextGrid);
+            if (period > 0) this.cycleStart = this.epoch + 1 - period;
+        }
+        this.backBuffer = this.grid;
+        this.grid = nextGrid;
+        this.epoch++;
+    }
+
+    /**
+     * Advance the board by the number of generations at once.
+     * The board is stepped by the kernel until the cycle is detected, the rest is skipped over the cycle.
+     * The Moore neighborhood on the torus is stepped only for the first generations, the board which has not
+     * settled into the detected cycle by then goes through HashLife for the rest.
+     * The interrupted thread stops the jump at the generation reached so far, the epoch tells which one it is.
+     * @param generations - the number of the generations to skip
+     */
+    public void advance(long generations) {
+        if (generations <= 0) return;
+
+        boolean viaHashLife = HashLife.supports(this.strategy, this.rule) && this.mapMode == MapMode.INFINITE;
+        long stepped = viaHashLife ? Math.min(generations, HASH_LIFE_PROBE) : generations;
+        for (long i = 0; i < stepped; i++) {
+            if (Thread.currentThread().isInterrupted()) return;
+            step();
+            if (getPeriod() > 0) {
+                fastForward(generations - i - 1);
+                return;
+            }
+        }
+        if (stepped == generations || Thread.currentThread().isInterrupted()) return;
+
+        if (this.hashLife == null) this.hashLife = new HashLife(HASH_LIFE_MAX_NODES, this.rule);
+        this.epoch += this.hashLife.advanceTorus(this.grid, generations - stepped);
+        this.liveCount = this.grid.countLive();
+        this.stepKernel.invalidate();
+        restartCycleDetection();
+    }
+
+    /**
+     * Advance the board in the detected cycle without computing the whole periods: the generation a multiple
+     * of the period later is the same generation, so only the epoch moves for them and the rest is stepped
+     * @param generations - the number of the generations to skip
+     * @throws IllegalStateException when no cycle was detected
+     */
+    public void fastForward(long generations) {
+        int period = getPeriod();
+        if (period == 0) throw new IllegalStateException("No cycle was detected");
+        if (generations <= 0) return;
+
+        long rest = generations % period;
+        this.epoch += generations - rest;
+        for (long i = 0; i < rest; i++) step();
+    }
+
+    /**
+     * @return the part of the board tiles recomputed in the last step, the unbounded plane computes all its chunks
+     */
+    public double getActiveTileRatio() {
+        return this.universe != null ? 1.0 : this.stepKernel.getActiveTileRatio();
+    }
+
+    /**
+     * @return the estimated bytes of the board: both buffers, the states of the Generations rule and the unbounded plane,
+     * the scratch of the kernels is left out
+     */
+    public long getMemoryUsage() {
+        long bytes = this.grid == null ? 0 : 2L * this.grid.getWords().length * Long.BYTES;
+        if (this.states != null) bytes += this.states.getCells().length + this.grid.getWords().length * (long) Long.BYTES;
+        if (this.universe != null) {
+            bytes += (long) (this.universe.getChunkCount() + this.universeBack.getChunkCount()) * SparseGrid.CHUNK_SIZE * Long.BYTES;
+        }
+        return bytes;
+    }
+
+    /**
+     * @return the statistics of the HashLife cache, or null before the first jump
+     */
+    public HashLifeStats getHashLifeStats() {
+        return this.hashLife == null ? null : this.hashLife.getStats();
+    }
+
+    /**
+     * The back buffer is allocated again only when the board was reshaped or replaced
+     * @return the grid with the same size as the current one, which is not the current one
+     */
+    private BitGrid obtainBackBuffer() {
+        if (this.backBuffer == null || this.backBuffer == this.grid ||
+                this.backBuffer.getRows() != this.grid.getRows() || this.backBuffer.getCols() != this.grid.getCols()) {
+            this.backBuffer = new BitGrid(this.grid.getRows(), this.grid.getCols());
+        }
+        return this.backBuffer;
+    }
+
+    @Override
+    public void close() {
+        if (this.stepKernel != null) {
+            this.stepKernel.close();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.automaton.control.game;
+
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.grid.ByteGrid;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The hand-off point between the simulation thread and the renderer. It holds at most one pending snapshot,
+ * the simulation only copies the generation when the renderer has taken the previous one, so the generations
+ * computed between two frames are dropped without any work. The grids of the consumed snapshots are recycled.
+ */
+public class SnapshotExchange {
+
+    private final AtomicReference<GenerationSnapshot> pending = new AtomicReference<>();
+    private final AtomicReference<BitGrid> spare = new AtomicReference<>();
+    private final AtomicReference<ByteGrid> spareStates = new AtomicReference<>();
+
+    /**
+     * Called by the simulation thread after every generation
+     * @param grid - the current generation, it is copied
+     * @param states - the states of the Generations rule, null for the two-state rules, they are copied too
+     * @param epoch - the number of the generation
+     * @param liveCount - the number of the live cells
+     * @param generationsPerSecond - the measured speed
+     * @param skippedTicks - the number of the coalesced ticks
+     * @param activeTileRatio - the part of the recomputed tiles
+     * @param finished - the last generation of the run, it replaces the pending snapshot instead of being dropped
+     * @return true when the snapshot was published, false when the renderer has not taken the previous one yet
+     */
+    public boolean offer(BitGrid grid, ByteGrid states, long epoch, int liveCount, double generationsPerSecond, long skippedTicks,
+                         double activeTileRatio, boolean finished) {
+        if (!finished && this.pending.get() != null) return false;
+
+        BitGrid copy = this.spare.getAndSet(null);
+        if (copy == null || copy.getRows() != grid.getRows() || copy.getCols() != grid.getCols()) {
+            copy = new BitGrid(grid.getRows(), grid.getCols());
+        }
+        copy.copyFrom(grid);
+        ByteGrid statesCopy = null;
+        if (states != null) {
+            statesCopy = this.spareStates.getAndSet(null);
+            if (statesCopy == null || statesCopy.getRows() != states.getRows() || statesCopy.getCols() != states.getCols()) {
+                statesCopy = new ByteGrid(states.getRows(), states.getCols());
+            }
+            statesCopy.copyFrom(states);
+        }
+
+        GenerationSnapshot replaced = this.pending.getAndSet(
+                new GenerationSnapshot(epoch, liveCount, copy, statesCopy, generationsPerSecond, skippedTicks, activeTileRatio, finished));
+        if (replaced != null) release(replaced);
+        return true;
+    }
+
+    /**
+     * Called by the renderer on every frame
+     * @return the newest snapshot which was not taken yet, or null
+     */
+    public GenerationSnapshot poll() {
+        return this.pending.getAndSet(null);
+    }
+
+    /**
+     * Give back the snapshot which is no longer drawn, so its grid can be reused
+     * @param snapshot - the snapshot taken by poll
+     */
+    public void release(GenerationSnapshot snapshot) {
+        this.spare.compareAndSet(null, snapshot.grid());
+        if (snapshot.states() != null) this.spareStates.compareAndSet(null, snapshot.states());
+    }
+
+    /**
+     * Drop the pending snapshot, used when the simulation is stopped
+     */
+    public void clear() {
+        GenerationSnapshot dropped = this.pending.getAndSet(null);
+        if (dropped != null) release(dropped);
+    }
+}
@@ -0,0 +1,130 @@
+package org.automaton.control.game.grid;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Bit-packed binary grid. Every cell takes one bit of the long word, the rows are stored one after another (row-major)
+ * and every row starts on the new word, so the stride is padded up to the multiple of 64 cells.
+ * The padding bits are always kept at 0, so the whole-word operations (bit count, bitwise stepping) can ignore them.
+ */
+@Getter
+public class BitGrid implements Grid {
+
+    private final int rows;
+    private final int cols;
+    /** number of the long words per one row */
+    private final int stride;
+    private final long[] words;
+
+    public BitGrid(int rows, int cols) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Grid size must be positive, got " + rows + "x" + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.stride = (cols + 63) >>> 6;
+        this.words = new long[Math.multiplyExact(rows, this.stride)];
+    }
+
+    /**
+     * Function to make the grid from the plain 2D array, every non-zero value is a live cell
+     * @param cells - the rectangular array of the cells
+     * @return new BitGrid instance
+     */
+    public static BitGrid of(int[][] cells) {
+        BitGrid grid = new BitGrid(cells.length, cells[0].length);
+        for (int r = 0; r < cells.length; r++) {
+            for (int c = 0; c < cells[r].length; c++) {
+                grid.set(r, c, cells[r][c]);
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * @param row - the row of the grid
+     * @return the index of the first word of the row in the words array
+     */
+    public int rowOffset(int row) {
+        return row * this.stride;
+    }
+
+    /**
+     * @return the mask of the valid bits in the last word of every row
+     */
+    public long lastWordMask() {
+        int tail = this.cols & 63;
+        return tail == 0 ? -1L : (1L << tail) - 1;
+    }
+
+    @Override
+    public int get(int row, int col) {
+        return (int) (this.words[row * this.stride + (col >>> 6)] >>> col) & 1;
+    }
+
+    @Override
+    public void set(int row, int col, int value) {
+        int index = row * this.stride + (col >>> 6);
+        if (value != 0) {
+            this.words[index] |= 1L << col;
+        } else {
+            this.words[index] &= ~(1L << col);
+        }
+    }
+
+    /**
+     * Make the run of the cells in one row live at once, word by word
+     * @param row - the row of the run
+     * @param from - the first column of the run, inclusive
+     * @param to - the last column of the run, exclusive, up to the number of the columns
+     */
+    public void setRun(int row, int from, int to) {
+        if (from >= to) return;
+        int offset = row * this.stride;
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> (63 - ((to - 1) & 63));
+        if (firstWord == lastWord) {
+            this.words[offset + firstWord] |= firstMask & lastMask;
+            return;
+        }
+        this.words[offset + firstWord] |= firstMask;
+        Arrays.fill(this.words, offset + firstWord + 1, offset + lastWord, -1L);
+        this.words[offset + lastWord] |= lastMask;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(this.words, 0L);
+    }
+
+    @Override
+    public int countLive() {
+        int count = 0;
+        for (long word : this.words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    @Override
+    public BitGrid copy() {
+        BitGrid copy = new BitGrid(this.rows, this.cols);
+        System.arraycopy(this.words, 0, copy.words, 0, this.words.length);
+        return copy;
+    }
+
+    /**
+     * Copy all cells from the grid with the same dimensions
+     * @param source - the grid to copy from
+     */
+    public void copyFrom(BitGrid source) {
+        if (source.rows != this.rows || source.cols != this.cols) {
+            throw new IllegalArgumentException("Grid size mismatch: " + source.rows + "x" + source.cols + " vs " + this.rows + "x" + this.cols);
+        }
+        System.arraycopy(source.words, 0, this.words, 0, this.words.length);
+    }
+}
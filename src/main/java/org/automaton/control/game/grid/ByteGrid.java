@@ -0,0 +1,71 @@
+package org.automaton.control.game.grid;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * The grid of the multi-state automata, every cell takes one byte, so up to 256 states.
+ * The rows are stored one after another (row-major) without any padding, the state is read as the unsigned byte.
+ */
+@Getter
+public class ByteGrid implements Grid {
+
+    /** the number of the states one byte holds */
+    public static final int MAX_STATES = 256;
+
+    private final int rows;
+    private final int cols;
+    private final byte[] cells;
+
+    public ByteGrid(int rows, int cols) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Grid size must be positive, got " + rows + "x" + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.cells = new byte[Math.multiplyExact(rows, cols)];
+    }
+
+    @Override
+    public int get(int row, int col) {
+        return this.cells[row * this.cols + col] & 0xFF;
+    }
+
+    @Override
+    public void set(int row, int col, int value) {
+        this.cells[row * this.cols + col] = (byte) value;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(this.cells, (byte) 0);
+    }
+
+    @Override
+    public int countLive() {
+        int count = 0;
+        for (byte cell : this.cells) {
+            if (cell != 0) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public ByteGrid copy() {
+        ByteGrid copy = new ByteGrid(this.rows, this.cols);
+        System.arraycopy(this.cells, 0, copy.cells, 0, this.cells.length);
+        return copy;
+    }
+
+    /**
+     * Copy all cells from the grid with the same dimensions
+     * @param source - the grid to copy from
+     */
+    public void copyFrom(ByteGrid source) {
+        if (source.rows != this.rows || source.cols != this.cols) {
+            throw new IllegalArgumentException("Grid size mismatch: " + source.rows + "x" + source.cols + " vs " + this.rows + "x" + this.cols);
+        }
+        System.arraycopy(source.cells, 0, this.cells, 0, this.cells.length);
+    }
+}
@@ -0,0 +1,55 @@
+package org.automaton.control.game.grid;
+
+/**
+ * The abstraction over the cell storage of the board, so the engine and the UI do not depend on the memory layout
+ */
+public interface Grid {
+
+    int getRows();
+    int getCols();
+
+    /**
+     * Function to read the state of the cell, the coordinates must be inside the grid
+     * @param row - the row coordinate of the cell
+     * @param col - the column coordinate of the cell
+     * @return the state of the cell, 0 for dead
+     */
+    int get(int row, int col);
+
+    /**
+     * Function to write the state of the cell in place
+     * @param row - the row coordinate of the cell
+     * @param col - the column coordinate of the cell
+     * @param value - the new state of the cell, 0 for dead
+     */
+    void set(int row, int col, int value);
+
+    /**
+     * Set all cells to the dead state
+     */
+    void clear();
+
+    /**
+     * @return the number of the cells which are not dead
+     */
+    int countLive();
+
+    /**
+     * @return the deep copy of the grid with the same layout
+     */
+    Grid copy();
+
+    /**
+     * Function to export the grid into the plain 2D array, used for tests and debugging as it allocates the whole board
+     * @return new int[rows][cols] with the cell states
+     */
+    default int[][] toArray() {
+        int[][] result = new int[getRows()][getCols()];
+        for (int r = 0; r < getRows(); r++) {
+            for (int c = 0; c < getCols(); c++) {
+                result[r][c] = get(r, c);
+            }
+        }
+        return result;
+    }
+}
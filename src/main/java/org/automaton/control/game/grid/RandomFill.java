@@ -0,0 +1,68 @@
+package org.automaton.control.game.grid;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * The reproducible random fill of the board, written directly into the words of the grid.
+ * Every row has its own generator derived from the seed and the row index, so the rows are filled in parallel
+ * and the same seed gives the same board regardless of the number of the threads.
+ * One word of 64 cells takes at most 16 random longs: the probability is taken in 16 binary digits and the word is
+ * built from the lowest digit up, OR with the next random word for the digit 1 and AND for the digit 0,
+ * so every bit is live with the probability of the digits.
+ */
+public final class RandomFill {
+
+    /** the binary digits of the probability, the density is rounded to 1/65536 */
+    private static final int PRECISION = 16;
+
+    private RandomFill() {}
+
+    /**
+     * Replace the cells of the grid by the random ones
+     * @param grid - the grid to fill
+     * @param density - the probability of the live cell, from 0 to 1
+     * @param seed - the seed of the board
+     */
+    public static void fill(BitGrid grid, double density, long seed) {
+        int threshold = (int) Math.round(Math.min(1, Math.max(0, density)) * (1 << PRECISION));
+        long[] words = grid.getWords();
+        int stride = grid.getStride();
+        long lastWordMask = grid.lastWordMask();
+
+        IntStream.range(0, grid.getRows()).parallel().forEach(row -> {
+            SplittableRandom random = new SplittableRandom(mix(seed, row));
+            int offset = row * stride;
+            for (int w = 0; w < stride; w++) {
+                words[offset + w] = randomWord(random, threshold);
+            }
+            words[offset + stride - 1] &= lastWordMask;
+        });
+    }
+
+    /**
+     * @param threshold - the probability of the live bit in 1/65536, up to 65536
+     * @return the word with every bit live with the given probability
+     */
+    private static long randomWord(SplittableRandom random, int threshold) {
+        if (threshold <= 0) return 0L;
+        if (threshold >= 1 << PRECISION) return -1L;
+
+        // the digits below the lowest 1 only AND the empty word, they are skipped
+        long word = 0L;
+        for (int digit = Integer.numberOfTrailingZeros(threshold); digit < PRECISION; digit++) {
+            word = ((threshold >>> digit) & 1) != 0 ? word | random.nextLong() : word & random.nextLong();
+        }
+        return word;
+    }
+
+    /**
+     * The seed of one row, the stafford mix keeps the streams of the neighbor rows apart
+     */
+    private static long mix(long seed, int row) {
+        long z = seed + (row + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,210 @@
+package org.automaton.control.game.grid;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Unbounded binary grid, only the populated parts of the plane are stored.
+ * The plane is split into the chunks of 64x64 cells, every chunk is 64 words, one word per row, and the chunks are
+ * kept in the hash map by the packed chunk coordinate. The chunk is allocated when the first cell gets alive and
+ * dropped when the last one dies, so the memory follows the population, not the bounding box.
+ * The dropped chunk arrays are kept for the reuse, so the stable population allocates no new chunks, only the boxed
+ * keys of the maps are allocated on every step.
+ */
+public class SparseGrid {
+
+    public static final int CHUNK_SIZE = 64;
+
+    private final Map<Long, long[]> chunks = new HashMap<>();
+    private final ArrayDeque<long[]> freeChunks = new ArrayDeque<>();
+
+    /**
+     * @param chunkRow - the row of the chunk, the cell row divided by the chunk size
+     * @param chunkCol - the column of the chunk
+     * @return the packed key of the chunk
+     */
+    public static long key(int chunkRow, int chunkCol) {
+        return ((long) chunkRow << 32) | (chunkCol & 0xFFFFFFFFL);
+    }
+
+    public static int keyRow(long key) { return (int) (key >> 32); }
+
+    public static int keyCol(long key) { return (int) key; }
+
+    /**
+     * @param coordinate - the row or the column of the cell
+     * @return the coordinate of the chunk which holds the cell
+     */
+    public static int chunkOf(long coordinate) {
+        return Math.toIntExact(Math.floorDiv(coordinate, CHUNK_SIZE));
+    }
+
+    public int get(long row, long col) {
+        long[] chunk = this.chunks.get(key(chunkOf(row), chunkOf(col)));
+        if (chunk == null) return 0;
+        return (int) ((chunk[(int) Math.floorMod(row, CHUNK_SIZE)] >>> Math.floorMod(col, CHUNK_SIZE)) & 1L);
+    }
+
+    public void set(long row, long col, int value) {
+        long bit = 1L << Math.floorMod(col, CHUNK_SIZE);
+        setBits(row, col - Math.floorMod(col, CHUNK_SIZE), value != 0 ? bit : 0L, bit);
+    }
+
+    /**
+     * @param row - the row of the cells
+     * @param col - the column of the first cell
+     * @return the word with the 64 cells starting from the column, the first cell is the lowest bit
+     */
+    public long getBits(long row, long col) {
+        int chunkRow = chunkOf(row);
+        int rowInChunk = (int) Math.floorMod(row, CHUNK_SIZE);
+        int chunkCol = chunkOf(col);
+        int offset = (int) Math.floorMod(col, CHUNK_SIZE);
+
+        long[] first = this.chunks.get(key(chunkRow, chunkCol));
+        long bits = first == null ? 0L : first[rowInChunk] >>> offset;
+        if (offset != 0) {
+            long[] second = this.chunks.get(key(chunkRow, chunkCol + 1));
+            if (second != null) bits |= second[rowInChunk] << (CHUNK_SIZE - offset);
+        }
+        return bits;
+    }
+
+    /**
+     * Write the cells of the mask from the bits, the other cells are not changed
+     * @param row - the row of the cells
+     * @param col - the column of the lowest bit
+     * @param bits - the new states of the cells
+     * @param mask - the cells which are written
+     */
+    public void setBits(long row, long col, long bits, long mask) {
+        int chunkRow = chunkOf(row);
+        int rowInChunk = (int) Math.floorMod(row, CHUNK_SIZE);
+        int chunkCol = chunkOf(col);
+        int offset = (int) Math.floorMod(col, CHUNK_SIZE);
+
+        writeChunk(chunkRow, chunkCol, rowInChunk, bits << offset, mask << offset);
+        if (offset != 0) {
+            writeChunk(chunkRow, chunkCol + 1, rowInChunk, bits >>> (CHUNK_SIZE - offset), mask >>> (CHUNK_SIZE - offset));
+        }
+    }
+
+    private void writeChunk(int chunkRow, int chunkCol, int rowInChunk, long bits, long mask) {
+        if (mask == 0) return;
+        long key = key(chunkRow, chunkCol);
+        long[] chunk = this.chunks.get(key);
+        if (chunk == null) {
+            if ((bits & mask) == 0) return;
+            chunk = obtainChunk();
+            this.chunks.put(key, chunk);
+        }
+        chunk[rowInChunk] = (chunk[rowInChunk] & ~mask) | (bits & mask);
+        if ((bits & mask) == 0 && isEmpty(chunk)) {
+            this.chunks.remove(key);
+            this.freeChunks.push(chunk);
+        }
+    }
+
+    /**
+     * @return the words of the chunk, one word per row, or null when the chunk is empty
+     */
+    public long[] getChunk(long key) {
+        return this.chunks.get(key);
+    }
+
+    /**
+     * Store the words of the chunk, the empty chunk is dropped
+     * @param key - the packed chunk coordinate
+     * @param words - 64 words of the chunk rows, they are copied
+     */
+    public void putChunk(long key, long[] words) {
+        long[] chunk = this.chunks.get(key);
+        if (isEmpty(words)) {
+            if (chunk != null) this.freeChunks.push(this.chunks.remove(key));
+            return;
+        }
+        if (chunk == null) {
+            chunk = obtainChunk();
+            this.chunks.put(key, chunk);
+        }
+        System.arraycopy(words, 0, chunk, 0, CHUNK_SIZE);
+    }
+
+    /**
+     * @return the keys of the populated chunks, the view must not be changed while the grid is changed
+     */
+    public Set<Long> chunkKeys() {
+        return this.chunks.keySet();
+    }
+
+    public int getChunkCount() {
+        return this.chunks.size();
+    }
+
+    public int countLive() {
+        int live = 0;
+        for (long[] chunk : this.chunks.values()) {
+            for (long word : chunk) live += Long.bitCount(word);
+        }
+        return live;
+    }
+
+    public void clear() {
+        this.freeChunks.addAll(this.chunks.values());
+        this.chunks.clear();
+    }
+
+    /**
+     * Copy the rectangle of the plane into the grid
+     * @param target - the grid which gets the cells, its size is the size of the rectangle
+     * @param originRow - the row of the plane for the first row of the grid
+     * @param originCol - the column of the plane for the first column of the grid
+     */
+    public void copyWindow(BitGrid target, long originRow, long originCol) {
+        long[] words = target.getWords();
+        int stride = target.getStride();
+        long lastMask = target.lastWordMask();
+        for (int r = 0; r < target.getRows(); r++) {
+            int base = target.rowOffset(r);
+            for (int w = 0; w < stride; w++) {
+                long bits = getBits(originRow + r, originCol + ((long) w << 6));
+                words[base + w] = w == stride - 1 ? bits & lastMask : bits;
+            }
+        }
+    }
+
+    /**
+     * Replace the rectangle of the plane by the cells of the grid, the cells outside of the rectangle are kept
+     * @param source - the grid with the cells
+     * @param originRow - the row of the plane for the first row of the grid
+     * @param originCol - the column of the plane for the first column of the grid
+     */
+    public void pasteWindow(BitGrid source, long originRow, long originCol) {
+        long[] words = source.getWords();
+        int stride = source.getStride();
+        long lastMask = source.lastWordMask();
+        for (int r = 0; r < source.getRows(); r++) {
+            int base = source.rowOffset(r);
+            for (int w = 0; w < stride; w++) {
+                setBits(originRow + r, originCol + ((long) w << 6), words[base + w], w == stride - 1 ? lastMask : -1L);
+            }
+        }
+    }
+
+    private long[] obtainChunk() {
+        long[] chunk = this.freeChunks.poll();
+        if (chunk == null) return new long[CHUNK_SIZE];
+        Arrays.fill(chunk, 0L);
+        return chunk;
+    }
+
+    private static boolean isEmpty(long[] chunk) {
+        for (long word : chunk) {
+            if (word != 0) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,460 @@
+package org.automaton.control.game.hashlife;
+
+import lombok.Getter;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.neighborhood.MooreStrategy;
+import org.automaton.control.game.neighborhood.NeighborhoodStrategy;
+import org.automaton.control.game.rule.LifeRule;
+import org.automaton.control.game.rule.TotalisticRule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HashLife engine for the Moore neighborhood with any totalistic rule where the empty space stays empty (no B0).
+ * The board is the canonical quadtree, the equal squares are stored once (hash-consing) and the result of every node,
+ * its center advanced by 2^j generations, is memoized in the node. So the repeated or stable regions are computed once
+ * and the pattern can be advanced by 2^j generations in one call.
+ * The cache is swept when it grows over the limit, the nodes which were not used by the last jumps are dropped.
+ */
+public class HashLife {
+
+    private static final HashLifeNode DEAD = new HashLifeNode(false);
+    private static final HashLifeNode ALIVE = new HashLifeNode(true);
+
+    private final int maxNodes;
+    /** the memoized results hold for this rule only */
+    @Getter private final TotalisticRule rule;
+    private final Map<HashLifeNode, HashLifeNode> nodes = new HashMap<>();
+    /** the canonical empty node per level */
+    private final List<HashLifeNode> emptyNodes = new ArrayList<>();
+
+    /** increased on every jump, the nodes keep the clock of their last use */
+    private long clock;
+    private long hits;
+    private long misses;
+    private long sweeps;
+
+    /**
+     * @param maxNodes - the size of the node cache which triggers the sweep
+     */
+    public HashLife(int maxNodes) {
+        this(maxNodes, LifeRule.LIFE);
+    }
+
+    /**
+     * @param maxNodes - the size of the node cache which triggers the sweep
+     * @param rule - the rule of the Moore neighborhood, it must not have the birth on 0 neighbors
+     */
+    public HashLife(int maxNodes, TotalisticRule rule) {
+        if (rule.birthOnEmpty()) throw new IllegalArgumentException("HashLife needs the empty space to stay empty");
+        this.maxNodes = maxNodes;
+        this.rule = rule;
+        this.emptyNodes.add(DEAD);
+    }
+
+    /**
+     * @param strategy - the selected neighborhood strategy
+     * @param rule - the selected rule
+     * @return true when the strategy is the Moore neighborhood and the two-state rule keeps the empty space empty
+     */
+    public static boolean supports(NeighborhoodStrategy strategy, TotalisticRule rule) {
+        return strategy instanceof MooreStrategy && rule.states() == 2 && !rule.birthOnEmpty();
+    }
+
+    /**
+     * @return the current metrics of the node cache
+     */
+    public HashLifeStats getStats() {
+        return new HashLifeStats(this.nodes.size(), this.hits, this.misses, this.sweeps);
+    }
+
+    /**
+     * Function to advance the board of the infinite (torus) mode in place.
+     * The torus is exactly the periodic tiling of the plane, so the board is tiled around itself far enough
+     * for the light cone of the jump and advanced in the jumps of 2^j generations, one per bit of the generations.
+     * Between the jumps the torus stays the quadtree: the result of one jump is tiled into the root of the next one,
+     * only the last result is written back to the board. The tiling of the board with the side of the power of two
+     * is the handful of the nodes per level, so the cost grows with the number of the bits, not the generations.
+     * The interrupted thread stops the jump between its parts of 2^j generations.
+     * @param grid - the board, it is overwritten with the result
+     * @param generations - the number of the generations to advance
+     * @return the number of the generations advanced, less than asked only when the thread was interrupted
+     */
+    public long advanceTorus(BitGrid grid, long generations) {
+        Torus torus = new Torus(grid);
+        int minLevel = levelOf(grid);
+        int sourceLevel = minLevel;
+        HashLifeNode source = buildTorus(grid, minLevel);
+        // the board cell of the top left corner of the source, the board starts at the quarter of the built root
+        int sourceRow = Math.floorMod(-(1 << minLevel >> 2), grid.getRows());
+        int sourceCol = Math.floorMod(-(1 << minLevel >> 2), grid.getCols());
+
+        long advanced = 0;
+        while (advanced < generations && !Thread.currentThread().isInterrupted()) {
+            int j = 63 - Long.numberOfLeadingZeros(generations - advanced);
+            int level = Math.max(minLevel, j + 2);
+            this.clock++;
+
+            HashLifeNode root = torus.root(level, source, sourceLevel, sourceRow, sourceCol);
+            source = successor(root, j);
+            sourceLevel = level - 1;
+            // the result is the center of the root, a quarter of the root side away from its corner
+            sourceRow = torus.shiftRow(sourceRow, level - 2);
+            sourceCol = torus.shiftCol(sourceCol, level - 2);
+            advanced += 1L << j;
+
+            if (this.nodes.size() > this.maxNodes) sweep();
+        }
+
+        grid.clear();
+        extract(source, 0, 0, sourceRow, sourceCol, grid);
+        return advanced;
+    }
+
+    /**
+     * The periodic tiling of the board, the tiles of the quadtree are built from the node which covers at least
+     * one whole board, the tiles which are its aligned sub-squares are taken from it, the others are joined from
+     * the smaller tiles. The joined tiles are memoized by their level and the board cell of their corner.
+     */
+    private final class Torus {
+
+        private final int rows;
+        private final int cols;
+        /** 2^m mod rows and cols, the shift of the tile corner by the side of the level m tile */
+        private final int[] rowShifts = new int[64];
+        private final int[] colShifts = new int[64];
+        private final Map<TileKey, HashLifeNode> tiles = new HashMap<>();
+
+        Torus(BitGrid grid) {
+            this.rows = grid.getRows();
+            this.cols = grid.getCols();
+            this.rowShifts[0] = 1 % this.rows;
+            this.colShifts[0] = 1 % this.cols;
+            for (int m = 1; m < 64; m++) {
+                this.rowShifts[m] = (int) (2L * this.rowShifts[m - 1] % this.rows);
+                this.colShifts[m] = (int) (2L * this.colShifts[m - 1] % this.cols);
+            }
+        }
+
+        /**
+         * @return the root of the level with the same corner as the source, the tiles of the previous root are dropped
+         */
+        HashLifeNode root(int level, HashLifeNode source, int sourceLevel, int sourceRow, int sourceCol) {
+            this.tiles.clear();
+            return tile(level, sourceRow, sourceCol, source, sourceLevel, sourceRow, sourceCol);
+        }
+
+        int shiftRow(int row, int m) {
+            return (int) (((long) row + this.rowShifts[m]) % this.rows);
+        }
+
+        int shiftCol(int col, int m) {
+            return (int) (((long) col + this.colShifts[m]) % this.cols);
+        }
+
+        /**
+         * @param level - the level of the tile
+         * @param row - the board row of the top left corner of the tile
+         * @param col - the board column of the corner
+         * @param source - the node which covers at least one whole board
+         * @param sourceLevel - the level of the source
+         * @param sourceRow - the board row of the corner of the source
+         * @param sourceCol - the board column of the corner of the source
+         * @return the canonical node of the tile
+         */
+        HashLifeNode tile(int level, int row, int col, HashLifeNode source, int sourceLevel, int sourceRow, int sourceCol) {
+            int offsetRow = Math.floorMod(row - sourceRow, this.rows);
+            int offsetCol = Math.floorMod(col - sourceCol, this.cols);
+            if (inside(offsetRow, level, sourceLevel) && inside(offsetCol, level, sourceLevel)) {
+                return descend(source, level, offsetRow, offsetCol);
+            }
+
+            TileKey key = new TileKey(level, row, col);
+            HashLifeNode tile = this.tiles.get(key);
+            if (tile != null) return tile;
+
+            int bottom = shiftRow(row, level - 1);
+            int right = shiftCol(col, level - 1);
+            tile = join(
+                    tile(level - 1, row, col, source, sourceLevel, sourceRow, sourceCol),
+                    tile(level - 1, row, right, source, sourceLevel, sourceRow, sourceCol),
+                    tile(level - 1, bottom, col, source, sourceLevel, sourceRow, sourceCol),
+                    tile(level - 1, bottom, right, source, sourceLevel, sourceRow, sourceCol));
+            this.tiles.put(key, tile);
+            return tile;
+        }
+
+        /**
+         * @param offset - the offset of the tile corner in the source along one axis, below the board size
+         * @return true when the tile of the level is the aligned sub-square of the source of the level
+         */
+        private static boolean inside(int offset, int level, int sourceLevel) {
+            if (level >= Integer.SIZE - 1) return offset == 0 && level <= sourceLevel;
+            if ((offset & ((1 << level) - 1)) != 0 || level > sourceLevel) return false;
+            // the offset is below 2^31, so the source of a higher level always holds the tile
+            return sourceLevel >= Integer.SIZE || offset + (1L << level) <= 1L << sourceLevel;
+        }
+
+        private static HashLifeNode descend(HashLifeNode node, int level, int offsetRow, int offsetCol) {
+            while (node.level > level) {
+                int half = node.level - 1;
+                boolean bottom = half < Integer.SIZE - 1 && (offsetRow >>> half & 1) != 0;
+                boolean right = half < Integer.SIZE - 1 && (offsetCol >>> half & 1) != 0;
+                node = bottom ? (right ? node.se : node.sw) : (right ? node.ne : node.nw);
+            }
+            return node;
+        }
+    }
+
+    private record TileKey(int level, int row, int col) {
+    }
+
+    /**
+     * @return the lowest level of the root which the torus is tiled into, the result of the root is its center half,
+     * it must cover the whole board
+     */
+    private static int levelOf(BitGrid grid) {
+        int size = Math.max(grid.getRows(), grid.getCols());
+        int level = 3;
+        while ((1 << (level - 1)) < size) level++;
+        return level;
+    }
+
+    /**
+     * The center of the node advanced by 2^j generations
+     * @param node - the node of the level L, at least 2
+     * @param j - the exponent of the step, from 0 to L - 2
+     * @return the node of the level L - 1
+     */
+    HashLifeNode successor(HashLifeNode node, int j) {
+        node.lastUsed = this.clock;
+        if (node.population == 0) return empty(node.level - 1);
+        if (node.results != null && node.results[j] != null) {
+            this.hits++;
+            node.results[j].lastUsed = this.clock;
+            return node.results[j];
+        }
+        this.misses++;
+
+        HashLifeNode result;
+        if (node.level == 2) {
+            result = bruteForce(node);
+        } else {
+            // the nine overlapping sub-squares of the half size
+            HashLifeNode n00 = node.nw;
+            HashLifeNode n01 = join(node.nw.ne, node.ne.nw, node.nw.se, node.ne.sw);
+            HashLifeNode n02 = node.ne;
+            HashLifeNode n10 = join(node.nw.sw, node.nw.se, node.sw.nw, node.sw.ne);
+            HashLifeNode n11 = join(node.nw.se, node.ne.sw, node.sw.ne, node.se.nw);
+            HashLifeNode n12 = join(node.ne.sw, node.ne.se, node.se.nw, node.se.ne);
+            HashLifeNode n20 = node.sw;
+            HashLifeNode n21 = join(node.sw.ne, node.se.nw, node.sw.se, node.se.sw);
+            HashLifeNode n22 = node.se;
+
+            if (j == node.level - 2) {
+                // full speed: two half steps, each of 2^(j-1) generations
+                HashLifeNode r00 = successor(n00, j - 1), r01 = successor(n01, j - 1), r02 = successor(n02, j - 1);
+                HashLifeNode r10 = successor(n10, j - 1), r11 = successor(n11, j - 1), r12 = successor(n12, j - 1);
+                HashLifeNode r20 = successor(n20, j - 1), r21 = successor(n21, j - 1), r22 = successor(n22, j - 1);
+
+                result = join(
+                        successor(join(r00, r01, r10, r11), j - 1),
+                        successor(join(r01, r02, r11, r12), j - 1),
+                        successor(join(r10, r11, r20, r21), j - 1),
+                        successor(join(r11, r12, r21, r22), j - 1));
+            } else {
+                // slower step: the sub-squares are advanced by 2^j, then only the centers are taken
+                HashLifeNode r00 = successor(n00, j), r01 = successor(n01, j), r02 = successor(n02, j);
+                HashLifeNode r10 = successor(n10, j), r11 = successor(n11, j), r12 = successor(n12, j);
+                HashLifeNode r20 = successor(n20, j), r21 = successor(n21, j), r22 = successor(n22, j);
+
+                result = join(
+                        join(r00.se, r01.sw, r10.ne, r11.nw),
+                        join(r01.se, r02.sw, r11.ne, r12.nw),
+                        join(r10.se, r11.sw, r20.ne, r21.nw),
+                        join(r11.se, r12.sw, r21.ne, r22.nw));
+            }
+        }
+
+        if (node.results == null) node.results = new HashLifeNode[node.level - 1];
+        node.results[j] = result;
+        return result;
+    }
+
+    /**
+     * One generation of the 4x4 node by the direct counting
+     * @return the 2x2 center after one generation
+     */
+    private HashLifeNode bruteForce(HashLifeNode node) {
+        int cells = 0;
+        for (int r = 0; r < 4; r++) {
+            for (int c = 0; c < 4; c++) {
+                HashLifeNode quadrant = r < 2 ? (c < 2 ? node.nw : node.ne) : (c < 2 ? node.sw : node.se);
+                HashLifeNode leaf = (r & 1) == 0 ? ((c & 1) == 0 ? quadrant.nw : quadrant.ne) : ((c & 1) == 0 ? quadrant.sw : quadrant.se);
+                if (leaf.population != 0) cells |= 1 << (r * 4 + c);
+            }
+        }
+        return join(cellAfterStep(cells, 1, 1), cellAfterStep(cells, 1, 2), cellAfterStep(cells, 2, 1), cellAfterStep(cells, 2, 2));
+    }
+
+    private HashLifeNode cellAfterStep(int cells, int row, int col) {
+        int lifeCount = 0;
+        for (int dr = -1; dr <= 1; dr++) {
+            for (int dc = -1; dc <= 1; dc++) {
+                if (dr == 0 && dc == 0) continue;
+                lifeCount += (cells >>> ((row + dr) * 4 + col + dc)) & 1;
+            }
+        }
+        int state = (cells >>> (row * 4 + col)) & 1;
+        return this.rule.next(state, lifeCount) == 1 ? ALIVE : DEAD;
+    }
+
+    /**
+     * @return the canonical node with the given children
+     */
+    HashLifeNode join(HashLifeNode nw, HashLifeNode ne, HashLifeNode sw, HashLifeNode se) {
+        HashLifeNode candidate = new HashLifeNode(nw, ne, sw, se);
+        HashLifeNode canonical = this.nodes.putIfAbsent(candidate, candidate);
+        if (canonical == null) canonical = candidate;
+        canonical.lastUsed = this.clock;
+        return canonical;
+    }
+
+    /**
+     * @return the canonical node of the given level without live cells
+     */
+    HashLifeNode empty(int level) {
+        while (this.emptyNodes.size() <= level) {
+            HashLifeNode smaller = this.emptyNodes.get(this.emptyNodes.size() - 1);
+            this.emptyNodes.add(join(smaller, smaller, smaller, smaller));
+        }
+        return this.emptyNodes.get(level);
+    }
+
+    /**
+     * Build the root of the given level filled with the periodic copies of the board,
+     * the original board starts at the quarter of the root side, that is the origin of the root result
+     */
+    private HashLifeNode buildTorus(BitGrid grid, int level) {
+        int side = 1 << level;
+        int origin = side >> 2;
+        int rows = grid.getRows();
+        int cols = grid.getCols();
+
+        long[] points = new long[1024];
+        int count = 0;
+
+        long[] words = grid.getWords();
+        for (int r = 0; r < rows; r++) {
+            int rowOffset = grid.rowOffset(r);
+            for (int w = 0; w < grid.getStride(); w++) {
+                long word = words[rowOffset + w];
+                while (word != 0) {
+                    int c = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+
+                    for (int x = Math.floorMod(origin + r, rows); x < side; x += rows) {
+                        for (int y = Math.floorMod(origin + c, cols); y < side; y += cols) {
+                            if (count == points.length) points = Arrays.copyOf(points, count * 2);
+                            points[count++] = ((long) x << 32) | y;
+                        }
+                    }
+                }
+            }
+        }
+        return build(points, 0, count, level, 0, 0);
+    }
+
+    /**
+     * Build the node from the live cells in the range of the points array, the array is reordered
+     * @param points - the packed (row, col) coordinates of the live cells
+     * @param from - the first point of the node, inclusive
+     * @param to - the last point of the node, exclusive
+     * @param level - the level of the node
+     * @param row0 - the top row of the node
+     * @param col0 - the left column of the node
+     * @return the canonical node
+     */
+    HashLifeNode build(long[] points, int from, int to, int level, int row0, int col0) {
+        if (from == to) return empty(level);
+        if (level == 0) return ALIVE;
+
+        int half = 1 << (level - 1);
+        int bottomFrom = partition(points, from, to, 32, row0 + half);
+        int topRightFrom = partition(points, from, bottomFrom, 0, col0 + half);
+        int bottomRightFrom = partition(points, bottomFrom, to, 0, col0 + half);
+
+        return join(
+                build(points, from, topRightFrom, level - 1, row0, col0),
+                build(points, topRightFrom, bottomFrom, level - 1, row0, col0 + half),
+                build(points, bottomFrom, bottomRightFrom, level - 1, row0 + half, col0),
+                build(points, bottomRightFrom, to, level - 1, row0 + half, col0 + half));
+    }
+
+    /**
+     * Move the points with the coordinate below the threshold in front of the others
+     * @param shift - 32 to partition by the row, 0 by the column
+     * @return the index of the first point with the coordinate at least the threshold
+     */
+    private static int partition(long[] points, int from, int to, int shift, int threshold) {
+        int split = from;
+        for (int i = from; i < to; i++) {
+            if ((int) (points[i] >>> shift) < threshold) {
+                long swap = points[i];
+                points[i] = points[split];
+                points[split] = swap;
+                split++;
+            }
+        }
+        return split;
+    }
+
+    /**
+     * Write the live cells of the first board of the node into the grid, the node covers the board from
+     * the given board cell on and wraps around its edges
+     * @param x - the row of the part in the node
+     * @param y - the column of the part in the node
+     * @param originRow - the board row of the corner of the whole node
+     * @param originCol - the board column of the corner of the whole node
+     */
+    private void extract(HashLifeNode node, long x, long y, int originRow, int originCol, BitGrid grid) {
+        if (node.population == 0 || x >= grid.getRows() || y >= grid.getCols()) return;
+        if (node.level == 0) {
+            grid.set((int) ((originRow + x) % grid.getRows()), (int) ((originCol + y) % grid.getCols()), 1);
+            return;
+        }
+        extract(node.nw, x, y, originRow, originCol, grid);
+        // the other quarters of the huge node start beyond the board
+        if (node.level > Integer.SIZE) return;
+        long half = 1L << (node.level - 1);
+        extract(node.ne, x, y + half, originRow, originCol, grid);
+        extract(node.sw, x + half, y, originRow, originCol, grid);
+        extract(node.se, x + half, y + half, originRow, originCol, grid);
+    }
+
+    /**
+     * Drop the nodes which were not used by the last two jumps, and the memoized results which point to them.
+     * When the recent nodes alone are still over the limit, the whole cache is dropped.
+     */
+    private void sweep() {
+        this.sweeps++;
+        long cutoff = this.clock - 1;
+        this.nodes.values().removeIf(node -> node.lastUsed < cutoff && node.population != 0);
+
+        if (this.nodes.size() > this.maxNodes) {
+            this.nodes.clear();
+            this.emptyNodes.subList(1, this.emptyNodes.size()).clear();
+            return;
+        }
+        for (HashLifeNode node : this.nodes.values()) {
+            if (node.results == null) continue;
+            for (int j = 0; j < node.results.length; j++) {
+                if (node.results[j] != null && node.results[j].lastUsed < cutoff) node.results[j] = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.automaton.control.game.hashlife;
+
+/**
+ * The canonical node of the quadtree. The node of the level L covers the square of 2^L cells side,
+ * the level 0 nodes are the single cells. The nodes are immutable and hash-consed by the HashLife store,
+ * so two equal squares are always the same instance and the memoized results are shared between them.
+ */
+final class HashLifeNode {
+
+    final HashLifeNode nw;
+    final HashLifeNode ne;
+    final HashLifeNode sw;
+    final HashLifeNode se;
+    final int level;
+    /** the number of the live cells, Long.MAX_VALUE when there are more */
+    final long population;
+    private final int hash;
+
+    /** results[j] is the center of the node advanced by 2^j generations */
+    HashLifeNode[] results;
+    /** the clock of the store when the node was used last time, for the cache sweep */
+    long lastUsed;
+
+    /**
+     * The constructor of the single cell
+     */
+    HashLifeNode(boolean alive) {
+        this.nw = this.ne = this.sw = this.se = null;
+        this.level = 0;
+        this.population = alive ? 1 : 0;
+        this.hash = alive ? 1 : 0;
+    }
+
+    HashLifeNode(HashLifeNode nw, HashLifeNode ne, HashLifeNode sw, HashLifeNode se) {
+        this.nw = nw;
+        this.ne = ne;
+        this.sw = sw;
+        this.se = se;
+        this.level = nw.level + 1;
+        this.population = saturatedSum(saturatedSum(nw.population, ne.population), saturatedSum(sw.population, se.population));
+
+        int h = System.identityHashCode(nw);
+        h = 31 * h + System.identityHashCode(ne);
+        h = 31 * h + System.identityHashCode(sw);
+        h = 31 * h + System.identityHashCode(se);
+        this.hash = h;
+    }
+
+    /**
+     * The tiled torus goes up to the levels where the population does not fit the long,
+     * it stops at the maximum, so it is never zero for the populated node
+     */
+    private static long saturatedSum(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+
+    /**
+     * The children are canonical, so the equality of the node is the identity of its children
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof HashLifeNode other)) return false;
+        return this.level == other.level
+                && this.nw == other.nw && this.ne == other.ne && this.sw == other.sw && this.se == other.se;
+    }
+}
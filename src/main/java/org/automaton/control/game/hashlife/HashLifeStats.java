@@ -0,0 +1,19 @@
+package org.automaton.control.game.hashlife;
+
+/**
+ * The metrics of the HashLife node cache
+ * @param nodeCount - the number of the canonical nodes in the cache
+ * @param hits - the number of the memoized results which were reused
+ * @param misses - the number of the results which had to be computed
+ * @param sweeps - the number of the cache sweeps
+ */
+public record HashLifeStats(long nodeCount, long hits, long misses, long sweeps) {
+
+    /**
+     * @return the share of the reused results, 0 when nothing was computed yet
+     */
+    public double hitRate() {
+        long total = this.hits + this.misses;
+        return total == 0 ? 0 : (double) this.hits / total;
+    }
+}
@@ -0,0 +1,165 @@
+package org.automaton.control.game.history;
+
+import lombok.Getter;
+import org.automaton.control.game.grid.BitGrid;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The detection of the still lifes and the oscillators. Every generation gets the 64-bit hash, the XOR of the mixed
+ * (index, value) pairs of its non-zero words, so the step updates it from the changed words only: the old value of
+ * the word is taken out by XOR and the new one put in. When the step knows its changed tiles only their words
+ * are compared. The hashes of the last maxPeriod generations are kept in the map
+ * to the number of their generation, the older ones are evicted, so the memory does not grow with the run.
+ * The generation whose hash was seen p generations ago repeats that generation, the board is in the cycle of the period p,
+ * the still life has the period 1. The rules whose next generation depends on more than the live cells need the same
+ * period to repeat for several generations in a row before it is reported.
+ */
+public class CycleDetector {
+
+    private final int maxPeriod;
+    private final int confirmations;
+    /** the hashes of the last generations, the generation n is at n % length */
+    private final long[] ring;
+    /** the hash of the kept generation to the number of its newest generation */
+    private final Map<Long, Long> seen = new HashMap<>();
+
+    @Getter private long hash;
+    /** the number of the current generation since the reset */
+    private long generation;
+    /** the period of the last repeated generation and the number of the repeats of that period in a row */
+    private int candidate;
+    private int streak;
+    /** the detected period, 0 while the board has not repeated itself */
+    @Getter private int period;
+
+    /**
+     * @param maxPeriod - the longest period which is detected, the number of the kept hashes
+     * @param confirmations - the number of the generations in a row which must repeat with the same period
+     */
+    public CycleDetector(int maxPeriod, int confirmations) {
+        if (maxPeriod < 1) throw new IllegalArgumentException("The longest period must be positive");
+        this.maxPeriod = maxPeriod;
+        this.confirmations = Math.max(1, confirmations);
+        this.ring = new long[maxPeriod + 1];
+    }
+
+    /**
+     * Forget the kept generations and start from the given one
+     * @param grid - the current generation
+     */
+    public void reset(BitGrid grid) {
+        this.seen.clear();
+        this.hash = hash(grid);
+        this.generation = 0;
+        this.candidate = 0;
+        this.streak = 0;
+        this.period = 0;
+        remember();
+    }
+
+    /**
+     * Take the next generation, the hash is updated from the words which differ between the generations,
+     * every word of the board is compared
+     * @param before - the current generation, the one the hash is of
+     * @param after - the next generation
+     * @return the detected period, 0 while the board has not repeated itself
+     */
+    public int update(BitGrid before, BitGrid after) {
+        long[] from = before.getWords();
+        long[] to = after.getWords();
+        long next = this.hash;
+        for (int i = 0; i < to.length; i++) {
+            if (from[i] != to[i]) next ^= mix(i, from[i]) ^ mix(i, to[i]);
+        }
+        return next(next);
+    }
+
+    /**
+     * Take the next generation, only the words of the changed tiles are compared, the other words are the same
+     * in both generations, so the quiet board costs the pass over the tile flags only
+     * @param before - the current generation, the one the hash is of
+     * @param after - the next generation
+     * @param changedTiles - the tiles which differ, indexed by {@code tileRow * stride + word}
+     * @param tileRows - the number of the rows of one tile, the tile is one word wide
+     * @return the detected period, 0 while the board has not repeated itself
+     */
+    public int update(BitGrid before, BitGrid after, boolean[] changedTiles, int tileRows) {
+        long[] from = before.getWords();
+        long[] to = after.getWords();
+        int rows = after.getRows();
+        int stride = after.getStride();
+        long next = this.hash;
+        for (int tile = 0; tile < changedTiles.length; tile++) {
+            if (!changedTiles[tile]) continue;
+
+            int w = tile % stride;
+            int rowFrom = (tile / stride) * tileRows;
+            int rowTo = Math.min(rows, rowFrom + tileRows);
+            for (int i = rowFrom * stride + w; i < rowTo * stride; i += stride) {
+                if (from[i] != to[i]) next ^= mix(i, from[i]) ^ mix(i, to[i]);
+            }
+        }
+        return next(next);
+    }
+
+    /**
+     * Count the next generation with its hash and look for the same hash among the kept generations
+     * @return the detected period, 0 while the board has not repeated itself
+     */
+    private int next(long hash) {
+        this.hash = hash;
+        this.generation++;
+
+        Long previous = remember();
+        if (previous == null) {
+            this.candidate = 0;
+            this.streak = 0;
+        } else {
+            int repeat = (int) (this.generation - previous);
+            this.streak = repeat == this.candidate ? this.streak + 1 : 1;
+            this.candidate = repeat;
+        }
+        if (this.period == 0 && this.streak >= this.confirmations) this.period = this.candidate;
+        return this.period;
+    }
+
+    /**
+     * @param grid - the generation
+     * @return the hash of the whole generation, the same as the one updated step by step
+     */
+    public static long hash(BitGrid grid) {
+        long[] words = grid.getWords();
+        long hash = 0;
+        for (int i = 0; i < words.length; i++) {
+            hash ^= mix(i, words[i]);
+        }
+        return hash;
+    }
+
+    /**
+     * Put the current hash into the map and evict the generation which is older than the longest period
+     * @return the number of the generation with the same hash, or null when it is not kept
+     */
+    private Long remember() {
+        int slot = (int) (this.generation % this.ring.length);
+        if (this.generation > this.maxPeriod) {
+            this.seen.remove(this.ring[slot], this.generation - this.ring.length);
+        }
+        this.ring[slot] = this.hash;
+        return this.seen.put(this.hash, this.generation);
+    }
+
+    /**
+     * The mix of the word and its index (the finalizer of MurmurHash3), the empty word gives 0,
+     * so the empty parts of the board do not take part in the hash
+     */
+    private static long mix(int index, long word) {
+        if (word == 0) return 0;
+        long z = word ^ (index * 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+}
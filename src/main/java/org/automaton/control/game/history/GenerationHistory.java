@@ -0,0 +1,244 @@
+package org.automaton.control.game.history;
+
+import lombok.Getter;
+import org.automaton.control.game.grid.BitGrid;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The bounded history of the last generations. Every generation is kept as the XOR delta against the previous one,
+ * only the changed words are stored, and the full keyframe is kept every keyframeInterval generations or when the
+ * delta would not be smaller than the keyframe. The generation is restored from the nearest keyframe before it,
+ * so the restore takes at most keyframeInterval deltas.
+ * When the memory budget is exceeded the oldest keyframe is evicted together with its deltas.
+ * Recording the generation which is already in the history drops it and all the later ones, the history then
+ * continues from the new branch.
+ */
+public class GenerationHistory {
+
+    /** the estimated cost of one entry besides its arrays */
+    private static final long ENTRY_OVERHEAD = 64;
+
+    private final int keyframeInterval;
+    @Getter private long memoryBudget;
+
+    /** the entries ordered by the epoch, the first one is always the keyframe */
+    private final List<Entry> entries = new ArrayList<>();
+    /** the words of the newest generation, the base of the next delta */
+    private long[] lastWords;
+    private int rows;
+    private int cols;
+    private int sinceKeyframe;
+    @Getter private long memoryUsage;
+
+    /** the scratch arrays of the delta being built, they grow with the largest delta */
+    private int[] scratchIndexes = new int[64];
+    private long[] scratchValues = new long[64];
+
+    /**
+     * @param keyframeInterval - the largest number of the deltas after one keyframe
+     * @param memoryBudget - the bytes the history may take, the copy of the newest generation included
+     */
+    public GenerationHistory(int keyframeInterval, long memoryBudget) {
+        if (keyframeInterval < 1) throw new IllegalArgumentException("The keyframe interval must be positive");
+        this.keyframeInterval = keyframeInterval;
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Add the generation to the history. The generation which does not follow the newest one starts the new keyframe.
+     * @param epoch - the number of the generation
+     * @param grid - the cells of the generation, they are copied
+     */
+    public void record(long epoch, BitGrid grid) {
+        if (grid.getRows() != this.rows || grid.getCols() != this.cols) {
+            clear();
+            this.rows = grid.getRows();
+            this.cols = grid.getCols();
+        }
+        truncateFrom(epoch);
+
+        long[] words = grid.getWords();
+        boolean follows = !this.entries.isEmpty() && this.entries.getLast().epoch == epoch - 1;
+        Entry entry = null;
+        if (follows && this.sinceKeyframe < this.keyframeInterval) {
+            entry = delta(epoch, words);
+        }
+        if (entry == null) {
+            entry = Entry.keyframe(epoch, words.clone());
+            this.sinceKeyframe = 0;
+        } else {
+            this.sinceKeyframe++;
+        }
+
+        if (this.lastWords == null) {
+            this.lastWords = words.clone();
+            this.memoryUsage += (long) words.length * Long.BYTES;
+        } else {
+            System.arraycopy(words, 0, this.lastWords, 0, words.length);
+        }
+        this.entries.add(entry);
+        this.memoryUsage += entry.bytes();
+        evict();
+    }
+
+    /**
+     * Restore the generation from the nearest keyframe before it
+     * @param epoch - the number of the generation
+     * @return the new grid with the cells of the generation, or null when the generation is not in the history
+     */
+    public BitGrid restore(long epoch) {
+        int index = indexOf(epoch);
+        if (index < 0) return null;
+
+        int keyframe = index;
+        while (!this.entries.get(keyframe).isKeyframe()) keyframe--;
+
+        BitGrid grid = new BitGrid(this.rows, this.cols);
+        long[] words = grid.getWords();
+        System.arraycopy(this.entries.get(keyframe).keyframe(), 0, words, 0, words.length);
+        for (int i = keyframe + 1; i <= index; i++) {
+            Entry delta = this.entries.get(i);
+            for (int j = 0; j < delta.indexes.length; j++) {
+                words[delta.indexes[j]] ^= delta.values[j];
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * @param epoch - the number of the generation
+     * @return true when the generation can be restored
+     */
+    public boolean contains(long epoch) {
+        return indexOf(epoch) >= 0;
+    }
+
+    /**
+     * @return the oldest retained generation, or -1 when the history is empty
+     */
+    public long getOldestEpoch() {
+        return this.entries.isEmpty() ? -1 : this.entries.getFirst().epoch;
+    }
+
+    /**
+     * @return the newest retained generation, or -1 when the history is empty
+     */
+    public long getNewestEpoch() {
+        return this.entries.isEmpty() ? -1 : this.entries.getLast().epoch;
+    }
+
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * @param memoryBudget - the bytes the history may take, the oldest generations are evicted right away
+     */
+    public void setMemoryBudget(long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+        evict();
+    }
+
+    public void clear() {
+        this.entries.clear();
+        this.lastWords = null;
+        this.memoryUsage = 0;
+        this.sinceKeyframe = 0;
+    }
+
+    /**
+     * @return the delta against the last words, or null when the keyframe is not larger than the delta
+     */
+    private Entry delta(long epoch, long[] words) {
+        int limit = words.length * 2 / 3; // 12 bytes of the changed word against 8 bytes of the keyframe word
+        int count = 0;
+        for (int i = 0; i < words.length; i++) {
+            long diff = words[i] ^ this.lastWords[i];
+            if (diff == 0) continue;
+            if (count == limit) return null;
+            if (count == this.scratchIndexes.length) {
+                int size = Math.min(limit, count * 2);
+                this.scratchIndexes = Arrays.copyOf(this.scratchIndexes, size);
+                this.scratchValues = Arrays.copyOf(this.scratchValues, size);
+            }
+            this.scratchIndexes[count] = i;
+            this.scratchValues[count] = diff;
+            count++;
+        }
+        return new Entry(epoch, null, Arrays.copyOf(this.scratchIndexes, count), Arrays.copyOf(this.scratchValues, count));
+    }
+
+    /**
+     * Drop the generation and all the later ones, the next recorded generation starts the keyframe
+     */
+    private void truncateFrom(long epoch) {
+        int from = this.entries.size();
+        while (from > 0 && this.entries.get(from - 1).epoch >= epoch) from--;
+        if (from == this.entries.size()) return;
+
+        List<Entry> dropped = this.entries.subList(from, this.entries.size());
+        for (Entry entry : dropped) this.memoryUsage -= entry.bytes();
+        dropped.clear();
+        // the last words are no longer the base of the next generation
+        this.sinceKeyframe = this.keyframeInterval;
+    }
+
+    /**
+     * Evict the oldest keyframes with their deltas until the history fits the budget, the newest keyframe stays
+     */
+    private void evict() {
+        while (this.memoryUsage > this.memoryBudget && !this.entries.isEmpty()) {
+            int next = 1;
+            while (next < this.entries.size() && !this.entries.get(next).isKeyframe()) next++;
+            if (next == this.entries.size()) {
+                if (this.memoryBudget > 0) return;
+                clear();
+                return;
+            }
+
+            List<Entry> evicted = this.entries.subList(0, next);
+            for (Entry entry : evicted) this.memoryUsage -= entry.bytes();
+            evicted.clear();
+        }
+    }
+
+    private int indexOf(long epoch) {
+        int low = 0;
+        int high = this.entries.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midEpoch = this.entries.get(mid).epoch;
+            if (midEpoch < epoch) low = mid + 1;
+            else if (midEpoch > epoch) high = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    /**
+     * One generation, either the keyframe or the delta
+     * @param epoch - the number of the generation
+     * @param keyframe - the whole words of the keyframe, null for the delta
+     * @param indexes - the indexes of the changed words of the delta
+     * @param values - the XOR of the changed words against the previous generation
+     */
+    private record Entry(long epoch, long[] keyframe, int[] indexes, long[] values) {
+
+        static Entry keyframe(long epoch, long[] words) {
+            return new Entry(epoch, words, null, null);
+        }
+
+        boolean isKeyframe() {
+            return this.keyframe != null;
+        }
+
+        long bytes() {
+            return ENTRY_OVERHEAD + (isKeyframe()
+                    ? (long) this.keyframe.length * Long.BYTES
+                    : (long) this.indexes.length * (Integer.BYTES + Long.BYTES));
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package org.automaton.control.game.io;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.enums.NeighborhoodType;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.rule.TotalisticRule;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The compact binary file of the board. The header of 40 bytes is followed by the rulestring in UTF-8 padded
+ * to whole longs, and by the cells as the words of the grid, 64 cells per long in the row-major order
+ * with the row padded to whole words, little endian. The header holds the number of the states of the rule as well,
+ * the files of the version 1 have no rule and are loaded with the default rule of their neighborhood.
+ * When it is smaller the payload is run-length compressed: the positive token n is followed by n literal words,
+ * the negative token -n stands for n empty words.
+ * The file is read and written through the memory mapped windows, the words go straight between the mapping
+ * and the array of the grid without any other copy on the heap.
+ */
+public final class BoardFile {
+
+    /** "CAUT" */
+    private static final int MAGIC = 0x43415554;
+    private static final short VERSION = 2;
+    /** the first version, without the rule */
+    private static final short VERSION_WITHOUT_RULE = 1;
+    private static final byte FLAG_RLE = 1;
+    private static final int HEADER_BYTES = 40;
+    /** the largest mapped window, the mapping of one buffer is limited to 2 GB */
+    private static final long WINDOW_BYTES = 1L << 30;
+    /** the largest array of the grid words the VM can allocate */
+    private static final long MAX_GRID_WORDS = Integer.MAX_VALUE - 8;
+    /** the longest rulestring, far more than any rule needs */
+    private static final int MAX_RULE_BYTES = 1024;
+
+    /** the saves run one after another on one background thread, so the later save of the same file wins */
+    private static final ExecutorService SAVER = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("board-save").daemon().factory());
+
+    private BoardFile() {}
+
+    /**
+     * Save the state on the background thread
+     * @param state - the state to save, its grid must be a private copy which nobody changes
+     * @param path - the target file, it is replaced only when the whole file was written
+     * @return the future of the save, completed exceptionally with the UncheckedIOException on failure
+     */
+    public static CompletableFuture<Void> saveAsync(BoardState state, Path path) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                save(state, path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, SAVER);
+    }
+
+    /**
+     * Save the state into the file, the data is written into the temporary file which then replaces the target
+     * @param state - the state to save
+     * @param path - the target file
+     * @throws IOException when the file can not be written
+     */
+    public static void save(BoardState state, Path path) throws IOException {
+        BitGrid grid = state.grid();
+        long[] words = grid.getWords();
+        long rleWords = rleLength(words);
+        boolean rle = rleWords < words.length;
+        long payloadWords = rle ? rleWords : words.length;
+        byte[] rule = state.rule() != null ? state.rule().toString().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        long payloadStart = HEADER_BYTES + ruleBytes(rule.length);
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate((int) payloadStart).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC)
+                    .putShort(VERSION)
+                    .put(rle ? FLAG_RLE : 0)
+                    .put((byte) 0)
+                    .putInt(grid.getRows())
+                    .putInt(grid.getCols())
+                    .put((byte) state.mapMode().ordinal())
+                    .put((byte) state.neighborhood().ordinal())
+                    .putShort((short) (state.rule() != null ? state.rule().states() : 0))
+                    .putLong(state.epoch())
+                    .putLong(payloadWords)
+                    .putInt(rule.length)
+                    .put(rule)
+                    .position(0);
+            while (header.hasRemaining()) channel.write(header, header.position());
+
+            MappedWords out = new MappedWords(channel, FileChannel.MapMode.READ_WRITE, payloadStart, payloadWords);
+            if (rle) {
+                writeRle(words, out);
+            } else {
+                out.put(words, 0, words.length);
+            }
+            out.force();
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Load the state from the file
+     * @param path - the file written by the save
+     * @return the loaded state with the new grid
+     * @throws IOException when the file can not be read or it is not the board file
+     */
+    public static BoardState load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) throw new IOException("The file is too short for the board: " + path);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) throw new IOException("Unexpected end of the file: " + path);
+            }
+            header.flip();
+
+            if (header.getInt() != MAGIC) throw new IOException("Not a board file: " + path);
+            short version = header.getShort();
+            if (version != VERSION && version != VERSION_WITHOUT_RULE) throw new IOException("Unsupported board file version " + version);
+            boolean rle = (header.get() & FLAG_RLE) != 0;
+            header.get();
+            int rows = header.getInt();
+            int cols = header.getInt();
+            int mapMode = header.get();
+            int neighborhood = header.get();
+            int states = header.getShort() & 0xFFFF;
+            long epoch = header.getLong();
+            long payloadWords = header.getLong();
+            int ruleLength = version == VERSION_WITHOUT_RULE ? 0 : header.getInt();
+
+            if (rows <= 0 || cols <= 0 || mapMode < 0 || mapMode >= MapMode.values().length ||
+                    neighborhood < 0 || neighborhood >= NeighborhoodType.values().length ||
+                    ruleLength < 0 || ruleLength > MAX_RULE_BYTES) {
+                throw new IOException("Corrupted board header: " + path);
+            }
+            long payloadStart = HEADER_BYTES + ruleBytes(ruleLength);
+            TotalisticRule rule = readRule(channel, ruleLength, states, path);
+            // the header is checked before anything is allocated, the run-length payload is at most one token longer per row
+            long gridWords = (long) rows * ((cols + 63L) >>> 6);
+            if (gridWords > MAX_GRID_WORDS || gridWords * Long.BYTES > Runtime.getRuntime().maxMemory()) {
+                throw new IOException("The board of " + rows + "x" + cols + " cells is too large: " + path);
+            }
+            if (payloadWords < 0 || payloadWords > gridWords + rows) {
+                throw new IOException("Corrupted board header: " + path);
+            }
+            if (channel.size() < payloadStart + payloadWords * Long.BYTES) {
+                throw new IOException("The board file is truncated: " + path);
+            }
+
+            BitGrid grid = new BitGrid(rows, cols);
+            long[] words = grid.getWords();
+            MappedWords in = new MappedWords(channel, FileChannel.MapMode.READ_ONLY, payloadStart, payloadWords);
+            try {
+                if (rle) {
+                    readRle(in, words);
+                } else {
+                    if (payloadWords != words.length) throw new IOException("The board size does not match its cells: " + path);
+                    in.get(words, 0, words.length);
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            // the padding bits must stay empty, the kernels rely on them
+            long lastWordMask = grid.lastWordMask();
+            int stride = grid.getStride();
+            for (int r = 0; r < rows; r++) {
+                words[r * stride + stride - 1] &= lastWordMask;
+            }
+            return new BoardState(MapMode.values()[mapMode], NeighborhoodType.values()[neighborhood], rule, epoch, grid);
+        }
+    }
+
+    /**
+     * Read the rulestring after the header, its number of the states must match the one of the header
+     * @return the rule, or null for the default rule of the neighborhood
+     */
+    private static TotalisticRule readRule(FileChannel channel, int length, int states, Path path) throws IOException {
+        if (length == 0) return null;
+        if (channel.size() < HEADER_BYTES + length) throw new IOException("The board file is truncated: " + path);
+
+        ByteBuffer bytes = ByteBuffer.allocate(length);
+        while (bytes.hasRemaining()) {
+            if (channel.read(bytes, HEADER_BYTES + bytes.position()) < 0) throw new IOException("Unexpected end of the file: " + path);
+        }
+        String rulestring = new String(bytes.array(), StandardCharsets.UTF_8);
+        TotalisticRule rule;
+        try {
+            rule = TotalisticRule.parse(rulestring);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("The board rule " + rulestring + " is malformed: " + path, e);
+        }
+        if (rule.states() != states) throw new IOException("The board rule " + rulestring + " does not have " + states + " states: " + path);
+        return rule;
+    }
+
+    /**
+     * @return the number of the bytes of the rulestring padded to whole longs
+     */
+    private static long ruleBytes(int length) {
+        return (length + Long.BYTES - 1L) & -Long.BYTES;
+    }
+
+    /**
+     * @return the number of the longs of the run-length payload
+     */
+    private static long rleLength(long[] words) {
+        long length = 0;
+        int i = 0;
+        while (i < words.length) {
+            int run = zeroRun(words, i);
+            if (run > 0) {
+                length++;
+                i += run;
+            } else {
+                int literal = literalRun(words, i);
+                length += 1 + literal;
+                i += literal;
+            }
+        }
+        return length;
+    }
+
+    private static void writeRle(long[] words, MappedWords out) {
+        int i = 0;
+        while (i < words.length) {
+            int run = zeroRun(words, i);
+            if (run > 0) {
+                out.put(-run);
+                i += run;
+            } else {
+                int literal = literalRun(words, i);
+                out.put(literal);
+                out.put(words, i, literal);
+                i += literal;
+            }
+        }
+    }
+
+    private static void readRle(MappedWords in, long[] words) throws IOException {
+        int i = 0;
+        while (in.hasRemaining()) {
+            long token = in.get();
+            // the absolute value of Long.MIN_VALUE is negative, it is rejected with the zero token
+            long count = Math.abs(token);
+            if (token == 0 || count < 0 || i + count > words.length) throw new IOException("Corrupted run-length cells");
+            if (token > 0 && count > in.remaining()) throw new IOException("The run-length cells are truncated");
+            if (token > 0) in.get(words, i, (int) count);
+            i += (int) count;
+        }
+        if (i != words.length) throw new IOException("The board size does not match its cells");
+    }
+
+    private static int zeroRun(long[] words, int from) {
+        int i = from;
+        while (i < words.length && words[i] == 0) i++;
+        return i - from;
+    }
+
+    /**
+     * The literal run ends at the pair of the empty words, the single empty word is cheaper to keep in the run
+     */
+    private static int literalRun(long[] words, int from) {
+        int i = from;
+        while (i < words.length && !(words[i] == 0 && i + 1 < words.length && words[i + 1] == 0)) i++;
+        if (i == from) i++;
+        return i - from;
+    }
+
+    /**
+     * The sequential access to the longs of the file through the mapped windows of at most WINDOW_BYTES
+     */
+    private static final class MappedWords {
+        private final FileChannel channel;
+        private final FileChannel.MapMode mode;
+        private long position;
+        private long remaining;
+        private LongBuffer window;
+        private MappedByteBuffer mapped;
+
+        MappedWords(FileChannel channel, FileChannel.MapMode mode, long position, long words) {
+            this.channel = channel;
+            this.mode = mode;
+            this.position = position;
+            this.remaining = words;
+        }
+
+        boolean hasRemaining() {
+            return remaining() > 0;
+        }
+
+        /**
+         * @return the number of the longs which were not read or written yet
+         */
+        long remaining() {
+            return this.remaining + (this.window != null ? this.window.remaining() : 0);
+        }
+
+        long get() {
+            next();
+            return this.window.get();
+        }
+
+        void put(long value) {
+            next();
+            this.window.put(value);
+        }
+
+        void get(long[] target, int offset, int length) {
+            while (length > 0) {
+                next();
+                int count = Math.min(length, this.window.remaining());
+                this.window.get(target, offset, count);
+                offset += count;
+                length -= count;
+            }
+        }
+
+        void put(long[] source, int offset, int length) {
+            while (length > 0) {
+                next();
+                int count = Math.min(length, this.window.remaining());
+                this.window.put(source, offset, count);
+                offset += count;
+                length -= count;
+            }
+        }
+
+        void force() {
+            if (this.mapped != null) this.mapped.force();
+        }
+
+        /**
+         * Map the next window when the current one is used up
+         */
+        private void next() {
+            if (this.window != null && this.window.hasRemaining()) return;
+            if (this.remaining <= 0) throw new UncheckedIOException(new IOException("Read past the end of the board cells"));
+
+            force();
+            long words = Math.min(this.remaining, WINDOW_BYTES / Long.BYTES);
+            try {
+                this.mapped = this.channel.map(this.mode, this.position, words * Long.BYTES);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.window = this.mapped.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+            this.position += words * Long.BYTES;
+            this.remaining -= words;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.automaton.control.game.io;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.enums.NeighborhoodType;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.rule.TotalisticRule;
+
+/**
+ * The persisted state of the game, the size of the board is the size of the grid.
+ * On the unbounded plane only the board window at the origin is kept.
+ * @param mapMode - the edges of the board
+ * @param neighborhood - the selected neighborhood
+ * @param rule - the rule of the game, null for the default rule of the neighborhood
+ * @param epoch - the number of the generation
+ * @param grid - the cells, it must not be changed while the state is saved
+ */
+public record BoardState(
+        MapMode mapMode,
+        NeighborhoodType neighborhood,
+        TotalisticRule rule,
+        long epoch,
+        BitGrid grid
+) { }
@@ -0,0 +1,58 @@
+package org.automaton.control.game.io;
+
+import org.automaton.control.game.grid.BitGrid;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * The pattern files, the format is chosen by the extension: .rle for the run-length encoded pattern,
+ * anything else for the plaintext .cells
+ */
+public final class PatternFiles {
+
+    private PatternFiles() {}
+
+    /**
+     * Place the pattern from the file into the grid
+     * @param path - the pattern file
+     * @param target - the grid to place the pattern into
+     * @param rowOffset - the row of the top left corner of the pattern
+     * @param colOffset - the column of the top left corner of the pattern
+     * @return the size and the rule of the pattern
+     * @throws IOException when the file can not be read or it is malformed
+     */
+    public static PatternInfo read(Path path, BitGrid target, int rowOffset, int colOffset) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return isRle(path)
+                    ? RleFormat.read(reader, target, rowOffset, colOffset)
+                    : PlaintextFormat.read(reader, target, rowOffset, colOffset);
+        }
+    }
+
+    /**
+     * Write the grid into the pattern file
+     * @param path - the target file
+     * @param grid - the grid to write
+     * @param rule - the rule for the RLE header, or null
+     * @throws IOException when the file can not be written
+     */
+    public static void write(Path path, BitGrid grid, String rule) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            if (isRle(path)) {
+                RleFormat.write(grid, writer, rule);
+            } else {
+                PlaintextFormat.write(grid, writer, path.getFileName().toString());
+            }
+        }
+    }
+
+    private static boolean isRle(Path path) {
+        return path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".rle");
+    }
+}
@@ -0,0 +1,13 @@
+package org.automaton.control.game.io;
+
+/**
+ * The description of the imported pattern
+ * @param width - the number of the columns of the pattern
+ * @param height - the number of the rows of the pattern
+ * @param rule - the rule from the header of the pattern, or null when the file has none
+ */
+public record PatternInfo(
+        long width,
+        long height,
+        String rule
+) { }
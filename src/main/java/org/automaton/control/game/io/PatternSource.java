@@ -0,0 +1,64 @@
+package org.automaton.control.game.io;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * The buffered character stream of the pattern parsers, it reads the characters one by one without the lock of
+ * the BufferedReader and without keeping more than one buffer of the file in the memory
+ */
+class PatternSource {
+
+    /** returned by the read at the end of the stream */
+    static final int END = -1;
+
+    private final Reader reader;
+    private final char[] buffer = new char[64 * 1024];
+    private int position;
+    private int limit;
+
+    PatternSource(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return the next character, or END
+     */
+    int read() throws IOException {
+        if (this.position == this.limit) {
+            this.limit = this.reader.read(this.buffer, 0, this.buffer.length);
+            this.position = 0;
+            if (this.limit <= 0) {
+                this.limit = 0;
+                return END;
+            }
+        }
+        return this.buffer[this.position++];
+    }
+
+    /**
+     * Skip the rest of the current line
+     */
+    void skipLine() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c != END && c != '\n');
+    }
+
+    /**
+     * Read the rest of the current line, only used for the short header lines
+     * @param maxLength - the longest line accepted
+     * @return the line without the line end
+     */
+    String readLine(int maxLength) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = read()) != END && c != '\n') {
+            if (c == '\r') continue;
+            if (line.length() == maxLength) throw new IOException("The header line is longer than " + maxLength);
+            line.append((char) c);
+        }
+        return line.toString();
+    }
+}
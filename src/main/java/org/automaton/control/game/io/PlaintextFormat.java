@@ -0,0 +1,82 @@
+package org.automaton.control.game.io;
+
+import org.automaton.control.game.grid.BitGrid;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * The plaintext pattern of the .cells files: the '!' comment lines and one line per row,
+ * 'O' for the live and '.' for the dead cells. The parser streams the file into the words of the grid.
+ */
+public final class PlaintextFormat {
+
+    private PlaintextFormat() {}
+
+    /**
+     * Place the pattern into the grid, the live cells are added to the cells of the grid
+     * and the part of the pattern outside of the grid is dropped
+     * @param reader - the pattern, it is not closed
+     * @param target - the grid to place the pattern into
+     * @param rowOffset - the row of the top left corner of the pattern in the grid, may be negative
+     * @param colOffset - the column of the top left corner of the pattern in the grid, may be negative
+     * @return the size of the pattern, the plaintext has no rule
+     * @throws IOException when the reader fails or the pattern has an unknown character
+     */
+    public static PatternInfo read(Reader reader, BitGrid target, int rowOffset, int colOffset) throws IOException {
+        PatternSource source = new PatternSource(reader);
+
+        long row = 0;
+        long col = 0;
+        long width = 0;
+        boolean lineStart = true;
+        for (int c = source.read(); c != PatternSource.END; c = source.read()) {
+            if (lineStart && c == '!') {
+                source.skipLine();
+                continue;
+            }
+            lineStart = false;
+            switch (c) {
+                case '\n' -> {
+                    row++;
+                    col = 0;
+                    lineStart = true;
+                }
+                case '\r', ' ', '\t' -> { } // the line ends of the other systems and the trailing spaces
+                case '.' -> col++;
+                case 'O', '*' -> {
+                    long r = rowOffset + row;
+                    long cell = colOffset + col;
+                    if (r >= 0 && r < target.getRows() && cell >= 0 && cell < target.getCols()) {
+                        target.set((int) r, (int) cell, 1);
+                    }
+                    col++;
+                }
+                default -> throw new IOException("Unexpected character '" + (char) c + "' at the row " + row);
+            }
+            width = Math.max(width, col);
+        }
+        return new PatternInfo(width, lineStart ? row : row + 1, null);
+    }
+
+    /**
+     * Write the whole grid
+     * @param grid - the grid to write
+     * @param writer - the target, it is not closed
+     * @param name - the name for the comment line, or null to leave it out
+     * @throws IOException when the writer fails
+     */
+    public static void write(BitGrid grid, Writer writer, String name) throws IOException {
+        if (name != null) writer.write("!Name: " + name + "\n");
+
+        char[] line = new char[grid.getCols() + 1];
+        line[grid.getCols()] = '\n';
+        for (int x = 0; x < grid.getRows(); x++) {
+            for (int y = 0; y < grid.getCols(); y++) {
+                line[y] = grid.get(x, y) == 1 ? 'O' : '.';
+            }
+            writer.write(line);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package org.automaton.control.game.io;
+
+import org.automaton.control.enums.NeighborhoodType;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.rule.LargerThanLifeRule;
+import org.automaton.control.game.rule.TotalisticRule;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * The standard run-length encoded Life pattern: the '#' comment lines, the header {@code x = 3, y = 3, rule = B3/S23}
+ * and the body of the runs, 'b' for the dead cells, 'o' for the live ones, '$' for the end of the row and '!' for the end.
+ * The parser streams the file and sets the live runs directly in the words of the grid, the memory does not grow
+ * with the size of the file. The cells of the multi-state patterns are read as live.
+ */
+public final class RleFormat {
+
+    /** the longest line of the written body, as the other tools keep it */
+    private static final int LINE_LENGTH = 70;
+    private static final int MAX_HEADER_LENGTH = 4096;
+
+    private RleFormat() {}
+
+    /**
+     * Place the pattern into the grid, the live cells are added to the cells of the grid
+     * and the part of the pattern outside of the grid is dropped
+     * @param reader - the pattern, it is not closed
+     * @param target - the grid to place the pattern into
+     * @param rowOffset - the row of the top left corner of the pattern in the grid, may be negative
+     * @param colOffset - the column of the top left corner of the pattern in the grid, may be negative
+     * @return the size and the rule of the pattern
+     * @throws IOException when the reader fails or the pattern is malformed
+     */
+    public static PatternInfo read(Reader reader, BitGrid target, int rowOffset, int colOffset) throws IOException {
+        PatternSource source = new PatternSource(reader);
+
+        // the comment lines and the header, the header is optional
+        long width = -1;
+        long height = -1;
+        String rule = null;
+        int c;
+        while (true) {
+            c = source.read();
+            if (c == '#') {
+                source.skipLine();
+            } else if (c == 'x') {
+                String header = "x" + source.readLine(MAX_HEADER_LENGTH);
+                for (String field : header.split(",")) {
+                    String[] pair = field.split("=", 2);
+                    if (pair.length != 2) throw new IOException("Malformed RLE header: " + header);
+                    String key = pair[0].trim();
+                    String value = pair[1].trim();
+                    try {
+                        switch (key) {
+                            case "x" -> width = Long.parseLong(value);
+                            case "y" -> height = Long.parseLong(value);
+                            case "rule" -> rule = value;
+                            default -> { } // the other fields are not used
+                        }
+                    } catch (NumberFormatException e) {
+                        throw new IOException("Malformed RLE header: " + header);
+                    }
+                }
+            } else if (!Character.isWhitespace(c)) {
+                break;
+            }
+        }
+
+        long row = 0;
+        long col = 0;
+        long maxCol = 0;
+        long count = 0;
+        for (; c != PatternSource.END && c != '!'; c = source.read()) {
+            if (c >= '0' && c <= '9') {
+                count = count * 10 + (c - '0');
+                if (count > Integer.MAX_VALUE) throw new IOException("The run is too long at the row " + row);
+                continue;
+            }
+            if (Character.isWhitespace(c)) continue;
+
+            long run = count == 0 ? 1 : count;
+            count = 0;
+            if (c == '$') {
+                row += run;
+                col = 0;
+            } else if (c == 'b' || c == '.') {
+                col += run;
+            } else if (c >= 'p' && c <= 'y') {
+                // the prefix of the multi-state cell, the state itself is the next letter
+                int state = source.read();
+                if (state < 'A' || state > 'X') throw new IOException("Malformed multi-state cell at the row " + row);
+                placeRun(target, rowOffset + row, colOffset + col, run);
+                col += run;
+            } else if (c == 'o' || (c >= 'A' && c <= 'X')) {
+                placeRun(target, rowOffset + row, colOffset + col, run);
+                col += run;
+            } else {
+                throw new IOException("Unexpected character '" + (char) c + "' at the row " + row);
+            }
+            maxCol = Math.max(maxCol, col);
+        }
+
+        if (width < 0) width = maxCol;
+        if (height < 0) height = col == 0 ? row : row + 1;
+        return new PatternInfo(width, height, rule);
+    }
+
+    /**
+     * Write the bounding box of the live cells of the grid
+     * @param grid - the grid to write
+     * @param writer - the target, it is not closed
+     * @param rule - the rule for the header, or null to leave it out
+     * @throws IOException when the writer fails
+     */
+    public static void write(BitGrid grid, Writer writer, String rule) throws IOException {
+        long[] words = grid.getWords();
+        int stride = grid.getStride();
+        int minRow = -1;
+        int maxRow = -1;
+        int minCol = grid.getCols();
+        int maxCol = -1;
+        for (int r = 0; r < grid.getRows(); r++) {
+            int offset = r * stride;
+            for (int w = 0; w < stride; w++) {
+                long word = words[offset + w];
+                if (word == 0) continue;
+                if (minRow < 0) minRow = r;
+                maxRow = r;
+                minCol = Math.min(minCol, (w << 6) + Long.numberOfTrailingZeros(word));
+                maxCol = Math.max(maxCol, (w << 6) + 63 - Long.numberOfLeadingZeros(word));
+            }
+        }
+
+        RunWriter out = new RunWriter(writer);
+        int width = maxCol < 0 ? 0 : maxCol - minCol + 1;
+        int height = minRow < 0 ? 0 : maxRow - minRow + 1;
+        writer.write("x = " + width + ", y = " + height + (rule != null ? ", rule = " + rule : "") + "\n");
+
+        int pendingRows = 0;
+        for (int r = minRow; r >= 0 && r <= maxRow; r++) {
+            int col = minCol;
+            while (true) {
+                int live = nextCell(words, r * stride, col, maxCol + 1, true);
+                if (live > maxCol) break;
+                int dead = nextCell(words, r * stride, live, maxCol + 1, false);
+
+                if (pendingRows > 0) {
+                    out.run(pendingRows, '$');
+                    pendingRows = 0;
+                }
+                out.run(live - col, 'b');
+                out.run(dead - live, 'o');
+                col = dead;
+            }
+            pendingRows++;
+        }
+        out.run(1, '!');
+        writer.write('\n');
+    }
+
+    /**
+     * The default rule of the neighborhood in the notation of the other tools
+     * @param neighborhood - the neighborhood of the game
+     * @return the rule, or null when the neighborhood has no common notation
+     */
+    public static String ruleOf(NeighborhoodType neighborhood) {
+        return ruleOf(neighborhood, neighborhood.getStrategy().getDefaultRule());
+    }
+
+    /**
+     * The rule in the notation of the other tools, the von Neumann rules get the 'V' suffix,
+     * the Larger than Life rule holds its neighborhood itself
+     * @param neighborhood - the neighborhood of the game
+     * @param rule - the rule of the game
+     * @return the rule, or null when the neighborhood has no common notation
+     */
+    public static String ruleOf(NeighborhoodType neighborhood, TotalisticRule rule) {
+        if (rule instanceof LargerThanLifeRule) return rule.toString();
+        return switch (neighborhood) {
+            case MOORE -> rule.toString();
+            case VON_NEUMANN -> rule + "V";
+            default -> null;
+        };
+    }
+
+    /**
+     * Set the run of the live cells, clipped to the grid
+     */
+    private static void placeRun(BitGrid target, long row, long col, long run) {
+        if (row < 0 || row >= target.getRows()) return;
+        long from = Math.max(0, col);
+        long to = Math.min(target.getCols(), col + run);
+        if (from < to) target.setRun((int) row, (int) from, (int) to);
+    }
+
+    /**
+     * @return the first column from the given one with the cell of the given state, or the limit
+     */
+    private static int nextCell(long[] words, int offset, int from, int limit, boolean live) {
+        int col = from;
+        while (col < limit) {
+            long word = words[offset + (col >>> 6)];
+            if (!live) word = ~word;
+            word &= -1L << col;
+            if (word != 0) return Math.min(limit, ((col >>> 6) << 6) + Long.numberOfTrailingZeros(word));
+            col = ((col >>> 6) + 1) << 6;
+        }
+        return limit;
+    }
+
+    /**
+     * The tokens of the body, the line is broken before the token which would make it too long
+     */
+    private static final class RunWriter {
+        private final Writer writer;
+        private int lineLength;
+
+        RunWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        void run(int count, char tag) throws IOException {
+            if (count <= 0) return;
+            String token = count == 1 ? String.valueOf(tag) : count + String.valueOf(tag);
+            if (this.lineLength + token.length() > LINE_LENGTH) {
+                this.writer.write('\n');
+                this.lineLength = 0;
+            }
+            this.writer.write(token);
+            this.lineLength += token.length();
+        }
+    }
+}
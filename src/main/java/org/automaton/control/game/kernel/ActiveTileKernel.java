@@ -0,0 +1,297 @@
+package org.automaton.control.game.kernel;
+
+import lombok.Getter;
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.game.grid.BitGrid;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * The kernel which only recomputes the parts of the board where something happens.
+ * The board is split into the tiles of 32 rows by one 64-bit word, the tile is recomputed only when it or one of
+ * the tiles in the neighborhood radius has changed in the previous generation. The still and empty tiles are skipped,
+ * their cells are already correct in the target, because the target is the previous generation of the swapped buffers.
+ * When most of the board is active the whole board goes through the full kernel, which may be parallel.
+ * The dirty tiles go to the kernel in the rectangles of the runs of words stacked over the tile rows,
+ * see {@link #stepDirtyRuns}.
+ * The tracking relies on the double buffering, the step must get the target of the previous step as its source,
+ * any other call or the edit of the grid outside of the kernel needs the {@link #invalidate()}.
+ */
+public class ActiveTileKernel implements StepKernel, AutoCloseable {
+
+    /** the height of one tile, the width is one word of 64 cells */
+    public static final int TILE_ROWS = 32;
+
+    /** above this part of the active tiles the full board is computed at once */
+    private static final double FULL_STEP_RATIO = 0.5;
+
+    private final StepKernel tileKernel;
+    private final StepKernel fullKernel;
+    private final int radius;
+    private final MapMode mapMode;
+
+    private int tileRows;
+    private int tileCols;
+    /** the tiles which are recomputed in the next step */
+    private boolean[] dirty = new boolean[0];
+    /** the tiles which have changed in the last step */
+    private boolean[] changed = new boolean[0];
+    private int[] tileLive = new int[0];
+    /** the scratch lists of the tile rows and the tile columns reached from one changed tile */
+    private int[] reachRows = new int[0];
+    private int[] reachCols = new int[0];
+    /** the rectangles of the dirty tiles which reach the current tile row and the next ones, see stepDirtyRuns */
+    private int[] openRuns = new int[0];
+    private int[] nextRuns = new int[0];
+
+    private BitGrid lastSource;
+    private BitGrid lastTarget;
+    /** true when the changed tiles cover the whole board of the last step */
+    private boolean changedKnown;
+
+    /** the part of the tiles which were recomputed in the last step */
+    @Getter private volatile double activeTileRatio = 1.0;
+
+    /**
+     * @param kernelFactory - the factory of the kernel for the selected rule
+     * @param radius - the radius of the neighborhood, the change spreads by this number of cells per generation
+     * @param mapMode - the map mode, the change spreads across the edge only on the torus
+     * @param parallelism - the number of the threads of the full board step
+     */
+    public ActiveTileKernel(Supplier<StepKernel> kernelFactory, int radius, MapMode mapMode, int parallelism) {
+        this.tileKernel = kernelFactory.get();
+        this.fullKernel = parallelism > 1 ? new ParallelStepper(kernelFactory, parallelism) : this.tileKernel;
+        this.radius = radius;
+        this.mapMode = mapMode;
+    }
+
+    /**
+     * Forget the tracking, the next step computes the whole board
+     */
+    public void invalidate() {
+        this.lastSource = null;
+        this.lastTarget = null;
+    }
+
+    @Override
+    public int step(BitGrid source, BitGrid target, int rowFrom, int rowTo, int wordFrom, int wordTo) {
+        int rows = source.getRows();
+        int stride = source.getStride();
+        if (rowFrom != 0 || rowTo != rows || wordFrom != 0 || wordTo != stride) {
+            // only the part of the board is computed, the other tiles of the target are unknown
+            invalidate();
+            this.changedKnown = false;
+            return this.tileKernel.step(source, target, rowFrom, rowTo, wordFrom, wordTo);
+        }
+
+        boolean tracked = compile(rows, stride) && source == this.lastTarget && target == this.lastSource;
+        if (!tracked) Arrays.fill(this.dirty, true);
+
+        int total = this.dirty.length;
+        int active = 0;
+        for (boolean tile : this.dirty) {
+            if (tile) active++;
+        }
+
+        if (active > total * FULL_STEP_RATIO) {
+            this.fullKernel.step(source, target);
+            Arrays.fill(this.dirty, true);
+            active = total;
+        } else {
+            stepDirtyRuns(source, target);
+        }
+
+        int live = 0;
+        for (int tile = 0; tile < total; tile++) {
+            if (this.dirty[tile]) {
+                this.changed[tile] = scanTile(source, target, tile);
+            } else {
+                this.changed[tile] = false;
+            }
+            live += this.tileLive[tile];
+        }
+        markDirty(rows, source.getCols());
+
+        this.lastSource = source;
+        this.lastTarget = target;
+        this.changedKnown = true;
+        this.activeTileRatio = total == 0 ? 0 : (double) active / total;
+        return live;
+    }
+
+    /**
+     * The tiles whose cells differ between the source and the target of the last step, the words of the other tiles
+     * are the same in both, so the consumers of the change compare the changed tiles only
+     * @return the flags indexed by {@code tileRow * stride + word}, the tile is {@link #TILE_ROWS} rows of one word,
+     * or null when the last step did not compute the whole board; the array is reused by the next step
+     */
+    public boolean[] getChangedTiles() {
+        return this.changedKnown ? this.changed : null;
+    }
+
+    /**
+     * Compute the dirty tiles, the neighbor dirty tiles of the tile row are merged into one run of words and the same
+     * runs of the neighbor tile rows are stacked into one rectangle. The kernel of the big radius sums the window
+     * of 2R + 1 rows before it gives the first row of the call, so the tall calls keep that cost per cell low.
+     * The rectangles are kept in the triples of the first word, the word after the last one and the first tile row.
+     */
+    private void stepDirtyRuns(BitGrid source, BitGrid target) {
+        int rows = source.getRows();
+        int open = 0;
+        // the row after the last one closes the rectangles which are still open
+        for (int tr = 0; tr <= this.tileRows; tr++) {
+            int rowTo = Math.min(rows, tr * TILE_ROWS);
+            int base = tr * this.tileCols;
+            int next = 0;
+            int i = 0;
+
+            int tc = 0;
+            while (tr < this.tileRows && tc < this.tileCols) {
+                if (!this.dirty[base + tc]) {
+                    tc++;
+                    continue;
+                }
+                int runFrom = tc;
+                while (tc < this.tileCols && this.dirty[base + tc]) tc++;
+
+                // the rectangles before the run have ended with the previous tile row
+                while (i < open && this.openRuns[3 * i] < runFrom) stepRun(source, target, i++, rowTo);
+                int tileRowFrom = tr;
+                if (i < open && this.openRuns[3 * i] == runFrom) {
+                    if (this.openRuns[3 * i + 1] == tc) {
+                        tileRowFrom = this.openRuns[3 * i + 2];
+                    } else {
+                        stepRun(source, target, i, rowTo);
+                    }
+                    i++;
+                }
+                this.nextRuns[3 * next] = runFrom;
+                this.nextRuns[3 * next + 1] = tc;
+                this.nextRuns[3 * next + 2] = tileRowFrom;
+                next++;
+            }
+            while (i < open) stepRun(source, target, i++, rowTo);
+
+            int[] swap = this.openRuns;
+            this.openRuns = this.nextRuns;
+            this.nextRuns = swap;
+            open = next;
+        }
+    }
+
+    /**
+     * Compute the open rectangle of the dirty tiles
+     * @param run - the index of the rectangle in the open ones
+     * @param rowTo - the row after its last row
+     */
+    private void stepRun(BitGrid source, BitGrid target, int run, int rowTo) {
+        this.tileKernel.step(source, target, this.openRuns[3 * run + 2] * TILE_ROWS, rowTo,
+                this.openRuns[3 * run], this.openRuns[3 * run + 1]);
+    }
+
+    /**
+     * Count the live cells of the recomputed tile and compare it with the previous generation
+     * @return true when at least one cell of the tile has changed
+     */
+    private boolean scanTile(BitGrid source, BitGrid target, int tile) {
+        long[] in = source.getWords();
+        long[] out = target.getWords();
+        int stride = source.getStride();
+        int w = tile % this.tileCols;
+        int rowFrom = (tile / this.tileCols) * TILE_ROWS;
+        int rowTo = Math.min(source.getRows(), rowFrom + TILE_ROWS);
+
+        boolean differs = false;
+        int live = 0;
+        for (int r = rowFrom; r < rowTo; r++) {
+            int i = r * stride + w;
+            live += Long.bitCount(out[i]);
+            differs |= out[i] != in[i];
+        }
+        this.tileLive[tile] = live;
+        return differs;
+    }
+
+    /**
+     * Mark every tile which can be reached by the neighborhood from the changed tiles
+     */
+    private void markDirty(int rows, int cols) {
+        Arrays.fill(this.dirty, false);
+        for (int tile = 0; tile < this.changed.length; tile++) {
+            if (!this.changed[tile]) continue;
+
+            int tr = tile / this.tileCols;
+            int tc = tile % this.tileCols;
+            int rowCount = reach(tr * TILE_ROWS, Math.min(rows, (tr + 1) * TILE_ROWS), rows, TILE_ROWS, this.reachRows);
+            int colCount = reach(tc * 64, Math.min(cols, (tc + 1) * 64), cols, 64, this.reachCols);
+            for (int i = 0; i < rowCount; i++) {
+                int base = this.reachRows[i] * this.tileCols;
+                for (int j = 0; j < colCount; j++) {
+                    this.dirty[base + this.reachCols[j]] = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Collect the tile indexes along one axis which hold the cells within the radius of the range
+     * @param from - the first cell of the changed tile, inclusive
+     * @param to - the last cell of the changed tile, exclusive
+     * @param size - the size of the board along the axis
+     * @param tileSize - the size of the tile along the axis
+     * @param result - the array for the distinct tile indexes
+     * @return the number of the indexes in the result
+     */
+    private int reach(int from, int to, int size, int tileSize, int[] result) {
+        int count = 0;
+        int last = -1;
+        for (int cell = from - this.radius; cell < to + this.radius; cell++) {
+            int mapped;
+            if (cell >= 0 && cell < size) {
+                mapped = cell;
+            } else if (this.mapMode != MapMode.INFINITE) {
+                continue;
+            } else {
+                mapped = Math.floorMod(cell, size);
+            }
+            int index = mapped / tileSize;
+            if (index == last) continue;
+            last = index;
+
+            boolean seen = false;
+            for (int i = 0; i < count && !seen; i++) seen = result[i] == index;
+            if (!seen) result[count++] = index;
+        }
+        return count;
+    }
+
+    /**
+     * @return false when the tiles were allocated again for the new board shape
+     */
+    private boolean compile(int rows, int stride) {
+        int newTileRows = (rows + TILE_ROWS - 1) / TILE_ROWS;
+        if (newTileRows == this.tileRows && stride == this.tileCols && this.dirty.length == newTileRows * stride) {
+            return true;
+        }
+        this.tileRows = newTileRows;
+        this.tileCols = stride;
+        this.dirty = new boolean[newTileRows * stride];
+        this.changed = new boolean[newTileRows * stride];
+        this.tileLive = new int[newTileRows * stride];
+        this.reachRows = new int[newTileRows];
+        this.reachCols = new int[stride];
+        this.openRuns = new int[3 * stride];
+        this.nextRuns = new int[3 * stride];
+        this.changedKnown = false;
+        invalidate();
+        return false;
+    }
+
+    @Override
+    public void close() {
+        if (this.fullKernel instanceof ParallelStepper stepper) {
+            stepper.close();
+        }
+    }
+}
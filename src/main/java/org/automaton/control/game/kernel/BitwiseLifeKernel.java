@@ -0,0 +1,133 @@
+package org.automaton.control.game.kernel;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.neighborhood.MooreStrategy;
+import org.automaton.control.game.neighborhood.NeighborhoodStrategy;
+import org.automaton.control.game.rule.LifeRule;
+import org.automaton.control.game.rule.TotalisticRule;
+
+/**
+ * Word-parallel kernel for the Moore neighborhood with the classic rule (birth 3, survive 2-3).
+ * It computes 64 cells at once: the horizontal neighbors are the shifted row words with the carry from the adjacent
+ * word, the vertical ones are the words of the adjacent rows, and the 8 neighbor bits are counted by the bit-sliced
+ * full adders. In the infinite mode the edges wrap like a torus, in the finite one the outside cells are dead.
+ */
+public class BitwiseLifeKernel implements StepKernel {
+
+    private final boolean wrap;
+
+    public BitwiseLifeKernel(MapMode mapMode) {
+        this.wrap = mapMode == MapMode.INFINITE;
+    }
+
+    /**
+     * @param strategy - the selected neighborhood strategy
+     * @param rule - the selected rule
+     * @return true when the strategy is the Moore neighborhood and the rule is the one this kernel implements
+     */
+    public static boolean supports(NeighborhoodStrategy strategy, TotalisticRule rule) {
+        return strategy instanceof MooreStrategy && LifeRule.LIFE.equals(rule);
+    }
+
+    @Override
+    public int step(BitGrid source, BitGrid target, int rowFrom, int rowTo, int wordFrom, int wordTo) {
+        if (source.getRows() != target.getRows() || source.getCols() != target.getCols()) {
+            throw new IllegalArgumentException("Source and target grids must have the same size");
+        }
+
+        long[] in = source.getWords();
+        long[] out = target.getWords();
+        int rows = source.getRows();
+        int stride = source.getStride();
+        int lastWord = stride - 1;
+        int lastBit = (source.getCols() - 1) & 63;
+        long lastMask = source.lastWordMask();
+
+        int live = 0;
+        for (int r = rowFrom; r < rowTo; r++) {
+            int above = neighborRowBase(r - 1, rows, stride);
+            int middle = r * stride;
+            int below = neighborRowBase(r + 1, rows, stride);
+
+            for (int w = wordFrom; w < wordTo; w++) {
+                long nw = west(in, above, w, lastWord, lastBit);
+                long n = word(in, above, w);
+                long ne = east(in, above, w, lastWord, lastBit);
+                long we = west(in, middle, w, lastWord, lastBit);
+                long self = in[middle + w];
+                long ea = east(in, middle, w, lastWord, lastBit);
+                long sw = west(in, below, w, lastWord, lastBit);
+                long s = word(in, below, w);
+                long se = east(in, below, w, lastWord, lastBit);
+
+                // 2-bit counts of the row above (0..3), the side neighbors (0..2) and the row below (0..3)
+                long aboveOnes = nw ^ n ^ ne;
+                long aboveTwos = (nw & n) | (ne & (nw ^ n));
+                long sideOnes = we ^ ea;
+                long sideTwos = we & ea;
+                long belowOnes = sw ^ s ^ se;
+                long belowTwos = (sw & s) | (se & (sw ^ s));
+
+                // add the ones, the carry goes to the twos
+                long ones = aboveOnes ^ sideOnes ^ belowOnes;
+                long onesCarry = (aboveOnes & sideOnes) | (belowOnes & (aboveOnes ^ sideOnes));
+
+                // the count is 2 or 3 exactly when one of the four twos is set
+                long twosParity = aboveTwos ^ sideTwos ^ belowTwos ^ onesCarry;
+                long twosPair = (aboveTwos & (sideTwos | belowTwos | onesCarry))
+                        | (sideTwos & (belowTwos | onesCarry))
+                        | (belowTwos & onesCarry);
+                long twoOrThree = twosParity & ~twosPair;
+
+                long next = twoOrThree & (ones | self);
+                if (w == lastWord) next &= lastMask;
+
+                out[middle + w] = next;
+                live += Long.bitCount(next);
+            }
+        }
+        return live;
+    }
+
+    /**
+     * @return the word offset of the neighbor row, or -1 when the row is outside of the finite board
+     */
+    private int neighborRowBase(int row, int rows, int stride) {
+        if (row >= 0 && row < rows) return row * stride;
+        if (!this.wrap) return -1;
+        return Math.floorMod(row, rows) * stride;
+    }
+
+    private static long word(long[] words, int base, int w) {
+        return base < 0 ? 0L : words[base + w];
+    }
+
+    /**
+     * @return the word where every bit holds the state of the cell on the left of it
+     */
+    private long west(long[] words, int base, int w, int lastWord, int lastBit) {
+        if (base < 0) return 0L;
+        long carry;
+        if (w > 0) {
+            carry = words[base + w - 1] >>> 63;
+        } else {
+            carry = this.wrap ? (words[base + lastWord] >>> lastBit) & 1L : 0L;
+        }
+        return (words[base + w] << 1) | carry;
+    }
+
+    /**
+     * @return the word where every bit holds the state of the cell on the right of it
+     */
+    private long east(long[] words, int base, int w, int lastWord, int lastBit) {
+        if (base < 0) return 0L;
+        long shifted = words[base + w] >>> 1;
+        if (w < lastWord) {
+            shifted |= words[base + w + 1] << 63;
+        } else if (this.wrap) {
+            shifted |= (words[base] & 1L) << lastBit;
+        }
+        return shifted;
+    }
+}
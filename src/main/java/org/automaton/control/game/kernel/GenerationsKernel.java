@@ -0,0 +1,122 @@
+package org.automaton.control.game.kernel;
+
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.grid.ByteGrid;
+import org.automaton.control.game.rule.GenerationsRule;
+
+/**
+ * The decay of the Generations rules on top of the binary step. The step kernel computes the next live cells from
+ * the live cells only, the same way as for the two-state rule, and this kernel then keeps the dying cells from being
+ * born, moves the live cells which did not survive to the first dying state and advances the dying cells by one state.
+ * Besides the bytes of the states it keeps the bit plane of the dying cells, so only the bytes of the cells which
+ * change are written and the words without any live or dying cell are skipped as a whole.
+ * The plane is built again by {@link #load} whenever the states were changed outside of the kernel.
+ * The instance keeps the plane, so one instance must not be used by several threads at once.
+ */
+public class GenerationsKernel {
+
+    private final int states;
+    /** the cells in the states from 2 up, in the layout of the live cells */
+    private BitGrid dying;
+
+    /**
+     * @param rule - the rule with the number of the states
+     */
+    public GenerationsKernel(GenerationsRule rule) {
+        this.states = rule.states();
+    }
+
+    /**
+     * Bring the states in line with the live cells after the edit: the live cells are in the state 1, the cells
+     * which are not live anymore are dead and the dying cells keep their state. The plane of the dying cells is built
+     * from the states.
+     * @param live - the live cells of the generation
+     * @param cells - the states of the generation, they are fixed in place
+     */
+    public void load(BitGrid live, ByteGrid cells) {
+        int rows = live.getRows();
+        int cols = live.getCols();
+        int stride = live.getStride();
+        if (this.dying == null || this.dying.getRows() != rows || this.dying.getCols() != cols) {
+            this.dying = new BitGrid(rows, cols);
+        }
+        long[] liveWords = live.getWords();
+        long[] dyingWords = this.dying.getWords();
+        byte[] states = cells.getCells();
+
+        for (int r = 0; r < rows; r++) {
+            for (int w = 0; w < stride; w++) {
+                long word = liveWords[r * stride + w];
+                long dyingWord = 0L;
+                int end = Math.min((w + 1) << 6, cols);
+                for (int c = w << 6; c < end; c++) {
+                    int index = r * cols + c;
+                    int state = states[index] & 0xFF;
+                    if (((word >>> c) & 1L) != 0) {
+                        states[index] = 1;
+                    } else if (state == 1 || state >= this.states) {
+                        states[index] = 0;
+                    } else if (state > 1) {
+                        dyingWord |= 1L << c;
+                    }
+                }
+                dyingWords[r * stride + w] = dyingWord;
+            }
+        }
+    }
+
+    /**
+     * Apply the decay to the generation computed by the binary step, {@link #load} must have been called
+     * for the previous generation
+     * @param previous - the live cells of the current generation
+     * @param next - the live cells computed by the step kernel, the cells which are still dying are removed from it
+     * @param cells - the states of the current generation, they are advanced to the next generation in place
+     * @return the number of the live cells of the next generation
+     */
+    public int decay(BitGrid previous, BitGrid next, ByteGrid cells) {
+        int rows = previous.getRows();
+        int cols = previous.getCols();
+        int stride = previous.getStride();
+        long[] before = previous.getWords();
+        long[] after = next.getWords();
+        long[] dyingWords = this.dying.getWords();
+        byte[] states = cells.getCells();
+
+        int live = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int w = 0; w < stride; w++) {
+                int i = r * stride + w;
+                long dyingWord = dyingWords[i];
+                long born = after[i] & ~dyingWord;
+                after[i] = born;
+                live += Long.bitCount(born);
+                long old = before[i];
+                if ((old | dyingWord | born) == 0) continue;
+
+                int base = r * cols + (w << 6);
+                long nextDying = 0L;
+                // the cells which were dead are born, the live ones which did not survive start to die
+                for (long changed = born & ~old; changed != 0; changed &= changed - 1) {
+                    states[base + Long.numberOfTrailingZeros(changed)] = 1;
+                }
+                long died = old & ~born;
+                if (this.states > 2) nextDying = died;
+                for (; died != 0; died &= died - 1) {
+                    states[base + Long.numberOfTrailingZeros(died)] = (byte) (2 % this.states);
+                }
+                for (; dyingWord != 0; dyingWord &= dyingWord - 1) {
+                    int bit = Long.numberOfTrailingZeros(dyingWord);
+                    int state = (states[base + bit] & 0xFF) + 1;
+                    if (state == this.states) {
+                        state = 0;
+                    } else {
+                        nextDying |= 1L << bit;
+                    }
+                    states[base + bit] = (byte) state;
+                }
+                dyingWords[i] = nextDying;
+            }
+        }
+        return live;
+    }
+}
@@ -0,0 +1,196 @@
+package org.automaton.control.game.kernel;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.neighborhood.LargeRadiusStrategy;
+import org.automaton.control.game.rule.TotalisticRule;
+
+import java.util.Arrays;
+
+/**
+ * The kernel of the Larger than Life neighborhoods, the square or the cross of the big radius.
+ * The neighbors are never fetched one by one: every row of the window gets its horizontal sums of 2R + 1 cells from
+ * the running prefix sum, and the sums are added down the columns in the window of 2R + 1 rows, which slides by one
+ * row adding the entering row and subtracting the leaving one. The square count is the column sum of the row sums,
+ * the cross count is the row sum plus the column sum of the single cells, so the cost per cell stays the same
+ * whatever the radius is. The rows of the window are kept in the ring buffer.
+ * The instance keeps the scratch state, so one instance must not be used by several threads at once.
+ */
+public class LargeRadiusKernel implements StepKernel {
+
+    private final int radius;
+    private final boolean cross;
+    private final boolean middle;
+    private final MapMode mapMode;
+    /** the next state indexed by (count << 1) | state */
+    private final byte[] transitions;
+
+    /** lookup of (coordinate + radius) to the real coordinate, -1 when outside of the finite board */
+    private int[] rowMap = new int[0];
+    private int[] colMap = new int[0];
+    private int compiledRows = -1;
+    private int compiledCols = -1;
+
+    /** the rows of the window, the row sums for the square or the single cells for the cross */
+    private int[][] ring = new int[0][];
+    /** the sums of the ring rows down every column */
+    private int[] columnSums = new int[0];
+    /** the row sums of the computed row for the cross */
+    private int[] rowSums = new int[0];
+    private int[] prefix = new int[0];
+
+    /**
+     * @param strategy - the neighborhood of the Larger than Life rule
+     * @param rule - the rule applied to the neighbor counts
+     * @param mapMode - the edge mode of the board
+     */
+    public LargeRadiusKernel(LargeRadiusStrategy strategy, TotalisticRule rule, MapMode mapMode) {
+        this.radius = strategy.getRadius();
+        this.cross = strategy.isCross();
+        this.middle = strategy.isMiddle();
+        this.mapMode = mapMode;
+        this.transitions = rule.transitionTable(strategy.getSize());
+    }
+
+    @Override
+    public int step(BitGrid source, BitGrid target, int rowFrom, int rowTo, int wordFrom, int wordTo) {
+        if (source.getRows() != target.getRows() || source.getCols() != target.getCols()) {
+            throw new IllegalArgumentException("Source and target grids must have the same size");
+        }
+        compile(source.getRows(), source.getCols());
+
+        int cols = source.getCols();
+        int colFrom = wordFrom << 6;
+        int width = Math.min(wordTo << 6, cols) - colFrom;
+        if (width <= 0 || rowFrom >= rowTo) return 0;
+        allocate(width);
+
+        long[] in = source.getWords();
+        long[] out = target.getWords();
+        int stride = source.getStride();
+        int window = 2 * this.radius + 1;
+
+        // the window of the first row
+        Arrays.fill(this.columnSums, 0, width, 0);
+        for (int k = -this.radius; k <= this.radius; k++) {
+            int[] slot = this.ring[Math.floorMod(rowFrom + k, window)];
+            fillRow(in, stride, rowFrom + k, colFrom, width, slot);
+            for (int i = 0; i < width; i++) this.columnSums[i] += slot[i];
+        }
+
+        int live = 0;
+        for (int r = rowFrom; r < rowTo; r++) {
+            if (r > rowFrom) {
+                // the row r - 1 - R leaves the window and the row r + R takes its place in the ring
+                int[] slot = this.ring[Math.floorMod(r + this.radius, window)];
+                for (int i = 0; i < width; i++) this.columnSums[i] -= slot[i];
+                fillRow(in, stride, r + this.radius, colFrom, width, slot);
+                for (int i = 0; i < width; i++) this.columnSums[i] += slot[i];
+            }
+            if (this.cross) rowSums(in, stride, r, colFrom, width, this.rowSums);
+
+            int rowBase = r * stride;
+            for (int w = wordFrom; w < wordTo; w++) {
+                long self = in[rowBase + w];
+                long next = 0L;
+                int end = Math.min((w + 1) << 6, cols);
+                for (int c = w << 6; c < end; c++) {
+                    int state = (int) (self >>> c) & 1;
+                    int i = c - colFrom;
+                    // the sums hold the cell itself once for the square and twice for the cross
+                    int count = this.cross
+                            ? this.rowSums[i] + this.columnSums[i] - 2 * state
+                            : this.columnSums[i] - state;
+                    if (this.middle) count += state;
+                    next |= (long) this.transitions[(count << 1) | state] << c;
+                }
+                out[rowBase + w] = next;
+                live += Long.bitCount(next);
+            }
+        }
+        return live;
+    }
+
+    /**
+     * Fill the ring row of the given row of the window, the row sums for the square or the cells for the cross
+     */
+    private void fillRow(long[] in, int stride, int row, int colFrom, int width, int[] slot) {
+        if (this.cross) {
+            int mapped = this.rowMap[row + this.radius];
+            if (mapped < 0) {
+                Arrays.fill(slot, 0, width, 0);
+                return;
+            }
+            int base = mapped * stride;
+            for (int i = 0; i < width; i++) {
+                int col = colFrom + i;
+                slot[i] = (int) (in[base + (col >>> 6)] >>> col) & 1;
+            }
+        } else {
+            rowSums(in, stride, row, colFrom, width, slot);
+        }
+    }
+
+    /**
+     * The sums of the 2R + 1 cells of the row around every column, taken from the prefix sum over the row
+     * widened by the radius on both sides
+     */
+    private void rowSums(long[] in, int stride, int row, int colFrom, int width, int[] sums) {
+        int mapped = this.rowMap[row + this.radius];
+        if (mapped < 0) {
+            Arrays.fill(sums, 0, width, 0);
+            return;
+        }
+        int base = mapped * stride;
+        int span = width + 2 * this.radius;
+        int running = 0;
+        for (int i = 0; i < span; i++) {
+            // the coordinate colFrom - R + i has the index colFrom + i in the map
+            int col = this.colMap[colFrom + i];
+            if (col >= 0) running += (int) (in[base + (col >>> 6)] >>> col) & 1;
+            this.prefix[i + 1] = running;
+        }
+        int side = 2 * this.radius + 1;
+        for (int i = 0; i < width; i++) {
+            sums[i] = this.prefix[i + side] - this.prefix[i];
+        }
+    }
+
+    /**
+     * Grow the scratch arrays for the width of the computed columns
+     */
+    private void allocate(int width) {
+        int window = 2 * this.radius + 1;
+        if (this.ring.length == window && this.columnSums.length >= width) return;
+
+        this.ring = new int[window][width];
+        this.columnSums = new int[width];
+        this.rowSums = new int[width];
+        this.prefix = new int[width + 2 * this.radius + 1];
+    }
+
+    /**
+     * Build the lookup tables of the edges, only when the board shape has changed since the last step
+     */
+    private void compile(int rows, int cols) {
+        if (rows == this.compiledRows && cols == this.compiledCols) return;
+
+        this.rowMap = buildCoordinateMap(rows);
+        this.colMap = buildCoordinateMap(cols);
+        this.compiledRows = rows;
+        this.compiledCols = cols;
+    }
+
+    private int[] buildCoordinateMap(int size) {
+        int[] map = new int[size + 2 * this.radius];
+        for (int i = 0; i < map.length; i++) {
+            int coordinate = i - this.radius;
+            if (coordinate >= 0 && coordinate < size) {
+                map[i] = coordinate;
+            } else {
+                map[i] = this.mapMode != MapMode.INFINITE ? -1 : Math.floorMod(coordinate, size);
+            }
+        }
+        return map;
+    }
+}
@@ -0,0 +1,102 @@
+package org.automaton.control.game.kernel;
+
+import lombok.Getter;
+import org.automaton.control.game.grid.BitGrid;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * The kernel which splits the board into the horizontal bands of rows and computes them on the own ForkJoinPool.
+ * Every band reads the previous generation and writes only its rows of the next one, as the rows are word aligned
+ * the bands never share a word, so the result is the same as the sequential step. The live count is summed from the bands.
+ */
+public class ParallelStepper implements StepKernel, AutoCloseable {
+
+    /** smaller bands are not worth the task overhead */
+    private static final int MIN_CELLS_PER_BAND = 16_384;
+    /** more bands than workers, so the faster workers can steal the rest */
+    private static final int BANDS_PER_WORKER = 4;
+
+    @Getter private final int parallelism;
+    private final ForkJoinPool pool;
+    /** the kernel per band, as the kernels keep the scratch state */
+    private final StepKernel[] bandKernels;
+
+    /**
+     * @param kernelFactory - the supplier of the sequential kernel, called once per band
+     * @param parallelism - the number of the worker threads
+     */
+    public ParallelStepper(Supplier<StepKernel> kernelFactory, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, got " + parallelism);
+        }
+        this.parallelism = parallelism;
+        this.pool = new ForkJoinPool(parallelism);
+        this.bandKernels = new StepKernel[parallelism * BANDS_PER_WORKER];
+        for (int i = 0; i < this.bandKernels.length; i++) {
+            this.bandKernels[i] = kernelFactory.get();
+        }
+    }
+
+    @Override
+    public int step(BitGrid source, BitGrid target, int rowFrom, int rowTo, int wordFrom, int wordTo) {
+        int rows = rowTo - rowFrom;
+        long cells = (long) rows * (wordTo - wordFrom) * 64;
+        int bands = (int) Math.max(1, Math.min(Math.min(this.bandKernels.length, rows), cells / MIN_CELLS_PER_BAND));
+
+        if (bands == 1) {
+            return this.bandKernels[0].step(source, target, rowFrom, rowTo, wordFrom, wordTo);
+        }
+        return this.pool.invoke(new BandTask(source, target, rowFrom, rows, wordFrom, wordTo, bands, 0, bands));
+    }
+
+    @Override
+    public void close() {
+        this.pool.shutdown();
+    }
+
+    /**
+     * The task over the range of the bands, it splits itself in half until one band is left
+     */
+    private class BandTask extends RecursiveTask<Integer> {
+        private final BitGrid source;
+        private final BitGrid target;
+        private final int firstRow;
+        private final int rows;
+        private final int wordFrom;
+        private final int wordTo;
+        private final int bands;
+        private final int bandFrom;
+        private final int bandTo;
+
+        BandTask(BitGrid source, BitGrid target, int firstRow, int rows, int wordFrom, int wordTo, int bands, int bandFrom, int bandTo) {
+            this.source = source;
+            this.target = target;
+            this.firstRow = firstRow;
+            this.rows = rows;
+            this.wordFrom = wordFrom;
+            this.wordTo = wordTo;
+            this.bands = bands;
+            this.bandFrom = bandFrom;
+            this.bandTo = bandTo;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (this.bandTo - this.bandFrom == 1) {
+                int rowFrom = this.firstRow + (int) ((long) this.rows * this.bandFrom / this.bands);
+                int rowTo = this.firstRow + (int) ((long) this.rows * this.bandTo / this.bands);
+                return bandKernels[this.bandFrom].step(this.source, this.target, rowFrom, rowTo, this.wordFrom, this.wordTo);
+            }
+
+            int middle = (this.bandFrom + this.bandTo) >>> 1;
+            BandTask left = new BandTask(this.source, this.target, this.firstRow, this.rows, this.wordFrom, this.wordTo, this.bands, this.bandFrom, middle);
+            BandTask right = new BandTask(this.source, this.target, this.firstRow, this.rows, this.wordFrom, this.wordTo, this.bands, middle, this.bandTo);
+            left.fork();
+            int rightLive = right.compute();
+            return left.join() + rightLive;
+        }
+    }
+}
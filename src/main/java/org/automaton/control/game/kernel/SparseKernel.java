@@ -0,0 +1,86 @@
+package org.automaton.control.game.kernel;
+
+import lombok.Getter;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.grid.SparseGrid;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The stepping of the unbounded sparse grid. Only the populated chunks and the chunks around them are computed,
+ * so the cost follows the population. Every chunk is computed by the ordinary word kernel on the window of the
+ * 3x3 chunks around it, so all the rules the kernels support work on the unbounded plane as well.
+ * The kernel must be built for the finite map, the window has the dead border, which is never read for the
+ * middle chunk while the radius is below the chunk size.
+ */
+public class SparseKernel {
+
+    private static final int SIZE = SparseGrid.CHUNK_SIZE;
+    private static final int WINDOW_STRIDE = 3;
+
+    private final StepKernel kernel;
+    private final BitGrid window = new BitGrid(3 * SIZE, 3 * SIZE);
+    private final BitGrid next = new BitGrid(3 * SIZE, 3 * SIZE);
+    private final long[] chunkWords = new long[SIZE];
+    private final Set<Long> candidates = new HashSet<>();
+
+    /** the number of the chunks computed in the last step */
+    @Getter private int computedChunks;
+
+    /**
+     * @param kernel - the kernel of the rule for the finite map
+     * @param radius - the radius of the neighborhood
+     */
+    public SparseKernel(StepKernel kernel, int radius) {
+        if (radius >= SIZE) {
+            throw new IllegalArgumentException("The neighborhood radius must be below the chunk size " + SIZE);
+        }
+        this.kernel = kernel;
+    }
+
+    /**
+     * Compute the next generation of the plane
+     * @param source - the current generation, it is only read
+     * @param target - the grid for the next generation, its old content is dropped
+     * @return the number of the live cells in the next generation
+     */
+    public int step(SparseGrid source, SparseGrid target) {
+        target.clear();
+        this.candidates.clear();
+        for (long key : source.chunkKeys()) {
+            int chunkRow = SparseGrid.keyRow(key);
+            int chunkCol = SparseGrid.keyCol(key);
+            for (int dr = -1; dr <= 1; dr++) {
+                for (int dc = -1; dc <= 1; dc++) {
+                    this.candidates.add(SparseGrid.key(chunkRow + dr, chunkCol + dc));
+                }
+            }
+        }
+
+        long[] in = this.window.getWords();
+        long[] out = this.next.getWords();
+        int live = 0;
+        for (long key : this.candidates) {
+            int chunkRow = SparseGrid.keyRow(key);
+            int chunkCol = SparseGrid.keyCol(key);
+            for (int dr = 0; dr < 3; dr++) {
+                for (int dc = 0; dc < 3; dc++) {
+                    long[] chunk = source.getChunk(SparseGrid.key(chunkRow + dr - 1, chunkCol + dc - 1));
+                    int base = dr * SIZE * WINDOW_STRIDE + dc;
+                    for (int r = 0; r < SIZE; r++) {
+                        in[base + r * WINDOW_STRIDE] = chunk == null ? 0L : chunk[r];
+                    }
+                }
+            }
+
+            live += this.kernel.step(this.window, this.next, SIZE, 2 * SIZE, 1, 2);
+            for (int r = 0; r < SIZE; r++) {
+                this.chunkWords[r] = out[(SIZE + r) * WINDOW_STRIDE + 1];
+            }
+            target.putChunk(key, this.chunkWords);
+        }
+        this.computedChunks = this.candidates.size();
+        return live;
+    }
+}
@@ -0,0 +1,125 @@
+package org.automaton.control.game.kernel;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.neighborhood.NeighborhoodStencil;
+import org.automaton.control.game.neighborhood.NeighborhoodStrategy;
+import org.automaton.control.game.rule.TotalisticRule;
+
+/**
+ * Generic scalar kernel which works for any neighborhood and any B/S rule. The neighbor offsets are taken from the
+ * compiled stencil, the rule from its transition table, the edge handling is folded into the row and column lookup
+ * tables built once per board shape, so the step itself does not allocate anything on the heap.
+ * The instance keeps the scratch state, so one instance must not be used by several threads at once.
+ */
+public class StencilKernel implements StepKernel {
+
+    private final int[] dx;
+    private final int[] dy;
+    private final int radius;
+    /** the next state indexed by (count << 1) | state */
+    private final byte[] transitions;
+    private final MapMode mapMode;
+
+    /** the word offset of every neighbor row for the row which is computed now, -1 when the row is outside */
+    private final int[] rowPointers;
+
+    /** lookup of (coordinate + radius) to the real coordinate, -1 when outside of the finite board */
+    private int[] rowMap = new int[0];
+    private int[] colMap = new int[0];
+    private int compiledRows = -1;
+    private int compiledCols = -1;
+
+    public StencilKernel(NeighborhoodStrategy strategy, MapMode mapMode) {
+        this(strategy, strategy.getDefaultRule(), mapMode);
+    }
+
+    /**
+     * @param strategy - the neighborhood
+     * @param rule - the rule applied to the neighbor counts
+     * @param mapMode - the edge mode of the board
+     */
+    public StencilKernel(NeighborhoodStrategy strategy, TotalisticRule rule, MapMode mapMode) {
+        NeighborhoodStencil stencil = strategy.getStencil();
+        this.dx = stencil.dx();
+        this.dy = stencil.dy();
+        this.radius = stencil.radius();
+        this.transitions = rule.transitionTable(stencil.size());
+        this.mapMode = mapMode;
+        this.rowPointers = new int[stencil.size()];
+    }
+
+    @Override
+    public int step(BitGrid source, BitGrid target, int rowFrom, int rowTo, int wordFrom, int wordTo) {
+        if (source.getRows() != target.getRows() || source.getCols() != target.getCols()) {
+            throw new IllegalArgumentException("Source and target grids must have the same size");
+        }
+        compile(source.getRows(), source.getCols());
+
+        long[] in = source.getWords();
+        long[] out = target.getWords();
+        int stride = source.getStride();
+        int cols = source.getCols();
+        int neighbors = this.dx.length;
+
+        int live = 0;
+        for (int r = rowFrom; r < rowTo; r++) {
+            for (int k = 0; k < neighbors; k++) {
+                int mapped = this.rowMap[r + this.dx[k] + this.radius];
+                this.rowPointers[k] = mapped < 0 ? -1 : mapped * stride;
+            }
+
+            int rowBase = r * stride;
+            for (int w = wordFrom; w < wordTo; w++) {
+                long self = in[rowBase + w];
+                long next = 0L;
+                int end = Math.min((w + 1) << 6, cols);
+
+                for (int c = w << 6; c < end; c++) {
+                    int lifeCount = 0;
+                    for (int k = 0; k < neighbors; k++) {
+                        int rowPointer = this.rowPointers[k];
+                        int col = this.colMap[c + this.dy[k] + this.radius];
+                        if (rowPointer >= 0 && col >= 0) {
+                            lifeCount += (int) (in[rowPointer + (col >>> 6)] >>> col) & 1;
+                        }
+                    }
+
+                    int state = (int) (self >>> c) & 1;
+                    next |= (long) this.transitions[(lifeCount << 1) | state] << c;
+                }
+
+                out[rowBase + w] = next;
+                live += Long.bitCount(next);
+            }
+        }
+        return live;
+    }
+
+    /**
+     * Build the lookup tables of the edges, only when the board shape has changed since the last step
+     * @param rows - the number of the rows of the board
+     * @param cols - the number of the columns of the board
+     */
+    private void compile(int rows, int cols) {
+        if (rows == this.compiledRows && cols == this.compiledCols) return;
+
+        this.rowMap = buildCoordinateMap(rows);
+        this.colMap = buildCoordinateMap(cols);
+        this.compiledRows = rows;
+        this.compiledCols = cols;
+    }
+
+    private int[] buildCoordinateMap(int size) {
+        int[] map = new int[size + 2 * this.radius];
+        for (int i = 0; i < map.length; i++) {
+            int coordinate = i - this.radius;
+            if (coordinate >= 0 && coordinate < size) {
+                map[i] = coordinate;
+            } else {
+                map[i] = this.mapMode != MapMode.INFINITE ? -1 : Math.floorMod(coordinate, size);
+            }
+        }
+        return map;
+    }
+}
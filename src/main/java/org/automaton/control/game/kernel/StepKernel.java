@@ -0,0 +1,45 @@
+package org.automaton.control.game.kernel;
+
+import org.automaton.control.game.grid.BitGrid;
+
+/**
+ * Interface for the implementations of one generation step over the bit-packed board
+ */
+public interface StepKernel {
+
+    /**
+     * Function to compute the next generation for the rectangle of the board, the columns are given in the whole words.
+     * The rectangle only writes its own words of the target, so the different rectangles can be computed at the same time.
+     * @param source - the current generation, it is only read
+     * @param target - the grid of the same size for the next generation, every word of the rectangle is overwritten
+     * @param rowFrom - the first row of the rectangle, inclusive
+     * @param rowTo - the last row of the rectangle, exclusive
+     * @param wordFrom - the first word of every row, inclusive
+     * @param wordTo - the last word of every row, exclusive
+     * @return the number of the live cells in the rectangle of the next generation
+     */
+    int step(BitGrid source, BitGrid target, int rowFrom, int rowTo, int wordFrom, int wordTo);
+
+    /**
+     * Function to compute the next generation for the horizontal band of the board.
+     * The band only writes its own rows of the target, so the different bands can be computed at the same time.
+     * @param source - the current generation, it is only read
+     * @param target - the grid of the same size for the next generation, every word of the band rows is overwritten
+     * @param rowFrom - the first row of the band, inclusive
+     * @param rowTo - the last row of the band, exclusive
+     * @return the number of the live cells in the band of the next generation
+     */
+    default int step(BitGrid source, BitGrid target, int rowFrom, int rowTo) {
+        return step(source, target, rowFrom, rowTo, 0, source.getStride());
+    }
+
+    /**
+     * Function to compute the next generation of the whole board
+     * @param source - the current generation, it is only read
+     * @param target - the grid of the same size for the next generation, every word of it is overwritten
+     * @return the number of the live cells in the next generation
+     */
+    default int step(BitGrid source, BitGrid target) {
+        return step(source, target, 0, source.getRows());
+    }
+}
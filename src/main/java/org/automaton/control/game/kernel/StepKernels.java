@@ -0,0 +1,46 @@
+package org.automaton.control.game.kernel;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.game.neighborhood.LargeRadiusStrategy;
+import org.automaton.control.game.neighborhood.NeighborhoodStrategy;
+import org.automaton.control.game.rule.TotalisticRule;
+
+/**
+ * The place where the fastest sequential kernel for the selected configuration is chosen
+ */
+public class StepKernels {
+
+    /** the SIMD kernel is only loaded when the JVM was started with --add-modules jdk.incubator.vector */
+    private static final boolean VECTOR_API_PRESENT = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private StepKernels() {}
+
+    /**
+     * @return true when the Vector API module is present and the SIMD kernel can be used
+     */
+    public static boolean isVectorApiPresent() {
+        return VECTOR_API_PRESENT;
+    }
+
+    /**
+     * Function to make the kernel for the neighborhood, the rule and the map mode
+     * @param strategy - the selected neighborhood strategy
+     * @param rule - the selected rule
+     * @param mapMode - the edge mode of the board
+     * @return the word-parallel kernel when the rule allows it (it beats the generic SIMD counting),
+     * the SIMD kernel when the Vector API is present and the neighborhood is small, the sliding window kernel
+     * for the Larger than Life neighborhoods, otherwise the generic stencil kernel
+     */
+    public static StepKernel create(NeighborhoodStrategy strategy, TotalisticRule rule, MapMode mapMode) {
+        if (BitwiseLifeKernel.supports(strategy, rule)) {
+            return new BitwiseLifeKernel(mapMode);
+        }
+        if (VECTOR_API_PRESENT && VectorStencilKernel.supports(strategy)) {
+            return new VectorStencilKernel(strategy, rule, mapMode);
+        }
+        if (strategy instanceof LargeRadiusStrategy largeRadius) {
+            return new LargeRadiusKernel(largeRadius, rule, mapMode);
+        }
+        return new StencilKernel(strategy, rule, mapMode);
+    }
+}
@@ -0,0 +1,277 @@
+package org.automaton.control.game.kernel;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.neighborhood.NeighborhoodStencil;
+import org.automaton.control.game.neighborhood.NeighborhoodStrategy;
+import org.automaton.control.game.rule.TotalisticRule;
+
+import java.util.stream.IntStream;
+
+/**
+ * SIMD kernel on the JDK Vector API for the small neighborhoods (Moore and both Von Neumann variants).
+ * Every neighbor is a shifted bitboard word, the neighbors are summed into four bit planes by the bit-sliced adders,
+ * so one vector lane computes 64 cells and the whole vector several words at once. The birth and survive thresholds
+ * are applied as the equality masks over the planes, there is no branch per cell.
+ * The inner words of the row go through the vector lanes, the edge words which need the wraparound or the dead
+ * border are computed with the same logic on the plain longs.
+ * The class needs the jdk.incubator.vector module, use StepKernels to get it only when the module is present.
+ */
+public class VectorStencilKernel implements StepKernel {
+
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    /** four bit planes hold the counts up to 15 */
+    private static final int MAX_NEIGHBORS = 15;
+
+    private final int[] dx;
+    private final int[] dy;
+    private final int radius;
+    private final MapMode mapMode;
+    /** the neighbor counts which make the dead cell alive */
+    private final int[] birthCounts;
+    /** the neighbor counts which keep the live cell alive */
+    private final int[] surviveCounts;
+
+    /** the word offset of every neighbor row for the row which is computed now, -1 when the row is outside */
+    private final int[] rowPointers;
+    /** lookup of (column + radius) to the real column, -1 when outside of the finite board */
+    private int[] colMap = new int[0];
+    private int[] rowMap = new int[0];
+    private int compiledRows = -1;
+    private int compiledCols = -1;
+
+    public VectorStencilKernel(NeighborhoodStrategy strategy, MapMode mapMode) {
+        this(strategy, strategy.getDefaultRule(), mapMode);
+    }
+
+    /**
+     * @param strategy - the neighborhood, it must be supported
+     * @param rule - the rule applied to the neighbor counts
+     * @param mapMode - the edge mode of the board
+     */
+    public VectorStencilKernel(NeighborhoodStrategy strategy, TotalisticRule rule, MapMode mapMode) {
+        if (!supports(strategy)) {
+            throw new IllegalArgumentException("The neighborhood is too big for the vector kernel");
+        }
+        NeighborhoodStencil stencil = strategy.getStencil();
+        this.dx = stencil.dx();
+        this.dy = stencil.dy();
+        this.radius = stencil.radius();
+        this.mapMode = mapMode;
+        this.birthCounts = IntStream.rangeClosed(0, stencil.size()).filter(count -> rule.next(0, count) == 1).toArray();
+        this.surviveCounts = IntStream.rangeClosed(0, stencil.size()).filter(count -> rule.next(1, count) == 1).toArray();
+        this.rowPointers = new int[stencil.size()];
+    }
+
+    /**
+     * @param strategy - the selected neighborhood strategy
+     * @return true when the neighbor count fits the bit planes and the offsets fit into one word shift
+     */
+    public static boolean supports(NeighborhoodStrategy strategy) {
+        return strategy.getSize() <= MAX_NEIGHBORS && strategy.getRadius() < 64;
+    }
+
+    @Override
+    public int step(BitGrid source, BitGrid target, int rowFrom, int rowTo, int wordFrom, int wordTo) {
+        if (source.getRows() != target.getRows() || source.getCols() != target.getCols()) {
+            throw new IllegalArgumentException("Source and target grids must have the same size");
+        }
+        compile(source.getRows(), source.getCols());
+
+        long[] in = source.getWords();
+        long[] out = target.getWords();
+        int stride = source.getStride();
+        int cols = source.getCols();
+        int lanes = SPECIES.length();
+
+        // the words which never read across the board edge, the first word reads the word on its left
+        int vectorFrom = Math.max(1, wordFrom);
+        int vectorTo = Math.max(vectorFrom, Math.min(wordTo, (cols - this.radius) / 64));
+
+        int live = 0;
+        for (int r = rowFrom; r < rowTo; r++) {
+            for (int k = 0; k < this.dx.length; k++) {
+                int mapped = this.rowMap[r + this.dx[k] + this.radius];
+                this.rowPointers[k] = mapped < 0 ? -1 : mapped * stride;
+            }
+            int rowBase = r * stride;
+
+            int w = wordFrom;
+            while (w < vectorFrom && w < wordTo) {
+                live += scalarWord(in, out, rowBase, w, stride, cols);
+                w++;
+            }
+            for (; w + lanes <= vectorTo; w += lanes) {
+                live += vectorWords(in, out, rowBase, w);
+            }
+            for (; w < wordTo; w++) {
+                live += scalarWord(in, out, rowBase, w, stride, cols);
+            }
+        }
+        return live;
+    }
+
+    /**
+     * Compute the lanes of the words starting from w, all neighbor words are inside the row
+     * @return the number of the live cells in the computed words
+     */
+    private int vectorWords(long[] in, long[] out, int rowBase, int w) {
+        LongVector plane0 = LongVector.zero(SPECIES);
+        LongVector plane1 = plane0;
+        LongVector plane2 = plane0;
+        LongVector plane3 = plane0;
+
+        for (int k = 0; k < this.dx.length; k++) {
+            int base = this.rowPointers[k];
+            if (base < 0) continue;
+
+            int shift = this.dy[k];
+            LongVector x = LongVector.fromArray(SPECIES, in, base + w);
+            if (shift > 0) {
+                x = x.lanewise(VectorOperators.LSHR, shift)
+                        .or(LongVector.fromArray(SPECIES, in, base + w + 1).lanewise(VectorOperators.LSHL, 64 - shift));
+            } else if (shift < 0) {
+                x = x.lanewise(VectorOperators.LSHL, -shift)
+                        .or(LongVector.fromArray(SPECIES, in, base + w - 1).lanewise(VectorOperators.LSHR, 64 + shift));
+            }
+
+            // ripple the bit through the planes
+            LongVector carry = plane0.and(x);
+            plane0 = plane0.lanewise(VectorOperators.XOR, x);
+            LongVector nextCarry = plane1.and(carry);
+            plane1 = plane1.lanewise(VectorOperators.XOR, carry);
+            carry = plane2.and(nextCarry);
+            plane2 = plane2.lanewise(VectorOperators.XOR, nextCarry);
+            plane3 = plane3.lanewise(VectorOperators.XOR, carry);
+        }
+
+        LongVector self = LongVector.fromArray(SPECIES, in, rowBase + w);
+        LongVector born = LongVector.zero(SPECIES);
+        for (int count : this.birthCounts) {
+            born = born.or(equalsMask(plane0, plane1, plane2, plane3, count));
+        }
+        LongVector survived = LongVector.zero(SPECIES);
+        for (int count : this.surviveCounts) {
+            survived = survived.or(equalsMask(plane0, plane1, plane2, plane3, count));
+        }
+
+        LongVector next = self.not().and(born).or(self.and(survived));
+        next.intoArray(out, rowBase + w);
+
+        int live = 0;
+        for (int lane = 0; lane < SPECIES.length(); lane++) {
+            live += Long.bitCount(next.lane(lane));
+        }
+        return live;
+    }
+
+    private static LongVector equalsMask(LongVector plane0, LongVector plane1, LongVector plane2, LongVector plane3, int count) {
+        LongVector mask = (count & 1) != 0 ? plane0 : plane0.not();
+        mask = mask.and((count & 2) != 0 ? plane1 : plane1.not());
+        mask = mask.and((count & 4) != 0 ? plane2 : plane2.not());
+        return mask.and((count & 8) != 0 ? plane3 : plane3.not());
+    }
+
+    /**
+     * Compute one word on the plain longs, it may read across the edge of the board
+     * @return the number of the live cells in the word
+     */
+    private int scalarWord(long[] in, long[] out, int rowBase, int w, int stride, int cols) {
+        long plane0 = 0L, plane1 = 0L, plane2 = 0L, plane3 = 0L;
+
+        for (int k = 0; k < this.dx.length; k++) {
+            int base = this.rowPointers[k];
+            if (base < 0) continue;
+
+            long x = shiftedWord(in, base, w, this.dy[k], stride, cols);
+
+            long carry = plane0 & x;
+            plane0 ^= x;
+            long nextCarry = plane1 & carry;
+            plane1 ^= carry;
+            carry = plane2 & nextCarry;
+            plane2 ^= nextCarry;
+            plane3 ^= carry;
+        }
+
+        long self = in[rowBase + w];
+        long born = 0L;
+        for (int count : this.birthCounts) {
+            born |= equalsMask(plane0, plane1, plane2, plane3, count);
+        }
+        long survived = 0L;
+        for (int count : this.surviveCounts) {
+            survived |= equalsMask(plane0, plane1, plane2, plane3, count);
+        }
+
+        long next = (~self & born) | (self & survived);
+        if (w == stride - 1) {
+            int tail = cols & 63;
+            if (tail != 0) next &= (1L << tail) - 1;
+        }
+        out[rowBase + w] = next;
+        return Long.bitCount(next);
+    }
+
+    private static long equalsMask(long plane0, long plane1, long plane2, long plane3, int count) {
+        return ((count & 1) != 0 ? plane0 : ~plane0)
+                & ((count & 2) != 0 ? plane1 : ~plane1)
+                & ((count & 4) != 0 ? plane2 : ~plane2)
+                & ((count & 8) != 0 ? plane3 : ~plane3);
+    }
+
+    /**
+     * @return the word where every bit holds the state of the cell shifted by the column offset
+     */
+    private long shiftedWord(long[] in, int base, int w, int shift, int stride, int cols) {
+        int firstCol = w << 6;
+        int validBits = Math.min(64, cols - firstCol);
+
+        if (shift == 0) {
+            return in[base + w];
+        }
+        if (shift < 0 && w > 0) {
+            return (in[base + w] << -shift) | (in[base + w - 1] >>> (64 + shift));
+        }
+        if (shift > 0 && firstCol + validBits - 1 + shift < cols) {
+            long next = w + 1 < stride ? in[base + w + 1] << (64 - shift) : 0L;
+            return (in[base + w] >>> shift) | next;
+        }
+
+        // the window crosses the edge of the board, take the bits one by one through the lookup
+        long result = 0L;
+        for (int i = 0; i < validBits; i++) {
+            int col = this.colMap[firstCol + i + shift + this.radius];
+            if (col >= 0 && ((in[base + (col >>> 6)] >>> col) & 1L) != 0) {
+                result |= 1L << i;
+            }
+        }
+        return result;
+    }
+
+    private void compile(int rows, int cols) {
+        if (rows == this.compiledRows && cols == this.compiledCols) return;
+
+        this.rowMap = buildCoordinateMap(rows);
+        this.colMap = buildCoordinateMap(cols);
+        this.compiledRows = rows;
+        this.compiledCols = cols;
+    }
+
+    private int[] buildCoordinateMap(int size) {
+        int[] map = new int[size + 2 * this.radius];
+        for (int i = 0; i < map.length; i++) {
+            int coordinate = i - this.radius;
+            if (coordinate >= 0 && coordinate < size) {
+                map[i] = coordinate;
+            } else {
+                map[i] = this.mapMode != MapMode.INFINITE ? -1 : Math.floorMod(coordinate, size);
+            }
+        }
+        return map;
+    }
+}
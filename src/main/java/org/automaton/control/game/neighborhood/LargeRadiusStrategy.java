@@ -0,0 +1,60 @@
+package org.automaton.control.game.neighborhood;
+
+import lombok.Getter;
+import org.automaton.control.game.GridPoint;
+import org.automaton.control.game.rule.LargerThanLifeRule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The neighborhood of the Larger than Life rule, the square or the cross of the big radius, the cell itself is
+ * included when the rule counts it. Its default rule is the rule it was made for.
+ * The radius and the size come from the rule, the stencil of up to a million offsets is built only when
+ * the kernel asks for it, so the strategy made for the check of the rule costs nothing.
+ */
+public class LargeRadiusStrategy extends AbstractNeumannStrategy {
+    @Getter private final LargerThanLifeRule defaultRule;
+    private NeighborhoodStencil stencil;
+
+    /**
+     * @param rule - the rule which defines the neighborhood
+     */
+    public LargeRadiusStrategy(LargerThanLifeRule rule) {
+        this.defaultRule = rule;
+    }
+
+    @Override
+    public synchronized NeighborhoodStencil getStencil() {
+        if (this.stencil == null) this.stencil = NeighborhoodStencil.of(this.pointsNeighborhoods(0, 0));
+        return this.stencil;
+    }
+
+    @Override
+    public int getRadius() { return this.defaultRule.radius(); }
+
+    @Override
+    public int getSize() { return this.defaultRule.neighbors(); }
+
+    public boolean isCross() { return this.defaultRule.cross(); }
+    public boolean isMiddle() { return this.defaultRule.middle(); }
+
+    @Override
+    public List<GridPoint> pointsNeighborhoods(int x, int y) {
+        int radius = this.defaultRule.radius();
+        List<GridPoint> neighbors;
+        if (this.defaultRule.cross()) {
+            neighbors = this.pointsVonNeumannGeneral(x, y, radius);
+        } else {
+            neighbors = new ArrayList<>();
+            for (int dx = -radius; dx <= radius; dx++) {
+                for (int dy = -radius; dy <= radius; dy++) {
+                    if (dx == 0 && dy == 0) continue;
+                    neighbors.add(new GridPoint(x + dx, y + dy));
+                }
+            }
+        }
+        if (this.defaultRule.middle()) neighbors.add(new GridPoint(x, y));
+        return neighbors;
+    }
+}
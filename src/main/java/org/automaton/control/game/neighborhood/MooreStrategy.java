@@ -2,6 +2,7 @@ package org.automaton.control.game.neighborhood;
 
 import lombok.Getter;
 import org.automaton.control.game.GridPoint;
+import org.automaton.control.game.rule.LifeRule;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -14,6 +15,8 @@ public class MooreStrategy implements NeighborhoodStrategy {
     private final int surviveMin = 2;
     private final int surviveMax = 3;
     private final int birthValue = 3;
+    private final NeighborhoodStencil stencil = NeighborhoodStencil.of(this.pointsNeighborhoods(0, 0));
+    private final LifeRule defaultRule = LifeRule.of(this.birthValue, this.surviveMin, this.surviveMax);
 
     @Override
     public List<GridPoint> pointsNeighborhoods(int x, int y){
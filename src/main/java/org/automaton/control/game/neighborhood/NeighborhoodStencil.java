@@ -0,0 +1,34 @@
+package org.automaton.control.game.neighborhood;
+
+import org.automaton.control.game.GridPoint;
+
+import java.util.List;
+
+/**
+ * The compiled form of the neighborhood: the relative offsets of every neighbor as primitive arrays,
+ * so the stepping kernel can walk them without creating the point objects for each cell.
+ * @param dx - the row offsets of the neighbors
+ * @param dy - the column offsets of the neighbors, same order as dx
+ * @param radius - the biggest absolute offset in any direction
+ */
+public record NeighborhoodStencil(int[] dx, int[] dy, int radius) {
+
+    /**
+     * Function to compile the neighbors of the point (0, 0) into the stencil
+     * @param points - the neighbors of the origin point
+     * @return new NeighborhoodStencil record
+     */
+    public static NeighborhoodStencil of(List<GridPoint> points) {
+        int[] dx = new int[points.size()];
+        int[] dy = new int[points.size()];
+        int radius = 0;
+        for (int i = 0; i < points.size(); i++) {
+            dx[i] = points.get(i).x();
+            dy[i] = points.get(i).y();
+            radius = Math.max(radius, Math.max(Math.abs(dx[i]), Math.abs(dy[i])));
+        }
+        return new NeighborhoodStencil(dx, dy, radius);
+    }
+
+    public int size() { return this.dx.length; }
+}
@@ -1,6 +1,7 @@
 package org.automaton.control.game.neighborhood;
 
 import org.automaton.control.game.GridPoint;
+import org.automaton.control.game.rule.TotalisticRule;
 import java.util.List;
 
 /**
@@ -15,7 +16,23 @@ public interface NeighborhoodStrategy {
      */
     List<GridPoint> pointsNeighborhoods(int x, int y);
 
-    int getSurviveMin();
-    int getSurviveMax();
-    int getBirthValue();
+    /**
+     * @return the neighbor offsets compiled once for the allocation-free stepping
+     */
+    NeighborhoodStencil getStencil();
+
+    /**
+     * @return the biggest absolute offset of the neighbors
+     */
+    default int getRadius() { return this.getStencil().radius(); }
+
+    /**
+     * @return the number of the counted cells, the biggest possible count
+     */
+    default int getSize() { return this.getStencil().size(); }
+
+    /**
+     * @return the rule of the neighborhood, used when no other rule is selected
+     */
+    TotalisticRule getDefaultRule();
 }
@@ -2,6 +2,7 @@ package org.automaton.control.game.neighborhood;
 
 import lombok.Getter;
 import org.automaton.control.game.GridPoint;
+import org.automaton.control.game.rule.LifeRule;
 
 import java.util.List;
 
@@ -13,6 +14,8 @@ public class VonNeumannStrategy extends AbstractNeumannStrategy {
     private final int surviveMin = 1;
     private final int surviveMax = 2;
     private final int birthValue = 2;
+    private final NeighborhoodStencil stencil = NeighborhoodStencil.of(this.pointsNeighborhoods(0, 0));
+    private final LifeRule defaultRule = LifeRule.of(this.birthValue, this.surviveMin, this.surviveMax);
 
     @Override
     public List<GridPoint> pointsNeighborhoods(int x, int y) {
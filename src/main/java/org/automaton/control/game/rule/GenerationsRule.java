@@ -0,0 +1,86 @@
+package org.automaton.control.game.rule;
+
+import org.automaton.control.game.grid.ByteGrid;
+
+import java.util.Locale;
+
+/**
+ * The multi-state Generations rule, e.g. B2/S/C3 for Brian's Brain: the B/S rule decides the birth and the survival
+ * of the live cells, but the live cell which does not survive is not dead at once, it goes through the dying states
+ * 2, 3 ... C - 1 one per generation and then becomes dead. Only the live cells (state 1) are counted as the neighbors
+ * and the dying cells can not be born again until they are dead.
+ * The kernels step the live cells by the binary rule, the transition table is the one of the B/S part, and the decay
+ * of the dying cells is applied on top of it by the GenerationsKernel.
+ * @param life - the birth and the survival of the live cells
+ * @param states - the number of the states C, the dead and the live state included
+ */
+public record GenerationsRule(LifeRule life, int states) implements TotalisticRule {
+
+    public GenerationsRule {
+        if (states < 2 || states > ByteGrid.MAX_STATES) {
+            throw new IllegalArgumentException("The number of the states must be from 2 to " + ByteGrid.MAX_STATES);
+        }
+    }
+
+    /**
+     * Parse the rulestring, both "B2/S/C3" and the survive/birth/states form "/2/3" of the other tools are accepted
+     * @param rulestring - the rule with the number of the states as the last part
+     * @return new GenerationsRule record
+     * @throws IllegalArgumentException when the rulestring is malformed
+     */
+    public static GenerationsRule parse(String rulestring) {
+        String rule = rulestring.trim().toUpperCase(Locale.ROOT);
+        int slash = rule.lastIndexOf('/');
+        if (slash < 0) throw new IllegalArgumentException("Malformed rule: " + rulestring);
+
+        String states = rule.substring(slash + 1);
+        if (states.startsWith("C") || states.startsWith("G")) states = states.substring(1);
+        if (states.isEmpty() || !states.chars().allMatch(Character::isDigit)) {
+            throw new IllegalArgumentException("Malformed rule: " + rulestring);
+        }
+        try {
+            return new GenerationsRule(LifeRule.parse(rule.substring(0, slash)), Integer.parseInt(states));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed rule: " + rulestring);
+        }
+    }
+
+    /**
+     * @param rulestring - the rule
+     * @return true when the rulestring has the number of the states, e.g. B2/S/C3 or /2/3
+     */
+    static boolean matches(String rulestring) {
+        String rule = rulestring.trim().toUpperCase(Locale.ROOT);
+        return rule.contains("C") || rule.contains("G") || rule.chars().filter(c -> c == '/').count() == 2;
+    }
+
+    @Override
+    public int next(int state, int count) {
+        if (state == 0) return this.life.next(0, count);
+        if (state == 1) return this.life.next(1, count) == 1 ? 1 : 2 % this.states;
+        return state + 1 == this.states ? 0 : state + 1;
+    }
+
+    @Override
+    public boolean birthOnEmpty() {
+        return this.life.birthOnEmpty();
+    }
+
+    /**
+     * The table of the live cells only, the dying cells are left to the decay
+     * @param neighbors - the number of the neighbors, the biggest count the table is indexed by
+     * @return the next states of the B/S part indexed by {@code (count << 1) | state}
+     */
+    @Override
+    public byte[] transitionTable(int neighbors) {
+        return this.life.transitionTable(neighbors);
+    }
+
+    /**
+     * @return the canonical rulestring, e.g. B2/S/C3
+     */
+    @Override
+    public String toString() {
+        return this.life + "/C" + this.states;
+    }
+}
@@ -0,0 +1,127 @@
+package org.automaton.control.game.rule;
+
+import org.automaton.control.game.neighborhood.LargeRadiusStrategy;
+import org.automaton.control.game.neighborhood.NeighborhoodStrategy;
+
+import java.util.Locale;
+
+/**
+ * The Larger than Life rule in the notation of the other tools, e.g. {@code R5,C0,M1,S34..58,B34..45,NM} (Bosco's rule):
+ * the radius R of the neighborhood, the number of the states C (0 or 2 for the two states), M1 when the cell itself is
+ * counted, the survive range S and the birth range B of the counts, and the shape N of the neighborhood,
+ * NM for the (2R + 1) square and N+ for the cross of the radius R, the shape of the von Neumann neighborhoods here.
+ * The rule brings its own neighborhood, it replaces the selected one.
+ * @param radius - the radius of the neighborhood, from 1 to MAX_RADIUS
+ * @param cross - true for the cross, false for the square
+ * @param middle - true when the cell itself is counted
+ * @param surviveMin - the smallest count which keeps the live cell alive
+ * @param surviveMax - the biggest count which keeps the live cell alive
+ * @param birthMin - the smallest count which makes the dead cell alive
+ * @param birthMax - the biggest count which makes the dead cell alive
+ */
+public record LargerThanLifeRule(int radius, boolean cross, boolean middle, int surviveMin, int surviveMax,
+                                 int birthMin, int birthMax) implements TotalisticRule {
+
+    public static final int MAX_RADIUS = 500;
+
+    public LargerThanLifeRule {
+        if (radius < 1 || radius > MAX_RADIUS) {
+            throw new IllegalArgumentException("The radius must be from 1 to " + MAX_RADIUS);
+        }
+    }
+
+    /**
+     * Parse the rulestring, the fields go in any order, C, M and N may be left out for C0, M0 and NM
+     * @param rulestring - the rule, e.g. R5,C0,M1,S34..58,B34..45,NM
+     * @return new LargerThanLifeRule record
+     * @throws IllegalArgumentException when the rulestring is malformed
+     */
+    public static LargerThanLifeRule parse(String rulestring) {
+        int radius = -1;
+        boolean cross = false;
+        boolean middle = false;
+        int[] survive = null;
+        int[] birth = null;
+        for (String field : rulestring.trim().toUpperCase(Locale.ROOT).split(",")) {
+            String value = field.trim();
+            if (value.length() < 2) throw new IllegalArgumentException("Malformed rule: " + rulestring);
+            String argument = value.substring(1);
+            switch (value.charAt(0)) {
+                case 'R' -> radius = number(argument, rulestring);
+                case 'C' -> {
+                    int states = number(argument, rulestring);
+                    if (states != 0 && states != 2) throw new IllegalArgumentException("Only the two-state rules are supported: " + rulestring);
+                }
+                case 'M' -> middle = switch (argument) {
+                    case "0" -> false;
+                    case "1" -> true;
+                    default -> throw new IllegalArgumentException("Malformed rule: " + rulestring);
+                };
+                case 'S' -> survive = range(argument, rulestring);
+                case 'B' -> birth = range(argument, rulestring);
+                case 'N' -> cross = switch (argument) {
+                    case "M" -> false;
+                    case "+" -> true;
+                    default -> throw new IllegalArgumentException("Only the NM and N+ neighborhoods are supported: " + rulestring);
+                };
+                default -> throw new IllegalArgumentException("Malformed rule: " + rulestring);
+            }
+        }
+        if (radius < 0 || survive == null || birth == null) throw new IllegalArgumentException("Malformed rule: " + rulestring);
+        return new LargerThanLifeRule(radius, cross, middle, survive[0], survive[1], birth[0], birth[1]);
+    }
+
+    /**
+     * @return the number of the counted cells, the biggest possible count
+     */
+    public int neighbors() {
+        int side = 2 * this.radius + 1;
+        int cells = this.cross ? 4 * this.radius : side * side - 1;
+        return this.middle ? cells + 1 : cells;
+    }
+
+    @Override
+    public int next(int state, int count) {
+        return state == 0
+                ? (count >= this.birthMin && count <= this.birthMax ? 1 : 0)
+                : (count >= this.surviveMin && count <= this.surviveMax ? 1 : 0);
+    }
+
+    @Override
+    public boolean birthOnEmpty() {
+        return this.birthMin == 0;
+    }
+
+    @Override
+    public NeighborhoodStrategy neighborhoodFor(NeighborhoodStrategy selected) {
+        return new LargeRadiusStrategy(this);
+    }
+
+    /**
+     * @return the canonical rulestring, e.g. R5,C0,M1,S34..58,B34..45,NM
+     */
+    @Override
+    public String toString() {
+        return "R" + this.radius + ",C0,M" + (this.middle ? 1 : 0) + ",S" + this.surviveMin + ".." + this.surviveMax +
+                ",B" + this.birthMin + ".." + this.birthMax + ",N" + (this.cross ? "+" : "M");
+    }
+
+    private static int number(String value, String rulestring) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed rule: " + rulestring);
+        }
+    }
+
+    /**
+     * @return the range "min..max", the single number is the range of one count
+     */
+    private static int[] range(String value, String rulestring) {
+        int dots = value.indexOf("..");
+        int min = number(dots < 0 ? value : value.substring(0, dots), rulestring);
+        int max = dots < 0 ? min : number(value.substring(dots + 2), rulestring);
+        if (min < 0 || max < min) throw new IllegalArgumentException("Malformed rule: " + rulestring);
+        return new int[]{min, max};
+    }
+}
@@ -0,0 +1,135 @@
+package org.automaton.control.game.rule;
+
+import java.util.Locale;
+
+/**
+ * The outer-totalistic rule of the two-state automaton in the B/S notation, e.g. B3/S23 for Life or B36/S23 for HighLife:
+ * the dead cell is born when its live neighbor count is one of the B digits, the live cell survives with one of the S digits.
+ * The rule is kept as the bit masks of the counts, the kernels compile it into the transition table indexed by the count
+ * and the state, so they take the next state by one table load instead of the chain of the comparisons.
+ * @param birthMask - the bit n is set when the dead cell with n live neighbors is born
+ * @param surviveMask - the bit n is set when the live cell with n live neighbors survives
+ */
+public record LifeRule(int birthMask, int surviveMask) implements TotalisticRule {
+
+    /** the biggest count of the notation, the counts are the single digits */
+    public static final int MAX_COUNT = 8;
+    private static final int COUNTS_MASK = (1 << (MAX_COUNT + 1)) - 1;
+
+    /** the classic rule of Conway's Life */
+    public static final LifeRule LIFE = new LifeRule(1 << 3, (1 << 2) | (1 << 3));
+
+    public LifeRule {
+        if ((birthMask & ~COUNTS_MASK) != 0 || (surviveMask & ~COUNTS_MASK) != 0) {
+            throw new IllegalArgumentException("The neighbor counts of the rule must be from 0 to " + MAX_COUNT);
+        }
+    }
+
+    /**
+     * The rule of the single birth count and the range of the survive counts, the form the neighborhood strategies use
+     * @param birthValue - the count which makes the dead cell alive
+     * @param surviveMin - the smallest count which keeps the live cell alive
+     * @param surviveMax - the biggest count which keeps the live cell alive
+     * @return new LifeRule record
+     */
+    public static LifeRule of(int birthValue, int surviveMin, int surviveMax) {
+        int surviveMask = 0;
+        for (int n = surviveMin; n <= surviveMax; n++) surviveMask |= 1 << n;
+        return new LifeRule(1 << birthValue, surviveMask);
+    }
+
+    /**
+     * Parse the rulestring. Both "B3/S23" (the letters in any case, the slash is optional) and the older
+     * survive/birth form "23/3" are accepted, "B2/S" is the rule where no cell survives.
+     * @param rulestring - the rule in the B/S notation
+     * @return new LifeRule record
+     * @throws IllegalArgumentException when the rulestring is malformed
+     */
+    public static LifeRule parse(String rulestring) {
+        String rule = rulestring.trim().toUpperCase(Locale.ROOT);
+        if (rule.startsWith("B") || rule.startsWith("S")) {
+            int birth = -1;
+            int survive = -1;
+            int part = 0; // 'B' or 'S', the part the digits go into
+            for (int i = 0; i < rule.length(); i++) {
+                char c = rule.charAt(i);
+                if (c == 'B' && birth < 0) {
+                    birth = 0;
+                    part = c;
+                } else if (c == 'S' && survive < 0) {
+                    survive = 0;
+                    part = c;
+                } else if (c == '/' && i > 0 && rule.charAt(i - 1) != '/') {
+                    part = 0;
+                } else if (c >= '0' && c <= '0' + MAX_COUNT && part != 0) {
+                    if (part == 'B') birth |= 1 << (c - '0');
+                    else survive |= 1 << (c - '0');
+                } else {
+                    throw new IllegalArgumentException("Malformed rule: " + rulestring);
+                }
+            }
+            if (birth < 0 || survive < 0) throw new IllegalArgumentException("Malformed rule: " + rulestring);
+            return new LifeRule(birth, survive);
+        }
+
+        int slash = rule.indexOf('/');
+        if (slash < 0) throw new IllegalArgumentException("Malformed rule: " + rulestring);
+        return new LifeRule(counts(rule.substring(slash + 1), rulestring), counts(rule.substring(0, slash), rulestring));
+    }
+
+    @Override
+    public int next(int state, int count) {
+        if (count < 0 || count > MAX_COUNT) return 0;
+        return ((state == 0 ? this.birthMask : this.surviveMask) >>> count) & 1;
+    }
+
+    /**
+     * @return the counts which make the dead cell alive, in the ascending order
+     */
+    public int[] birthCounts() {
+        return counts(this.birthMask);
+    }
+
+    /**
+     * @return the counts which keep the live cell alive, in the ascending order
+     */
+    public int[] surviveCounts() {
+        return counts(this.surviveMask);
+    }
+
+    @Override
+    public boolean birthOnEmpty() {
+        return (this.birthMask & 1) != 0;
+    }
+
+    /**
+     * @return the canonical rulestring, e.g. B3/S23
+     */
+    @Override
+    public String toString() {
+        StringBuilder rule = new StringBuilder("B");
+        for (int count : birthCounts()) rule.append(count);
+        rule.append("/S");
+        for (int count : surviveCounts()) rule.append(count);
+        return rule.toString();
+    }
+
+    private static int[] counts(int mask) {
+        int[] counts = new int[Integer.bitCount(mask)];
+        int i = 0;
+        for (int count = 0; count <= MAX_COUNT; count++) {
+            if ((mask >>> count & 1) != 0) counts[i++] = count;
+        }
+        return counts;
+    }
+
+    private static int counts(String digits, String rulestring) {
+        int mask = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            char c = digits.charAt(i);
+            if (c < '0' || c > '0' + MAX_COUNT) throw new IllegalArgumentException("Malformed rule: " + rulestring);
+            mask |= 1 << (c - '0');
+        }
+        return mask;
+    }
+}
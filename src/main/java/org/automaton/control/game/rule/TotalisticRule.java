@@ -0,0 +1,67 @@
+package org.automaton.control.game.rule;
+
+import org.automaton.control.game.neighborhood.NeighborhoodStrategy;
+
+import java.util.Locale;
+
+/**
+ * The rule of the automaton where the next state of the cell depends only on its state and on the number
+ * of its live neighbors. The kernels compile it into the transition table once, the step takes one load per cell.
+ * The rules are two-state unless they say otherwise by {@link #states()}.
+ */
+public interface TotalisticRule {
+
+    /**
+     * @param state - the state of the cell, 0 or 1 for the two-state rules
+     * @param count - the number of the live neighbors
+     * @return the state of the cell in the next generation
+     */
+    int next(int state, int count);
+
+    /**
+     * @return true when the dead cell without live neighbors is born, so the empty space does not stay empty
+     */
+    boolean birthOnEmpty();
+
+    /**
+     * @return the number of the states of the cell, the dead and the live state included
+     */
+    default int states() {
+        return 2;
+    }
+
+    /**
+     * Compile the rule for the neighborhood of the given size
+     * @param neighbors - the number of the neighbors, the biggest count the table is indexed by
+     * @return the next states indexed by {@code (count << 1) | state}
+     */
+    default byte[] transitionTable(int neighbors) {
+        byte[] table = new byte[(neighbors + 1) << 1];
+        for (int count = 0; count <= neighbors; count++) {
+            table[count << 1] = (byte) next(0, count);
+            table[(count << 1) | 1] = (byte) next(1, count);
+        }
+        return table;
+    }
+
+    /**
+     * The rule may bring its own neighborhood, the Larger than Life rules do
+     * @param selected - the neighborhood selected for the game
+     * @return the neighborhood the rule runs on
+     */
+    default NeighborhoodStrategy neighborhoodFor(NeighborhoodStrategy selected) {
+        return selected;
+    }
+
+    /**
+     * Parse the rule, the rulestring starting with R is the Larger than Life rule, the one with the number of the states
+     * is the Generations rule, any other the B/S rule
+     * @param rulestring - the rule, e.g. B36/S23, B2/S/C3 or R5,C0,M1,S34..58,B34..45,NM
+     * @return the parsed rule
+     * @throws IllegalArgumentException when the rulestring is malformed
+     */
+    static TotalisticRule parse(String rulestring) {
+        if (rulestring.trim().toUpperCase(Locale.ROOT).startsWith("R")) return LargerThanLifeRule.parse(rulestring);
+        return GenerationsRule.matches(rulestring) ? GenerationsRule.parse(rulestring) : LifeRule.parse(rulestring);
+    }
+}
@@ -1,15 +1,26 @@
 package org.automaton.control.model;
 
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleLongProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import lombok.Getter;
 import lombok.Setter;
+import org.automaton.control.enums.CycleAction;
 import org.automaton.control.enums.GameStatus;
 import org.automaton.control.enums.InputType;
 import org.automaton.control.enums.MapMode;
 import org.automaton.control.enums.NeighborhoodType;
-import java.util.Random;
+import org.automaton.control.enums.RunMode;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.grid.ByteGrid;
+import org.automaton.control.game.grid.Grid;
+import org.automaton.control.game.grid.RandomFill;
+import org.automaton.control.game.neighborhood.NeighborhoodStrategy;
+import org.automaton.control.game.rule.TotalisticRule;
+
+import java.util.SplittableRandom;
 
 /**
  * Singleton model which is holding all data for the game for the components to talk to.
@@ -23,18 +34,58 @@ public class GameConfigModel {
     private final SimpleIntegerProperty rows = new SimpleIntegerProperty(50);
     private final SimpleIntegerProperty cols = new SimpleIntegerProperty(50);
     private final SimpleIntegerProperty livePercent = new SimpleIntegerProperty(20);
+    /** the seed of the random board, 0 for a new seed on every fill */
+    private final SimpleLongProperty seed = new SimpleLongProperty(0);
+    /** the top left cell where the imported pattern is placed */
+    private final SimpleIntegerProperty patternRow = new SimpleIntegerProperty(0);
+    private final SimpleIntegerProperty patternCol = new SimpleIntegerProperty(0);
+    /** the seed of the current random board, it reproduces the board when it is entered as the seed */
+    private final SimpleLongProperty lastSeed = new SimpleLongProperty(0);
+    /** number of the worker threads used to compute one generation */
+    private final SimpleIntegerProperty parallelism = new SimpleIntegerProperty(1);
 
     private final SimpleObjectProperty<MapMode> selectedMode = new SimpleObjectProperty<>(MapMode.FINITE);
     private final SimpleObjectProperty<NeighborhoodType> selectedNeighborhood = new SimpleObjectProperty<>(NeighborhoodType.VON_NEUMANN);
+    /** the rule of the game, null for the default rule of the selected neighborhood */
+    private final SimpleObjectProperty<TotalisticRule> rule = new SimpleObjectProperty<>(null);
     private final SimpleObjectProperty<GameStatus> gameStatus = new SimpleObjectProperty<>(GameStatus.STOPED);
     private final SimpleObjectProperty<InputType> gameInputType = new SimpleObjectProperty<>(InputType.AUTOMATIC);
-
-    private final ObjectProperty<int[][]> gridData = new SimpleObjectProperty<>(new int[50][50]);
-
-    private final SimpleIntegerProperty epochCount = new  SimpleIntegerProperty(0);
+    private final SimpleObjectProperty<RunMode> runMode = new SimpleObjectProperty<>(RunMode.FIXED_RATE);
+
+    /** generations per second in the fixed rate mode */
+    private final SimpleIntegerProperty targetRate = new SimpleIntegerProperty(5);
+    /** number of the generations after which the run pauses itself, 0 for no limit */
+    private final SimpleIntegerProperty generationLimit = new SimpleIntegerProperty(0);
+    /** the memory of the generation history in megabytes, 0 turns the history off */
+    private final SimpleIntegerProperty historyBudget = new SimpleIntegerProperty(64);
+    /** the longest period of the detected cycles, 0 turns the detection off */
+    private final SimpleIntegerProperty cycleLimit = new SimpleIntegerProperty(0);
+    /** what the run does when the cycle is detected, the skip needs the generation limit, the other runs are paused */
+    private final SimpleObjectProperty<CycleAction> cycleAction = new SimpleObjectProperty<>(CycleAction.PAUSE);
+    /** number of the generations skipped by one jump */
+    private final SimpleIntegerProperty jumpSize = new SimpleIntegerProperty(1024);
+
+    private final ObjectProperty<Grid> gridData = new SimpleObjectProperty<>(new BitGrid(50, 50));
+    /** the states of the cells of the Generations rule, the grid data holds the live cells, null when there are no dying cells */
+    private final ObjectProperty<ByteGrid> stateData = new SimpleObjectProperty<>(null);
+    /** incremented every time the cells of the current grid are changed in place */
+    private final SimpleLongProperty gridRevision = new SimpleLongProperty(0);
+
+    private final SimpleLongProperty epochCount = new  SimpleLongProperty(0);
     private final SimpleIntegerProperty LiveCount = new  SimpleIntegerProperty(0);
-
-    private Random randomNo = new Random();
+    private final SimpleDoubleProperty generationsPerSecond = new SimpleDoubleProperty(0);
+    private final SimpleLongProperty skippedTicks = new SimpleLongProperty(0);
+    private final SimpleLongProperty hashLifeNodes = new SimpleLongProperty(0);
+    private final SimpleDoubleProperty hashLifeHitRate = new SimpleDoubleProperty(0);
+    /** the range of the generations kept in the history, -1 when it is empty */
+    private final SimpleLongProperty historyOldest = new SimpleLongProperty(-1);
+    private final SimpleLongProperty historyNewest = new SimpleLongProperty(-1);
+    /** the period of the cycle the board is in, 0 when no cycle was detected */
+    private final SimpleIntegerProperty detectedPeriod = new SimpleIntegerProperty(0);
+    /** the part of the board tiles recomputed in the last generation */
+    private final SimpleDoubleProperty activeTileRatio = new SimpleDoubleProperty(0);
+
+    private final SplittableRandom seedSource = new SplittableRandom();
 
     private GameConfigModel() {}
 
@@ -47,23 +98,57 @@ public class GameConfigModel {
     public int getRowsPrimitive(){ return this.rows.get(); }
     public int getColsPrimitive(){ return this.cols.get(); }
     public int getLivePercentPrimitive(){ return this.livePercent.get(); }
-    public int getEpochCountPrimitive(){ return this.epochCount.get(); }
+    public long getSeedPrimitive(){ return this.seed.get(); }
+    public int getPatternRowPrimitive(){ return this.patternRow.get(); }
+    public int getPatternColPrimitive(){ return this.patternCol.get(); }
+    public long getEpochCountPrimitive(){ return this.epochCount.get(); }
+    public int getParallelismPrimitive(){ return this.parallelism.get(); }
+    public int getTargetRatePrimitive(){ return this.targetRate.get(); }
+    public int getGenerationLimitPrimitive(){ return this.generationLimit.get(); }
+    public int getJumpSizePrimitive(){ return this.jumpSize.get(); }
+    public int getHistoryBudgetPrimitive(){ return this.historyBudget.get(); }
+    public int getCycleLimitPrimitive(){ return this.cycleLimit.get(); }
+    public long getGridRevisionPrimitive(){ return this.gridRevision.get(); }
+
+    /**
+     * @return the selected rule, or the default rule of the selected neighborhood when none is selected
+     */
+    public TotalisticRule getActiveRule(){
+        TotalisticRule selected = this.rule.get();
+        return selected != null ? selected : this.selectedNeighborhood.get().getStrategy().getDefaultRule();
+    }
+
+    /**
+     * @return the neighborhood of the game, the Larger than Life rule replaces the selected one with its own
+     */
+    public NeighborhoodStrategy getActiveStrategy(){
+        return this.getActiveRule().neighborhoodFor(this.selectedNeighborhood.get().getStrategy());
+    }
 
     public void reshapeDataGrip(){
-        this.gridData.set(new int[this.getRowsPrimitive()][this.getColsPrimitive()]);
+        this.stateData.set(null);
+        this.gridData.set(new BitGrid(this.getRowsPrimitive(), this.getColsPrimitive()));
     }
 
     public void resetDataGrid(){
-        for (int x=0; x < this.getRowsPrimitive(); x++) {
-            for (int y=0; y < this.getColsPrimitive(); y++) {
-                if (this.getGameInputType().get() == InputType.AUTOMATIC) {
-                    this.setDataGridCoordinate(x, y, randomNo.nextDouble() < (double) this.getLivePercentPrimitive() / 100 ? 1 : 0);
-                } else {
-                    this.setDataGridCoordinate(x, y, 0);
-                }
-
-            };
+        Grid grid = this.gridData.get();
+        this.stateData.set(null);
+
+        if (this.getGameInputType().get() == InputType.AUTOMATIC && grid instanceof BitGrid bitGrid) {
+            long boardSeed = this.getSeedPrimitive() != 0 ? this.getSeedPrimitive() : this.seedSource.nextInt(1, Integer.MAX_VALUE);
+            this.lastSeed.set(boardSeed);
+            RandomFill.fill(bitGrid, (double) this.getLivePercentPrimitive() / 100, boardSeed);
+        } else {
+            grid.clear();
         }
+        this.markGridDirty();
+    }
+
+    /**
+     * Notify the listeners that the cells of the current grid were changed in place
+     */
+    public void markGridDirty(){
+        this.gridRevision.set(this.gridRevision.get() + 1);
     }
 
     public void incrementEpochs(){
@@ -71,9 +156,9 @@ public class GameConfigModel {
     }
 
     /**
-     * The function is a bit tricky. We use a simple formula for the change for the 2D coordinate into 1D, to save in memory only the 1D array pointer and not map of pointers,
-     * But we have finite and infinite maps, based on that we have a rule, for the out of bounds, if infinite we reset the coordinate to navigate the torus, in case of finite,
-     * draft the 1 or 0 in the random selection.
+     * The function is a bit tricky. The coordinates may be out of bounds, when the neighbors of the edge cell are requested.
+     * If the map is infinite we reset the coordinate to navigate the torus, in case of finite, the cells outside of the
+     * board are always dead. The unbounded plane is not stored in the model, so its cells outside of the board are dead here too.
      * @param x - the roed coordinate
      * @param y -  the column coordinate
      * @return the value of 1 or 0 from the grid map
@@ -81,28 +166,20 @@ public class GameConfigModel {
     public int getDataGridCoordinate(int x, int y){
         x = checkCoordinate(x, this.getRowsPrimitive());
         y = checkCoordinate(y, this.getColsPrimitive());
+        if (x < 0 || y < 0) { return 0; }
 
-        return this.gridData.get()[x][y];
+        return this.gridData.get().get(x, y);
     }
 
     public void setDataGridCoordinate(int x, int y, int value){
-        int numRows = this.gridData.get().length;
-        int numCols = this.gridData.get()[0].length;
-        int[][] newGrid = new int[numRows][numCols];
-
-        for (int r = 0; r < numRows; r++) {
-            System.arraycopy(this.gridData.get()[r], 0, newGrid[r], 0, numCols);
-        }
-
-        newGrid[x][y] = value;
-
-        this.gridData.set(newGrid);
+        this.gridData.get().set(x, y, value);
+        this.markGridDirty();
     }
 
     private int checkCoordinate(int coordinate, int max) {
         if (coordinate < 0 || coordinate >= max){
-            if (this.getSelectedMode().get() == MapMode.FINITE){
-                return 0;
+            if (this.getSelectedMode().get() != MapMode.INFINITE){
+                return -1; // outside of the finite board
             } else {
                 if (coordinate < 0 ) { return max + coordinate; } // switch to the end of the coordinate line
                 else { return coordinate - max; } // switch to the start of the coordinate panel
@@ -110,8 +187,18 @@ public class GameConfigModel {
         } else { return coordinate; }
     }
 
-    public void toggleDataGridCoordinate(int x, int y){ this.setDataGridCoordinate(x, y, (this.gridData.get()[x][y] == 1) ? 0 : 1); }
-    public void setEpochCount(int epochCount){ this.epochCount.set(epochCount); }
+    public void toggleDataGridCoordinate(int x, int y){ this.setDataGridCoordinate(x, y, (this.gridData.get().get(x, y) == 1) ? 0 : 1); }
+    public void setEpochCount(long epochCount){ this.epochCount.set(epochCount); }
     public void setLiveCount(int  liveCount){ this.LiveCount.set(liveCount); }
+    public void setGenerationsPerSecond(double generationsPerSecond){ this.generationsPerSecond.set(generationsPerSecond); }
+    public void setSkippedTicks(long skippedTicks){ this.skippedTicks.set(skippedTicks); }
+    public void setHashLifeNodes(long hashLifeNodes){ this.hashLifeNodes.set(hashLifeNodes); }
+    public void setHashLifeHitRate(double hashLifeHitRate){ this.hashLifeHitRate.set(hashLifeHitRate); }
+    public void setActiveTileRatio(double activeTileRatio){ this.activeTileRatio.set(activeTileRatio); }
+    public void setDetectedPeriod(int detectedPeriod){ this.detectedPeriod.set(detectedPeriod); }
+    public void setHistoryRange(long oldest, long newest){
+        this.historyOldest.set(oldest);
+        this.historyNewest.set(newest);
+    }
 
 }
@@ -0,0 +1,15 @@
+package org.automaton.control.sweep;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.enums.NeighborhoodType;
+
+/**
+ * One run of the sweep, the point of the parameter grid with one seed
+ * @param index - the number of the run in the sweep, from 0
+ * @param livePercent - the part of the live cells in the random fill, in percent
+ * @param neighborhood - the neighborhood, it runs its default rule
+ * @param mapMode - the edges of the board
+ * @param size - the number of the rows and the columns of the square board
+ * @param seed - the seed of the random fill
+ */
+public record SweepCase(long index, int livePercent, NeighborhoodType neighborhood, MapMode mapMode, int size, long seed) {}
@@ -0,0 +1,51 @@
+package org.automaton.control.sweep;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.function.Consumer;
+
+/**
+ * The results of the sweep as CSV, one column per field and one line per run in the order the runs finish.
+ * Every line is flushed at once, so the finished runs are in the file even when the sweep is interrupted.
+ * The runs finish on many threads, the lines are written one at a time.
+ */
+public class SweepCsvWriter implements Consumer<SweepResult> {
+
+    public static final String HEADER = "run,live_percent,neighborhood,map_mode,size,seed,epoch,live,stabilized_epoch,period,nanos,error";
+
+    private final Writer writer;
+
+    /**
+     * @param writer - the target, the header is written right away, it is not closed
+     * @throws IOException when the header can not be written
+     */
+    public SweepCsvWriter(Writer writer) throws IOException {
+        this.writer = writer;
+        this.writer.write(HEADER + "\n");
+        this.writer.flush();
+    }
+
+    /**
+     * @param result - the finished run
+     * @throws UncheckedIOException when the line can not be written
+     */
+    @Override
+    public synchronized void accept(SweepResult result) {
+        SweepCase run = result.sweepCase();
+        String line = run.index() + "," + run.livePercent() + "," + run.neighborhood() + "," + run.mapMode() + ","
+                + run.size() + "," + run.seed() + "," + result.epoch() + "," + result.liveCount() + ","
+                + result.stabilizedEpoch() + "," + result.period() + "," + result.elapsedNanos() + ","
+                + (result.error() == null ? "" : quote(result.error()));
+        try {
+            this.writer.write(line + "\n");
+            this.writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
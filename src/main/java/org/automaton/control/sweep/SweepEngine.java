@@ -0,0 +1,119 @@
+package org.automaton.control.sweep;
+
+import org.automaton.control.game.Simulation;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.grid.RandomFill;
+import org.automaton.control.game.neighborhood.NeighborhoodStrategy;
+import org.automaton.control.game.rule.TotalisticRule;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * The batch of the independent runs over the parameter grid without the UI, no JavaFX class is loaded here.
+ * Every run fills its board from the seed and steps it until the board settles into the still life or the oscillator,
+ * or until the generation limit. The settled board is skipped to the limit over its cycle, so the long limits cost
+ * only the runs which do not settle. The runs go on the virtual threads, at most the given number of them at once,
+ * and every run is stopped when its board outgrows the memory limit. The results are passed on as the runs finish.
+ */
+public class SweepEngine {
+
+    private SweepEngine() {}
+
+    /**
+     * Run the whole sweep, the call returns when every run has finished. The run which fails, even with the error
+     * of the VM like the OutOfMemoryError, is reported as the failed result and the other runs go on.
+     * @param parameters - the parameter grid
+     * @param parallel - the number of the runs at once, it is lowered by {@link #fitParallel} to fit the heap
+     * @param results - takes the result of every run as it finishes, it is called from many threads
+     * @throws InterruptedException when the thread is interrupted while waiting for the free slot
+     * @throws RuntimeException the first failure of the results consumer, the runs not started yet are dropped then
+     */
+    public static void run(SweepParameters parameters, int parallel, Consumer<SweepResult> results) throws InterruptedException {
+        Semaphore slots = new Semaphore(fitParallel(parallel, parameters.memoryLimit()));
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < parameters.size() && failure.get() == null; i++) {
+                SweepCase sweepCase = parameters.caseAt(i);
+                // the runs are started only for the free slots, so the waiting runs do not hold their boards
+                slots.acquire();
+                executor.execute(() -> {
+                    try {
+                        results.accept(runCaseSafely(parameters, sweepCase));
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+        }
+        if (failure.get() != null) throw failure.get();
+    }
+
+    /**
+     * The runs at once may take their memory limit each, so no more of them are run than the heap can hold
+     * @param parallel - the asked number of the runs at once
+     * @param memoryLimit - the bytes one run may take
+     * @return the number of the runs at once, at least one
+     */
+    public static int fitParallel(int parallel, long memoryLimit) {
+        long fitting = Runtime.getRuntime().maxMemory() / Math.max(1, memoryLimit);
+        return (int) Math.max(1, Math.min(parallel, fitting));
+    }
+
+    /**
+     * Run one point of the grid, any failure of the run becomes its failed result
+     */
+    private static SweepResult runCaseSafely(SweepParameters parameters, SweepCase sweepCase) {
+        long start = System.nanoTime();
+        try {
+            return runCase(parameters, sweepCase);
+        } catch (Throwable e) {
+            return SweepResult.failed(sweepCase, 0, System.nanoTime() - start, e.toString());
+        }
+    }
+
+    /**
+     * Run one point of the grid on the calling thread
+     * @param parameters - the generation limit, the cycle limit and the memory limit of the run
+     * @param sweepCase - the parameters of the run
+     * @return the result of the run, with the error when the board outgrew the memory limit
+     */
+    public static SweepResult runCase(SweepParameters parameters, SweepCase sweepCase) {
+        long start = System.nanoTime();
+        int size = sweepCase.size();
+        // the two buffers of the board, the unbounded plane is checked while it grows
+        long boardBytes = 2L * size * ((size + 63) >>> 6) * Long.BYTES;
+        if (boardBytes > parameters.memoryLimit()) {
+            return SweepResult.failed(sweepCase, 0, System.nanoTime() - start, "The board needs " + boardBytes + " bytes");
+        }
+
+        BitGrid grid = new BitGrid(size, size);
+        RandomFill.fill(grid, sweepCase.livePercent() / 100.0, sweepCase.seed());
+        TotalisticRule rule = sweepCase.neighborhood().getStrategy().getDefaultRule();
+        NeighborhoodStrategy strategy = rule.neighborhoodFor(sweepCase.neighborhood().getStrategy());
+        try (Simulation simulation = new Simulation(strategy, rule, sweepCase.mapMode(), 1)) {
+            simulation.setCycleLimit(parameters.cycleLimit());
+            simulation.load(grid, 0, true);
+
+            while (simulation.getEpoch() < parameters.generations()) {
+                simulation.step();
+                if (simulation.getPeriod() > 0) {
+                    simulation.fastForward(parameters.generations() - simulation.getEpoch());
+                    break;
+                }
+                if (simulation.getMemoryUsage() > parameters.memoryLimit()) {
+                    return SweepResult.failed(sweepCase, simulation.getEpoch(), System.nanoTime() - start,
+                            "The plane outgrew " + parameters.memoryLimit() + " bytes");
+                }
+            }
+            return new SweepResult(sweepCase, simulation.getEpoch(), simulation.getLiveCount(), simulation.getCycleStart(),
+                    simulation.getPeriod(), System.nanoTime() - start, null);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.automaton.control.sweep;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.enums.NeighborhoodType;
+
+import java.util.List;
+
+/**
+ * The parameter grid of the sweep, every combination of the values is run with every seed.
+ * The runs are numbered in the order of the seeds first, then the sizes, the map modes, the neighborhoods
+ * and the live percents, so the run is computed from its number and the grid is never expanded in the memory.
+ * @param livePercents - the parts of the live cells in the random fill, in percent
+ * @param neighborhoods - the neighborhoods, every one runs its default rule
+ * @param mapModes - the edges of the board
+ * @param sizes - the sizes of the square boards
+ * @param seeds - the seeds of the random fill, the range is kept as its bounds
+ * @param generations - the longest run, the run of the settled board is skipped to it over the cycle
+ * @param cycleLimit - the longest period of the detected cycles, 0 for no detection
+ * @param memoryLimit - the bytes one run may take, the bigger runs are stopped with the error
+ */
+public record SweepParameters(List<Integer> livePercents, List<NeighborhoodType> neighborhoods, List<MapMode> mapModes,
+                              List<Integer> sizes, SweepSeeds seeds, long generations, int cycleLimit, long memoryLimit) {
+
+    public SweepParameters {
+        livePercents = List.copyOf(livePercents);
+        neighborhoods = List.copyOf(neighborhoods);
+        mapModes = List.copyOf(mapModes);
+        sizes = List.copyOf(sizes);
+        if (livePercents.isEmpty() || neighborhoods.isEmpty() || mapModes.isEmpty() || sizes.isEmpty() || seeds.count() == 0) {
+            throw new IllegalArgumentException("Every parameter of the sweep needs at least one value");
+        }
+        if (livePercents.stream().anyMatch(percent -> percent < 0 || percent > 100)) {
+            throw new IllegalArgumentException("The live percent must be from 0 to 100");
+        }
+        if (sizes.stream().anyMatch(size -> size <= 0)) throw new IllegalArgumentException("The size must be positive");
+        if (generations < 0) throw new IllegalArgumentException("The generations must not be negative");
+    }
+
+    /**
+     * @return the number of the runs
+     */
+    public long size() {
+        long combinations = (long) this.livePercents.size() * this.neighborhoods.size() * this.mapModes.size() * this.sizes.size();
+        return Math.multiplyExact(combinations, this.seeds.count());
+    }
+
+    /**
+     * @param index - the number of the run, from 0 to size() - 1
+     * @return the parameters of the run
+     */
+    public SweepCase caseAt(long index) {
+        if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("No run " + index + " in the sweep of " + size());
+
+        long rest = index;
+        long seed = this.seeds.get(rest % this.seeds.count());
+        rest /= this.seeds.count();
+        int size = this.sizes.get((int) (rest % this.sizes.size()));
+        rest /= this.sizes.size();
+        MapMode mapMode = this.mapModes.get((int) (rest % this.mapModes.size()));
+        rest /= this.mapModes.size();
+        NeighborhoodType neighborhood = this.neighborhoods.get((int) (rest % this.neighborhoods.size()));
+        rest /= this.neighborhoods.size();
+        int livePercent = this.livePercents.get((int) rest);
+        return new SweepCase(index, livePercent, neighborhood, mapMode, size, seed);
+    }
+}
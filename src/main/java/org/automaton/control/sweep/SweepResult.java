@@ -0,0 +1,26 @@
+package org.automaton.control.sweep;
+
+/**
+ * The outcome of one run of the sweep
+ * @param sweepCase - the parameters of the run
+ * @param epoch - the last generation of the run
+ * @param liveCount - the live cells of the last generation
+ * @param stabilizedEpoch - the first generation of the detected cycle, -1 when the board did not settle
+ * @param period - the period of the detected cycle, 1 for the still life, 0 when the board did not settle
+ * @param elapsedNanos - the time of the run
+ * @param error - the reason the run was stopped, null for the finished run
+ */
+public record SweepResult(SweepCase sweepCase, long epoch, int liveCount, long stabilizedEpoch, int period,
+                          long elapsedNanos, String error) {
+
+    /**
+     * @param sweepCase - the parameters of the run
+     * @param epoch - the generation the run was stopped at
+     * @param elapsedNanos - the time of the run
+     * @param error - the reason the run was stopped
+     * @return the result of the run without the outcome
+     */
+    public static SweepResult failed(SweepCase sweepCase, long epoch, long elapsedNanos, String error) {
+        return new SweepResult(sweepCase, epoch, -1, -1, 0, elapsedNanos, error);
+    }
+}
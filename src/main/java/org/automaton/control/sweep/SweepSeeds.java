@@ -0,0 +1,88 @@
+package org.automaton.control.sweep;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The seeds of the sweep, either the listed ones or the range of the consecutive seeds. The range is kept as its
+ * bounds only, so the sweep over millions of seeds takes no memory for them.
+ */
+public sealed interface SweepSeeds {
+
+    /**
+     * @return the number of the seeds
+     */
+    long count();
+
+    /**
+     * @param index - the number of the seed, from 0 to count() - 1
+     * @return the seed
+     */
+    long get(long index);
+
+    /**
+     * Parse the seeds, the range from..to or the comma separated list
+     * @param value - the seeds, e.g. 1..100 or 3,7,11
+     * @return the seeds
+     * @throws IllegalArgumentException when the value is malformed or the range is empty
+     */
+    static SweepSeeds parse(String value) {
+        try {
+            int dots = value.indexOf("..");
+            if (dots >= 0) {
+                return new Range(Long.parseLong(value.substring(0, dots).trim()), Long.parseLong(value.substring(dots + 2).trim()));
+            }
+            return new Listed(Arrays.stream(value.split(","))
+                    .filter(item -> !item.isBlank())
+                    .map(item -> Long.parseLong(item.trim()))
+                    .toList());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid seeds: " + value);
+        }
+    }
+
+    /**
+     * The consecutive seeds
+     * @param from - the first seed
+     * @param to - the last seed, inclusive
+     */
+    record Range(long from, long to) implements SweepSeeds {
+
+        public Range {
+            if (to < from) throw new IllegalArgumentException("The empty range of the seeds: " + from + ".." + to);
+            // the count must fit the long
+            if (to - from < 0 || to - from == Long.MAX_VALUE) throw new IllegalArgumentException("Too many seeds: " + from + ".." + to);
+        }
+
+        @Override
+        public long count() {
+            return this.to - this.from + 1;
+        }
+
+        @Override
+        public long get(long index) {
+            return this.from + index;
+        }
+    }
+
+    /**
+     * The listed seeds
+     * @param values - the seeds in the order of the runs
+     */
+    record Listed(List<Long> values) implements SweepSeeds {
+
+        public Listed {
+            values = List.copyOf(values);
+        }
+
+        @Override
+        public long count() {
+            return this.values.size();
+        }
+
+        @Override
+        public long get(long index) {
+            return this.values.get((int) index);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.automaton.control.ui;
 
 import javafx.beans.binding.Bindings;
+import javafx.beans.binding.BooleanBinding;
 import javafx.beans.property.*;
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
@@ -11,13 +12,18 @@ import javafx.util.Pair;
 
 import lombok.Getter;
 
+import org.automaton.control.enums.CycleAction;
 import org.automaton.control.enums.InputType;
 import org.automaton.control.factories.UiComponentFactory;
 import org.automaton.control.enums.GameStatus;
 import org.automaton.control.enums.MapMode;
 import org.automaton.control.enums.NeighborhoodType;
+import org.automaton.control.enums.RunMode;
+import org.automaton.control.game.Simulation;
+import org.automaton.control.game.rule.TotalisticRule;
 import org.automaton.control.model.GameConfigModel;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.Arrays;
 
@@ -37,6 +43,26 @@ public class ConfigurationPanel extends VBox {
     @Getter private Button resetButton = new Button("Reset");
     @Getter private Button pauseButton = new Button("Pause");
     @Getter private Button randomiseButton = new Button("Randomise");
+    @Getter private Button jumpButton = new Button("Jump");
+    @Getter private Button saveButton = new Button("Save");
+    @Getter private Button loadButton = new Button("Load");
+    @Getter private Button importButton = new Button("Import");
+    @Getter private Button exportButton = new Button("Export");
+    @Getter private Button backButton = new Button("Back");
+    /** the scrubbing through the generations kept in the history */
+    @Getter private Slider historySlider = new Slider(0, 0, 0);
+    /** keeps the history slider in line with the model and reports the generations chosen on it */
+    @Getter private HistoryScrubber historyScrubber;
+
+    /** the range of the board size which can be set in the panel */
+    public static final int MIN_GRID_SIZE = 10;
+    public static final int MAX_GRID_SIZE = 4096;
+
+    /** the values of the size spinners, set when the board of the other size is loaded */
+    private ObjectProperty<Integer> rowsValue;
+    private ObjectProperty<Integer> colsValue;
+    /** the text of the rule field, set when the board with the rule is loaded */
+    private StringProperty ruleText;
 
     /**
      * Creates a new ConfigurationPanel instance and sets the children
@@ -51,6 +77,7 @@ public class ConfigurationPanel extends VBox {
         this.getChildren().addAll(
                 createGridConfiguration(),
                 createGameConfiguration(),
+                createSpeedConfiguration(),
                 UiComponentFactory.createSpacer(),
                 createFooterButtonBox()
         );
@@ -66,6 +93,24 @@ public class ConfigurationPanel extends VBox {
         return INSTANCE;
     }
 
+    /**
+     * Show the size of the loaded board in the spinners, the model takes it through the binding
+     * @param rows - the number of the rows, from MIN_GRID_SIZE to MAX_GRID_SIZE
+     * @param cols - the number of the columns, from MIN_GRID_SIZE to MAX_GRID_SIZE
+     */
+    public void setGridSize(int rows, int cols) {
+        this.rowsValue.set(rows);
+        this.colsValue.set(cols);
+    }
+
+    /**
+     * Show the rule of the loaded board in the rule field, the model takes it when the field is applied
+     * @param rule - the rule, null for the default rule of the neighborhood
+     */
+    public void setRule(TotalisticRule rule) {
+        this.ruleText.set(rule != null ? rule.toString() : "");
+    }
+
     /**
      * Function to create a grid configuration box
      * @return VBox object of the grid configuration
@@ -75,19 +120,23 @@ public class ConfigurationPanel extends VBox {
 
         Label gridLabel = UiComponentFactory.createLabel("Grid Configuration", 20);
 
-        Pair<HBox, DoubleProperty> rowsControl = UiComponentFactory.createSliderBox("Rows", 10, 100, 45);
-        Pair<HBox, DoubleProperty> colsControl = UiComponentFactory.createSliderBox("Cols", 10, 100, 45);
+        // the big boards are drawn through the image, so the size goes far beyond what fits one cell per pixel
+        Pair<HBox, ObjectProperty<Integer>> rowsControl = UiComponentFactory.createSpinnerBox("Rows", MIN_GRID_SIZE, MAX_GRID_SIZE, 45, 10);
+        Pair<HBox, ObjectProperty<Integer>> colsControl = UiComponentFactory.createSpinnerBox("Cols", MIN_GRID_SIZE, MAX_GRID_SIZE, 45, 10);
 
         this.model.getRows().bind(rowsControl.getValue());
         this.model.getCols().bind(colsControl.getValue());
+        this.rowsValue = rowsControl.getValue();
+        this.colsValue = colsControl.getValue();
+
+        // 0 draws a new board on every randomise, any other seed always gives the same board
+        Pair<HBox, ObjectProperty<Integer>> seedControl = UiComponentFactory.createSpinnerBox("Seed", 0, Integer.MAX_VALUE, 0, 1);
+        this.model.getSeed().bind(seedControl.getValue());
 
-        HBox mapModeToggle = UiComponentFactory.createToggleButtonsBox(
+        HBox mapModeToggle = UiComponentFactory.createRadioButtonBox(
                 "Mode",
                 14,
-                MapMode.FINITE,
-                MapMode.FINITE.getDisplayName(),
-                MapMode.INFINITE,
-                MapMode.INFINITE.getDisplayName(),
+                List.of(MapMode.FINITE, MapMode.INFINITE, MapMode.UNBOUNDED),
                 this.model.getSelectedMode()
         );
 
@@ -106,13 +155,36 @@ public class ConfigurationPanel extends VBox {
         colsControl.getKey().setPadding(new Insets(0, 0, 0, 30));
         mapModeToggle.setPadding(new Insets(0, 0, 0, 30));
         gridModeToggle.setPadding(new Insets(0, 0, 0, 30));
-        this.randomiseButton.setPadding(new Insets(0, 0, 0, 30));
+        seedControl.getKey().setPadding(new Insets(0, 0, 0, 30));
 
         rowsControl.getKey().disableProperty().bind(this.model.getGameStatus().isNotEqualTo(GameStatus.STOPED));
         colsControl.getKey().disableProperty().bind(this.model.getGameStatus().isNotEqualTo(GameStatus.STOPED));
         mapModeToggle.disableProperty().bind(this.model.getGameStatus().isNotEqualTo(GameStatus.STOPED));
         gridModeToggle.disableProperty().bind(this.model.getGameStatus().isNotEqualTo(GameStatus.STOPED));
+        seedControl.getKey().disableProperty().bind(this.model.getGameStatus().isNotEqualTo(GameStatus.STOPED));
         this.randomiseButton.disableProperty().bind(this.model.getGameStatus().isNotEqualTo(GameStatus.STOPED));
+        // the save takes the displayed generation, so it works while running as well
+        this.loadButton.disableProperty().bind(this.model.getGameStatus().isEqualTo(GameStatus.RUNNING));
+
+        HBox fileButtons = new HBox(10, this.randomiseButton, this.saveButton, this.loadButton);
+        fileButtons.setPadding(new Insets(0, 0, 0, 30));
+
+        // the patterns are drawn into the board by hand, so they are only placed in the manual input
+        Pair<HBox, ObjectProperty<Integer>> patternRow = UiComponentFactory.createSpinnerBox("Pattern row", 0, MAX_GRID_SIZE - 1, 0, 1);
+        Pair<HBox, ObjectProperty<Integer>> patternCol = UiComponentFactory.createSpinnerBox("Pattern col", 0, MAX_GRID_SIZE - 1, 0, 1);
+        this.model.getPatternRow().bind(patternRow.getValue());
+        this.model.getPatternCol().bind(patternCol.getValue());
+        HBox patternButtons = new HBox(10, this.importButton, this.exportButton);
+
+        patternRow.getKey().setPadding(new Insets(0, 0, 0, 30));
+        patternCol.getKey().setPadding(new Insets(0, 0, 0, 30));
+        patternButtons.setPadding(new Insets(0, 0, 0, 30));
+
+        BooleanBinding patternPlacementDisabled = this.model.getGameStatus().isEqualTo(GameStatus.RUNNING)
+                .or(this.model.getGameInputType().isNotEqualTo(InputType.MANUAL));
+        patternRow.getKey().disableProperty().bind(patternPlacementDisabled);
+        patternCol.getKey().disableProperty().bind(patternPlacementDisabled);
+        this.importButton.disableProperty().bind(patternPlacementDisabled);
 
         gridConfiguration.getChildren().addAll(
                 gridLabel,
@@ -120,8 +192,11 @@ public class ConfigurationPanel extends VBox {
                 colsControl.getKey(),
                 mapModeToggle,
                 gridModeToggle,
-                this.randomiseButton
-
+                seedControl.getKey(),
+                fileButtons,
+                patternRow.getKey(),
+                patternCol.getKey(),
+                patternButtons
         );
         return gridConfiguration;
     }
@@ -142,24 +217,166 @@ public class ConfigurationPanel extends VBox {
                 this.model.getSelectedNeighborhood()
         );
 
+        // the empty field keeps the default rule of the neighborhood, it is shown as the hint
+        Pair<HBox, TextField> ruleControl = UiComponentFactory.createTextFieldBox("Rule", "");
+        TextField ruleField = ruleControl.getValue();
+        ruleField.promptTextProperty().bind(Bindings.createStringBinding(
+                () -> this.model.getSelectedNeighborhood().get().getStrategy().getDefaultRule().toString(),
+                this.model.getSelectedNeighborhood()));
+        ruleField.textProperty().addListener((obs, oldVal, newVal) -> applyRule(ruleField));
+        this.ruleText = ruleField.textProperty();
+        this.model.getSelectedMode().addListener((obs, oldVal, newVal) -> applyRule(ruleField));
+
         Pair<HBox, DoubleProperty> livePercent = UiComponentFactory.createSliderBox("Live %", 10, 80, 20);
         this.model.getLivePercent().bind(livePercent.getValue());
 
+        Pair<HBox, DoubleProperty> threads = UiComponentFactory.createSliderBox("Threads", 1, Runtime.getRuntime().availableProcessors(), 1);
+        this.model.getParallelism().bind(threads.getValue());
+
         neighborhoodSelect.setPadding(new Insets(0, 0, 0, 30));
+        ruleControl.getKey().setPadding(new Insets(0, 0, 0, 30));
         livePercent.getKey().setPadding(new Insets(0, 0, 0, 30));
+        threads.getKey().setPadding(new Insets(0, 0, 0, 30));
 
         neighborhoodSelect.disableProperty().bind(this.model.getGameStatus().isNotEqualTo(GameStatus.STOPED));
+        ruleControl.getKey().disableProperty().bind(this.model.getGameStatus().isEqualTo(GameStatus.RUNNING));
         livePercent.getKey().disableProperty().bind(this.model.getGameStatus().isNotEqualTo(GameStatus.STOPED));
+        threads.getKey().disableProperty().bind(this.model.getGameStatus().isNotEqualTo(GameStatus.STOPED));
 
         gameConfiguration.getChildren().addAll(
                 gameLabel,
                 neighborhoodSelect,
-                livePercent.getKey()
+                ruleControl.getKey(),
+                livePercent.getKey(),
+                threads.getKey()
         );
 
         return gameConfiguration;
     }
 
+    /**
+     * Put the rule of the field into the model. The malformed rule, or the rule which can not run on the selected
+     * map mode, is marked in the field and the model keeps the previous rule.
+     * @param ruleField - the field of the rule, empty for the default rule of the neighborhood
+     */
+    private void applyRule(TextField ruleField) {
+        String text = ruleField.getText().trim();
+        TotalisticRule rule = null;
+        boolean valid = true;
+        if (!text.isEmpty()) {
+            try {
+                rule = TotalisticRule.parse(text);
+                valid = runs(rule);
+            } catch (IllegalArgumentException e) {
+                valid = false;
+            }
+        }
+
+        ruleField.setStyle(valid ? "" : "-fx-border-color: red;");
+        TotalisticRule previous = this.model.getRule().get();
+        if (valid) {
+            this.model.getRule().set(rule);
+        } else if (previous != null && !runs(previous)) {
+            // the previous rule can not be kept for the new map mode either
+            this.model.getRule().set(null);
+        }
+    }
+
+    /**
+     * @return true when the rule can run on the selected map mode
+     */
+    private boolean runs(TotalisticRule rule) {
+        MapMode mapMode = this.model.getSelectedMode().get();
+        return Simulation.supports(rule.neighborhoodFor(this.model.getSelectedNeighborhood().get().getStrategy()), rule, mapMode);
+    }
+
+    /**
+     * Create the panel of the simulation pacing
+     * @return the VBox instance of the speed configuration
+     */
+    private VBox createSpeedConfiguration() {
+        VBox speedConfiguration = new VBox(10);
+
+        Label speedLabel = UiComponentFactory.createLabel("Speed Configuration", 20);
+
+        HBox runModeToggle = UiComponentFactory.createToggleButtonsBox(
+                "Pace",
+                14,
+                RunMode.FIXED_RATE,
+                RunMode.FIXED_RATE.getDisplayName(),
+                RunMode.MAX_SPEED,
+                RunMode.MAX_SPEED.getDisplayName(),
+                this.model.getRunMode()
+        );
+
+        Pair<HBox, DoubleProperty> targetRate = UiComponentFactory.createSliderBox("Gen/s", 1, 100, 5);
+        this.model.getTargetRate().bind(targetRate.getValue());
+
+        Pair<HBox, ObjectProperty<Integer>> generationLimit = UiComponentFactory.createSpinnerBox("Stop after", 0, 1_000_000, 0, 100);
+        this.model.getGenerationLimit().bind(generationLimit.getValue());
+
+        Pair<HBox, ObjectProperty<Integer>> jumpSize = UiComponentFactory.createSpinnerBox("Jump by", 1, Integer.MAX_VALUE, 1024, 1024);
+        this.model.getJumpSize().bind(jumpSize.getValue());
+        jumpSize.getKey().getChildren().add(this.jumpButton);
+
+        // the run stops when the board repeats itself with the period up to the limit
+        Pair<HBox, ObjectProperty<Integer>> cycleLimit = UiComponentFactory.createSpinnerBox("Cycle up to", 0, 100_000, 0, 16);
+        this.model.getCycleLimit().bind(cycleLimit.getValue());
+        HBox cycleActionToggle = UiComponentFactory.createToggleButtonsBox(
+                "On cycle",
+                14,
+                CycleAction.PAUSE,
+                CycleAction.PAUSE.getDisplayName(),
+                CycleAction.FAST_FORWARD,
+                CycleAction.FAST_FORWARD.getDisplayName(),
+                this.model.getCycleAction()
+        );
+
+        Pair<HBox, ObjectProperty<Integer>> historyBudget = UiComponentFactory.createSpinnerBox("History MB", 0, 65536, 64, 16);
+        this.model.getHistoryBudget().bind(historyBudget.getValue());
+
+        // the slider spans the kept generations and follows the shown one
+        this.historyScrubber = new HistoryScrubber(this.model, this.historySlider.minProperty(), this.historySlider.maxProperty(),
+                this.historySlider.valueProperty(), this.historySlider.valueChangingProperty());
+        HBox historyBox = new HBox(10, UiComponentFactory.createLabel("History", 14), this.historySlider, this.backButton);
+        HBox.setHgrow(this.historySlider, Priority.ALWAYS);
+
+        runModeToggle.setPadding(new Insets(0, 0, 0, 30));
+        targetRate.getKey().setPadding(new Insets(0, 0, 0, 30));
+        generationLimit.getKey().setPadding(new Insets(0, 0, 0, 30));
+        jumpSize.getKey().setPadding(new Insets(0, 0, 0, 30));
+        cycleLimit.getKey().setPadding(new Insets(0, 0, 0, 30));
+        cycleActionToggle.setPadding(new Insets(0, 0, 0, 30));
+        historyBudget.getKey().setPadding(new Insets(0, 0, 0, 30));
+        historyBox.setPadding(new Insets(0, 0, 0, 30));
+
+        runModeToggle.disableProperty().bind(this.model.getGameStatus().isEqualTo(GameStatus.RUNNING));
+        targetRate.getKey().disableProperty().bind(this.model.getGameStatus().isEqualTo(GameStatus.RUNNING)
+                .or(this.model.getRunMode().isEqualTo(RunMode.MAX_SPEED)));
+        generationLimit.getKey().disableProperty().bind(this.model.getGameStatus().isEqualTo(GameStatus.RUNNING));
+        jumpSize.getKey().disableProperty().bind(this.model.getGameStatus().isEqualTo(GameStatus.RUNNING));
+        cycleLimit.getKey().disableProperty().bind(this.model.getGameStatus().isEqualTo(GameStatus.RUNNING));
+        cycleActionToggle.disableProperty().bind(this.model.getGameStatus().isEqualTo(GameStatus.RUNNING)
+                .or(this.model.getCycleLimit().isEqualTo(0)));
+        historyBudget.getKey().disableProperty().bind(this.model.getGameStatus().isEqualTo(GameStatus.RUNNING));
+        historyBox.disableProperty().bind(this.model.getGameStatus().isEqualTo(GameStatus.RUNNING)
+                .or(this.model.getHistoryNewest().lessThan(0)));
+
+        speedConfiguration.getChildren().addAll(
+                speedLabel,
+                runModeToggle,
+                targetRate.getKey(),
+                generationLimit.getKey(),
+                jumpSize.getKey(),
+                cycleLimit.getKey(),
+                cycleActionToggle,
+                historyBudget.getKey(),
+                historyBox
+        );
+
+        return speedConfiguration;
+    }
+
     /**
      * Create a footer buttons for the start and reset
      * @return HBox instance with buttons
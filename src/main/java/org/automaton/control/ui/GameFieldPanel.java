@@ -1,23 +1,28 @@
 package org.automaton.control.ui;
 
+import javafx.animation.AnimationTimer;
 import javafx.beans.binding.Bindings;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.Label;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
-import javafx.scene.paint.Color;
 import org.automaton.control.enums.GameStatus;
 import org.automaton.control.enums.InputType;
 import org.automaton.control.factories.UiComponentFactory;
 import org.automaton.control.game.GameEngine;
+import org.automaton.control.game.GenerationSnapshot;
 import org.automaton.control.game.GridDrawingMetrics;
+import org.automaton.control.game.GridPoint;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.grid.ByteGrid;
+import org.automaton.control.game.grid.Grid;
 import org.automaton.control.model.GameConfigModel;
 
 import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
 
 /**
  * Main function to make the UI component of game field
@@ -25,8 +30,8 @@ import javafx.scene.input.MouseEvent;
  */
 public class GameFieldPanel extends BorderPane {
 
-    private GraphicsContext gc;
     private Canvas gameCanvas;
+    private GridRenderer gridRenderer;
 
     private static final GameFieldPanel INSTANCE = new GameFieldPanel();
 
@@ -34,13 +39,22 @@ public class GameFieldPanel extends BorderPane {
     private final ConfigurationPanel  configurationPanel = ConfigurationPanel.getInstance();
     private final GameEngine gameEngine = GameEngine.getInstance();
 
-    private GridDrawingMetrics gridMetrics;
+    /** the change of the zoom by one step of the mouse wheel */
+    private static final double ZOOM_STEP = 1.25;
+    /** the last position of the mouse while the view is dragged */
+    private double dragX;
+    private double dragY;
+
+    /** the last snapshot taken from the simulation thread, drawn while the game is running */
+    private GenerationSnapshot displayedSnapshot;
 
     private GameFieldPanel(){
         this.setStyle("-fx-background-color: #444;");
 
         this.setTop(createTopStatsBox());
         this.setCenter(createGridBox());
+
+        createFrameTimer().start();
     }
 
     /**
@@ -58,18 +72,37 @@ public class GameFieldPanel extends BorderPane {
      */
     private StackPane createGridBox(){
         this.gameCanvas = new Canvas();
-        this.gc = this.gameCanvas.getGraphicsContext2D();
+        // the grid lines are static, they are kept on their own layer above the cells
+        Canvas lineCanvas = new Canvas();
+        lineCanvas.setMouseTransparent(true);
+        this.gridRenderer = new GridRenderer(this.gameCanvas, lineCanvas);
 
         StackPane canvasContainer = new StackPane();
-        canvasContainer.getChildren().add(this.gameCanvas);
+        canvasContainer.getChildren().addAll(this.gameCanvas, lineCanvas);
 
         BorderPane.setMargin(canvasContainer, new Insets(0, 20, 20, 20));
         StackPane.setAlignment(this.gameCanvas, Pos.CENTER);
+        StackPane.setAlignment(lineCanvas, Pos.CENTER);
 
         this.gameCanvas.widthProperty().bind(canvasContainer.widthProperty());
         this.gameCanvas.heightProperty().bind(canvasContainer.heightProperty());
+        lineCanvas.widthProperty().bind(canvasContainer.widthProperty());
+        lineCanvas.heightProperty().bind(canvasContainer.heightProperty());
 
         gameCanvas.addEventHandler(MouseEvent.MOUSE_CLICKED, this::handleCanvasClick);
+        gameCanvas.addEventHandler(ScrollEvent.SCROLL, this::handleCanvasScroll);
+        gameCanvas.addEventHandler(MouseEvent.MOUSE_PRESSED, event -> {
+            this.dragX = event.getX();
+            this.dragY = event.getY();
+        });
+        gameCanvas.addEventHandler(MouseEvent.MOUSE_DRAGGED, this::handleCanvasDrag);
+        gameCanvas.addEventHandler(MouseEvent.MOUSE_CLICKED, event -> {
+            // the double click brings the whole board back into the view
+            if (event.getClickCount() == 2) {
+                this.gridRenderer.resetView();
+                redraw();
+            }
+        });
 
         this.model.getRows().addListener((obs, oldVal, newVal) -> {
             this.model.reshapeDataGrip();
@@ -87,8 +120,22 @@ public class GameFieldPanel extends BorderPane {
             this.model.resetDataGrid();
             redraw();
         });
-        this.model.getEpochCount().addListener((obs, oldVal, newVal) -> redraw());
         this.model.getGridData().addListener((obs, oldVal, newVal) -> redraw());
+        // the dying cells of the previous rule mean nothing to the new one, the palette follows the number of the states
+        this.model.getRule().addListener((obs, oldVal, newVal) -> {
+            this.model.getStateData().set(null);
+            this.gridRenderer.setStates(this.model.getActiveRule().states());
+            redraw();
+        });
+        this.model.getGridRevision().addListener((obs, oldVal, newVal) -> redraw());
+
+        this.model.getGameStatus().addListener((obs, oldVal, newVal) -> {
+            // the snapshot of the finished run must not be shown when the simulation is started again
+            if (newVal != GameStatus.RUNNING && this.displayedSnapshot != null) {
+                this.gameEngine.getSnapshots().release(this.displayedSnapshot);
+                this.displayedSnapshot = null;
+            }
+        });
 
         this.model.getGameInputType().addListener((obs, oldVal, newVal) -> {
             this.model.resetDataGrid();
@@ -115,6 +162,37 @@ public class GameFieldPanel extends BorderPane {
         return canvasContainer;
     }
 
+    /**
+     * The timer is called on every pulse of the JavaFX, it takes the newest generation from the simulation thread,
+     * all generations computed since the previous frame are skipped
+     * @return AnimationTimer object
+     */
+    private AnimationTimer createFrameTimer(){
+        return new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                GenerationSnapshot snapshot = gameEngine.getSnapshots().poll();
+                if (snapshot == null) return;
+
+                if (displayedSnapshot != null) gameEngine.getSnapshots().release(displayedSnapshot);
+                displayedSnapshot = snapshot;
+
+                model.setEpochCount(snapshot.epoch());
+                model.setLiveCount(snapshot.liveCount());
+                model.setGenerationsPerSecond(snapshot.generationsPerSecond());
+                model.setSkippedTicks(snapshot.skippedTicks());
+                model.setActiveTileRatio(snapshot.activeTileRatio());
+                redraw();
+
+                if (snapshot.finished()) {
+                    // the limited run is over, the simulation thread has already stopped
+                    model.setGameStatus(GameStatus.PAUSED);
+                    gameEngine.stopSimulation();
+                }
+            }
+        };
+    }
+
     /**
      * Function to make VBox object with he simple statisticks through the binding to make dynamic
      * @return Vbox object
@@ -128,101 +206,86 @@ public class GameFieldPanel extends BorderPane {
 
         Label epochLabel = UiComponentFactory.createLabel("Epoch: 0", 14);
         Label liveDeadCount = UiComponentFactory.createLabel("Live Count: 0", 14);
+        Label speedLabel = UiComponentFactory.createLabel("Speed: 0 gen/s", 14);
+        Label hashLifeLabel = UiComponentFactory.createLabel("HashLife cache: 0 nodes", 14);
+        Label activeTilesLabel = UiComponentFactory.createLabel("Active tiles: 0%", 14);
+        Label seedLabel = UiComponentFactory.createLabel("Seed: 0", 14);
+        Label cycleLabel = UiComponentFactory.createLabel("Cycle: none", 14);
 
         epochLabel.setStyle("-fx-text-fill: white;");
         liveDeadCount.setStyle("-fx-text-fill: white;");
+        speedLabel.setStyle("-fx-text-fill: white;");
+        hashLifeLabel.setStyle("-fx-text-fill: white;");
+        activeTilesLabel.setStyle("-fx-text-fill: white;");
+        seedLabel.setStyle("-fx-text-fill: white;");
+        cycleLabel.setStyle("-fx-text-fill: white;");
 
-        statsBox.getChildren().addAll(epochLabel, liveDeadCount);
+        statsBox.getChildren().addAll(epochLabel, liveDeadCount, speedLabel, hashLifeLabel, activeTilesLabel, seedLabel, cycleLabel);
 
         epochLabel.textProperty().bind(Bindings.format("Epoch: %d", this.model.getEpochCount()));
         liveDeadCount.textProperty().bind(Bindings.format("Live Count: %d", this.model.getLiveCount()));
+        speedLabel.textProperty().bind(Bindings.format("Speed: %.1f gen/s, skipped ticks: %d",
+                this.model.getGenerationsPerSecond(), this.model.getSkippedTicks()));
+        hashLifeLabel.textProperty().bind(Bindings.format("HashLife cache: %d nodes, hit rate: %.1f%%",
+                this.model.getHashLifeNodes(), this.model.getHashLifeHitRate().multiply(100)));
+        activeTilesLabel.textProperty().bind(Bindings.format("Active tiles: %.1f%%", this.model.getActiveTileRatio().multiply(100)));
+        seedLabel.textProperty().bind(Bindings.format("Seed: %d", this.model.getLastSeed()));
+        cycleLabel.textProperty().bind(Bindings.when(this.model.getDetectedPeriod().greaterThan(0))
+                .then(Bindings.format("Cycle: period %d", this.model.getDetectedPeriod()))
+                .otherwise("Cycle: none"));
 
         return statsBox;
     }
 
     /**
-     * The function to handle the manual grid click
+     * The function to handle the manual grid click, the click which ends the drag of the view is ignored
      * @param event - the click itself
      */
     private void handleCanvasClick(MouseEvent event){
+        GridDrawingMetrics gridMetrics = this.gridRenderer.getMetrics();
         if (this.model.getGameStatus().get() != GameStatus.STOPED ||
-                this.model.getGameInputType().get() != InputType.MANUAL
+                this.model.getGameInputType().get() != InputType.MANUAL ||
+                gridMetrics == null || !event.isStillSincePress()
             ) { return; }
 
-        double mouseX =  event.getX();
-        double mouseY = event.getY();
-
-        double clickXInGrid = mouseX - this.gridMetrics.offsetX();
-        double clickYInGrid = mouseY - this.gridMetrics.offsetY();
-
-        if (clickXInGrid >= 0 && clickYInGrid < this.gridMetrics.totalGridWidth() &&
-            clickYInGrid >= 0 && clickXInGrid < this.gridMetrics.totalGridHeight()) {
-
-            int clickCol = (int) (clickXInGrid / this.gridMetrics.cellSize());
-            int clickRow = (int) (clickYInGrid / this.gridMetrics.cellSize());
+        GridPoint cell = gridMetrics.cellAt(event.getX(), event.getY());
+        if (cell != null) {
+            this.model.toggleDataGridCoordinate(cell.x(), cell.y());
+        }
+    }
 
-            if (clickRow < this.gridMetrics.rows() && clickRow >= 0 &&
-                    clickCol < this.gridMetrics.cols() &&  clickCol >= 0) {
+    /**
+     * The wheel zooms the view around the cursor
+     * @param event - the scroll event
+     */
+    private void handleCanvasScroll(ScrollEvent event){
+        if (event.getDeltaY() == 0) return;
 
-                this.model.toggleDataGridCoordinate(clickRow, clickCol);
-            }
-        }
+        this.gridRenderer.zoomAt(event.getX(), event.getY(), event.getDeltaY() > 0 ? ZOOM_STEP : 1 / ZOOM_STEP);
+        redraw();
+    }
 
+    /**
+     * The drag moves the view by the distance since the previous drag event
+     * @param event - the drag event
+     */
+    private void handleCanvasDrag(MouseEvent event){
+        this.gridRenderer.pan(event.getX() - this.dragX, event.getY() - this.dragY);
+        this.dragX = event.getX();
+        this.dragY = event.getY();
         redraw();
     }
 
     /**
-     * The main "Magic" of the dynamic grid creation and update. Is used to make the UI actually do its work
+     * The main "Magic" of the dynamic grid creation and update. Is used to make the UI actually do its work.
+     * The renderer only paints what has changed since the previous frame, the states of the Generations rule
+     * are colored by its palette.
      */
     private void redraw(){
-        // generate when changing the size of the grid
-
-        if (this.model.getEpochCountPrimitive() == 0) {
-            // the reset of the basic metrics calculation
-            this.gridMetrics = GridDrawingMetrics.calculate(
-                    this.model.getRowsPrimitive(),
-                    this.model.getColsPrimitive(),
-                    this.gameCanvas.getWidth(),
-                    this.gameCanvas.getHeight());
-        }
-
-        // basically, we delete the grid and re-draw each time
-        this.gc.clearRect(0, 0, this.gameCanvas.getWidth(), this.gameCanvas.getHeight());
-
-        for (int r = 0; r < this.gridMetrics.rows(); r++) {
-            for (int c = 0; c < this.gridMetrics.cols(); c++) {
-                // here the live dead logic will be implemented, for tests we make just white
-
-                if (this.model.getDataGridCoordinate(r, c) == 1) {
-                    this.gc.setFill(Color.BLACK);
-                } else { this.gc.setFill(Color.WHITE); }
-
-                this.gc.fillRect(
-                        this.gridMetrics.offsetX() + c * this.gridMetrics.cellSize(),
-                        this.gridMetrics.offsetY() + r * this.gridMetrics.cellSize(),
-                        this.gridMetrics.cellSize(),
-                        this.gridMetrics.cellSize());
-            }
-        }
-
-        // optional grid, for now mandatory to see that code works (due to only white cells)
-        this.gc.setStroke(Color.GRAY);
-        this.gc.setLineWidth(0.5);
-        for (int r = 0; r <= this.gridMetrics.rows(); r++) {
-            this.gc.strokeLine(
-                    this.gridMetrics.offsetX(),
-                    this.gridMetrics.offsetY() + r * this.gridMetrics.cellSize(),
-                    this.gridMetrics.offsetX() + this.gridMetrics.totalGridWidth(),
-                    this.gridMetrics.offsetY() + r * this.gridMetrics.cellSize());
-        }
-        for (int c = 0; c <= this.gridMetrics.cols(); c++) {
-            this.gc.strokeLine(
-                    this.gridMetrics.offsetX() + c * this.gridMetrics.cellSize(),
-                    this.gridMetrics.offsetY(),
-                    this.gridMetrics.offsetX() + c * this.gridMetrics.cellSize(),
-                    this.gridMetrics.offsetY() + this.gridMetrics.totalGridHeight());
-        }
-
+        boolean running = this.model.getGameStatus().get() == GameStatus.RUNNING && this.displayedSnapshot != null;
+        Grid grid = running ? this.displayedSnapshot.grid() : this.model.getGridData().get();
+        ByteGrid states = running ? this.displayedSnapshot.states() : this.model.getStateData().get();
 
+        this.gridRenderer.render((BitGrid) grid, states);
     }
 }
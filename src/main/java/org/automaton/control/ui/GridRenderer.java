@@ -0,0 +1,592 @@
+package org.automaton.control.ui;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import lombok.Getter;
+import org.automaton.control.game.GridDrawingMetrics;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.grid.ByteGrid;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * The incremental drawing of the board. The cells and the grid lines are on the separate canvas layers,
+ * the lines are drawn again only when the metrics change. The renderer keeps the copy of the last drawn generation,
+ * so only the cells which differ from it are painted, and the frame without any change is not touched at all.
+ * Only the cells inside the canvas are drawn, the view is zoomed and panned by the viewport methods.
+ * The big boards and the small cells are not drawn cell by cell, the cells are written as the pixels into the image
+ * which is scaled to the board without the smoothing. The image covers only the visible cells widened to the whole
+ * blocks, it is painted again when the view moves to the other cells. When the cells are smaller than the pixel,
+ * one pixel of the image is the block of the cells shaded by its population (the level of the density mipmap),
+ * so the image is never much bigger than the screen. The block populations are updated from the changed cells only.
+ * The states of the multi-state rules are colored by the palette, the lookup table of the colors indexed by the state,
+ * the dying cells are shown cell by cell only, the mipmap levels shade the live cells.
+ */
+public class GridRenderer {
+
+    private static final Color LIVE_COLOR = Color.BLACK;
+    private static final Color DEAD_COLOR = Color.WHITE;
+    private static final int LIVE_ARGB = 0xFF000000;
+    private static final int DEAD_ARGB = 0xFFFFFFFF;
+    /** the colors of the first and the last dying state, the states between them are blended */
+    private static final int DYING_FIRST_ARGB = 0xFF1E5AC8;
+    private static final int DYING_LAST_ARGB = 0xFFDCE6F5;
+
+    /** above this number of the visible cells the board is drawn through the image */
+    private static final long BULK_CELL_THRESHOLD = 250_000;
+    /** below this cell size in pixels the board is drawn through the image */
+    private static final double BULK_CELL_SIZE = 2.0;
+    private static final double MIN_ZOOM = 0.05;
+    private static final double MAX_ZOOM = 256;
+
+    private final Canvas cellCanvas;
+    private final Canvas lineCanvas;
+
+    @Getter private double zoom = 1;
+    private double panX;
+    private double panY;
+
+    @Getter private GridDrawingMetrics metrics;
+    /** what the cell layer or the image shows now, null when it must be painted from scratch */
+    private BitGrid drawnGrid;
+    /** the number of the cells painted by the last render, for the profiling */
+    @Getter private long lastPaintedCells;
+    /** true when the board is drawn through the image */
+    @Getter private boolean bulk;
+    /** the mipmap level of the image, one pixel is the block of 2^level x 2^level cells */
+    @Getter private int level;
+
+    /** the cells shown by the image: the visible cells widened to the whole blocks, the ends are exclusive */
+    private int windowRowFrom;
+    private int windowRowTo;
+    private int windowColFrom;
+    private int windowColTo;
+
+    /** the image with one pixel per block of the window and its ARGB backing store */
+    private WritableImage image;
+    private int[] pixels;
+    /** the live cells of every block, only for the levels above 0 */
+    private int[] blockCounts;
+
+    /** the ARGB color of every state and the same colors for the canvas */
+    private int[] palette = palette(2);
+    private Color[] paletteColors = colors(this.palette);
+    /** what the states show now, the dying cells included, null when they must be painted from scratch */
+    private byte[] drawnStates;
+    /** true when the last render has drawn the states */
+    private boolean drawnStatesMode;
+
+    /**
+     * @param cellCanvas - the bottom layer for the cells
+     * @param lineCanvas - the top layer for the grid lines, it should be mouse transparent
+     */
+    public GridRenderer(Canvas cellCanvas, Canvas lineCanvas) {
+        this.cellCanvas = cellCanvas;
+        this.lineCanvas = lineCanvas;
+    }
+
+    /**
+     * Forget the drawn state, the next render paints every layer from scratch
+     */
+    public void invalidate() {
+        this.metrics = null;
+        this.drawnGrid = null;
+        this.drawnStates = null;
+    }
+
+    /**
+     * The palette of the dead, the live and the dying states: white, black and the dying states fading from blue
+     * to almost white
+     * @param states - the number of the states of the rule
+     * @return the ARGB colors indexed by the state
+     */
+    public static int[] palette(int states) {
+        int[] palette = new int[Math.max(2, states)];
+        palette[0] = DEAD_ARGB;
+        palette[1] = LIVE_ARGB;
+        for (int state = 2; state < palette.length; state++) {
+            double t = palette.length == 3 ? 0 : (double) (state - 2) / (palette.length - 3);
+            palette[state] = 0xFF000000 | blend(DYING_FIRST_ARGB, DYING_LAST_ARGB, 16, t)
+                    | blend(DYING_FIRST_ARGB, DYING_LAST_ARGB, 8, t) | blend(DYING_FIRST_ARGB, DYING_LAST_ARGB, 0, t);
+        }
+        return palette;
+    }
+
+    /**
+     * Color the states by the palette of the rule, the board is painted again when the number of the states changes
+     * @param states - the number of the states of the rule
+     */
+    public void setStates(int states) {
+        if (this.palette.length == Math.max(2, states)) return;
+        this.palette = palette(states);
+        this.paletteColors = colors(this.palette);
+        this.drawnStates = null;
+    }
+
+    /**
+     * Zoom the view keeping the point under the cursor in place
+     * @param x - the X coordinate of the cursor on the canvas
+     * @param y - the Y coordinate of the cursor
+     * @param factor - the change of the zoom, above 1 zooms in
+     */
+    public void zoomAt(double x, double y, double factor) {
+        if (this.metrics == null) return;
+        double newZoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, this.zoom * factor));
+        double scale = newZoom / this.zoom;
+
+        // the grid coordinate under the cursor stays the same: new offset = x - (x - offset) * scale
+        double newOffsetX = x - (x - this.metrics.offsetX()) * scale;
+        double newOffsetY = y - (y - this.metrics.offsetY()) * scale;
+        this.panX = newOffsetX - (this.metrics.viewWidth() - this.metrics.totalGridWidth() * scale) / 2;
+        this.panY = newOffsetY - (this.metrics.viewHeight() - this.metrics.totalGridHeight() * scale) / 2;
+        this.zoom = newZoom;
+    }
+
+    /**
+     * @param dx - the shift of the view in pixels
+     * @param dy - the vertical shift in pixels
+     */
+    public void pan(double dx, double dy) {
+        this.panX += dx;
+        this.panY += dy;
+    }
+
+    /**
+     * Fit the whole board into the canvas again
+     */
+    public void resetView() {
+        this.zoom = 1;
+        this.panX = 0;
+        this.panY = 0;
+    }
+
+    /**
+     * Bring the canvas layers to the state of the grid
+     * @param grid - the generation to show
+     */
+    public void render(BitGrid grid) {
+        render(grid, null);
+    }
+
+    /**
+     * Bring the canvas layers to the state of the grid with the states of the multi-state rule.
+     * The live cells of the grid win over the states, so the cells edited in the grid are shown before the next step.
+     * @param grid - the live cells of the generation to show
+     * @param states - the states of the generation, or null for the two-state rules
+     */
+    public void render(BitGrid grid, ByteGrid states) {
+        GridDrawingMetrics next = GridDrawingMetrics.calculate(grid.getRows(), grid.getCols(),
+                this.cellCanvas.getWidth(), this.cellCanvas.getHeight(), this.zoom, this.panX, this.panY);
+        boolean viewChanged = !next.equals(this.metrics);
+        if (viewChanged) {
+            boolean wasBulk = this.bulk;
+            int oldLevel = this.level;
+            this.metrics = next;
+            this.bulk = next.cellSize() < BULK_CELL_SIZE || next.visibleCells() > BULK_CELL_THRESHOLD;
+            this.level = this.bulk && next.cellSize() < 1 ? (int) Math.ceil(-Math.log(next.cellSize()) / Math.log(2)) : 0;
+            // the image is still valid for the moved view which shows the same blocks, the canvas cells are not
+            boolean windowMoved = this.bulk && moveWindow();
+            if (!this.bulk || !wasBulk || this.level != oldLevel || windowMoved) {
+                this.drawnGrid = null;
+                this.drawnStates = null;
+            }
+            drawGridLines();
+        }
+
+        boolean statesMode = states != null && this.level == 0
+                && states.getRows() == grid.getRows() && states.getCols() == grid.getCols();
+        if (statesMode != this.drawnStatesMode) {
+            this.drawnGrid = null;
+            this.drawnStates = null;
+            this.drawnStatesMode = statesMode;
+        }
+        if (statesMode) {
+            renderStates(grid, states, viewChanged);
+            return;
+        }
+
+        boolean full = this.drawnGrid == null
+                || this.drawnGrid.getRows() != grid.getRows() || this.drawnGrid.getCols() != grid.getCols();
+        if (this.bulk) {
+            renderImage(grid, full, viewChanged);
+        } else if (full) {
+            paintAll(grid);
+        } else {
+            paintChanges(grid);
+        }
+        if (full) this.drawnGrid = grid.copy();
+    }
+
+    /**
+     * Write the changed cells of the window into the pixels, upload the changed rows into the image and scale it
+     * onto the canvas
+     * @param grid - the generation to show
+     * @param full - true when every pixel must be written
+     * @param viewChanged - true when the image must be drawn again even without any change
+     */
+    private void renderImage(BitGrid grid, boolean full, boolean viewChanged) {
+        int imageRows = blocks(this.windowRowFrom, this.windowRowTo);
+        int imageCols = blocks(this.windowColFrom, this.windowColTo);
+        long[] words = grid.getWords();
+        int stride = grid.getStride();
+        if (imageRows == 0 || imageCols == 0) {
+            clearImage(viewChanged);
+            return;
+        }
+
+        int firstRow;
+        int lastRow;
+        long painted = 0;
+        if (full) {
+            allocateImage(imageRows, imageCols);
+            if (this.level == 0) {
+                fillCellPixels(words, stride, imageCols);
+            } else {
+                fillBlockPixels(words, stride, imageCols);
+            }
+            firstRow = 0;
+            lastRow = imageRows - 1;
+            painted = (long) imageRows * imageCols;
+        } else {
+            long[] drawn = this.drawnGrid.getWords();
+            firstRow = imageRows;
+            lastRow = -1;
+            // the cells outside of the window are not compared, the moved window paints all its cells again
+            for (int row = this.windowRowFrom; row < this.windowRowTo; row++) {
+                int imageRow = (row - this.windowRowFrom) >> this.level;
+                for (int w = this.windowColFrom >>> 6; w < stride && (w << 6) < this.windowColTo; w++) {
+                    int i = row * stride + w;
+                    long diff = words[i] ^ drawn[i];
+                    if (diff == 0) continue;
+                    drawn[i] = words[i];
+
+                    while (diff != 0) {
+                        int bit = Long.numberOfTrailingZeros(diff);
+                        diff &= diff - 1;
+                        int col = (w << 6) + bit;
+                        if (col < this.windowColFrom || col >= this.windowColTo) continue;
+                        boolean alive = ((words[i] >>> bit) & 1L) != 0;
+                        int pixel = imageRow * imageCols + ((col - this.windowColFrom) >> this.level);
+                        if (this.level == 0) {
+                            this.pixels[pixel] = alive ? LIVE_ARGB : DEAD_ARGB;
+                        } else {
+                            this.blockCounts[pixel] += alive ? 1 : -1;
+                            this.pixels[pixel] = shade(this.blockCounts[pixel]);
+                        }
+                        painted++;
+                        firstRow = Math.min(firstRow, imageRow);
+                        lastRow = imageRow;
+                    }
+                }
+            }
+        }
+        this.lastPaintedCells = painted;
+        drawImage(imageCols, imageRows, firstRow, lastRow, full, viewChanged);
+    }
+
+    /**
+     * Put the window of the image around the visible cells of the metrics
+     * @return true when the window has moved
+     */
+    private boolean moveWindow() {
+        int block = 1 << this.level;
+        int rowFrom = this.metrics.firstVisibleRow() & -block;
+        int rowTo = Math.min(this.metrics.rows(), alignUp(this.metrics.lastVisibleRow(), block));
+        int colFrom = this.metrics.firstVisibleCol() & -block;
+        int colTo = Math.min(this.metrics.cols(), alignUp(this.metrics.lastVisibleCol(), block));
+        boolean moved = rowFrom != this.windowRowFrom || rowTo != this.windowRowTo
+                || colFrom != this.windowColFrom || colTo != this.windowColTo;
+        this.windowRowFrom = rowFrom;
+        this.windowRowTo = rowTo;
+        this.windowColFrom = colFrom;
+        this.windowColTo = colTo;
+        return moved;
+    }
+
+    private static int alignUp(int value, int block) {
+        return (int) Math.min(Integer.MAX_VALUE, ((long) value + block - 1) & -block);
+    }
+
+    /**
+     * @return the number of the blocks of the current level which cover the cells, the last one may be partial
+     */
+    private int blocks(int from, int to) {
+        return to <= from ? 0 : ((to - from - 1) >> this.level) + 1;
+    }
+
+    private void allocateImage(int imageRows, int imageCols) {
+        if (this.image == null || (int) this.image.getWidth() != imageCols || (int) this.image.getHeight() != imageRows) {
+            this.image = new WritableImage(imageCols, imageRows);
+            this.pixels = new int[Math.multiplyExact(imageRows, imageCols)];
+        }
+    }
+
+    /**
+     * Nothing of the board is visible, only the canvas is cleared
+     */
+    private void clearImage(boolean viewChanged) {
+        if (viewChanged) this.cellCanvas.getGraphicsContext2D().clearRect(0, 0, this.cellCanvas.getWidth(), this.cellCanvas.getHeight());
+        this.lastPaintedCells = 0;
+    }
+
+    /**
+     * Upload the changed rows of the pixels into the image and scale it onto the canvas
+     * @param firstRow - the first changed row of the image
+     * @param lastRow - the last changed row, below the first one when nothing has changed
+     */
+    private void drawImage(int imageCols, int imageRows, int firstRow, int lastRow, boolean full, boolean viewChanged) {
+        if (lastRow >= firstRow) {
+            PixelFormat<IntBuffer> format = PixelFormat.getIntArgbPreInstance();
+            this.image.getPixelWriter().setPixels(0, firstRow, imageCols, lastRow - firstRow + 1, format,
+                    this.pixels, firstRow * imageCols, imageCols);
+        } else if (!viewChanged) {
+            return;
+        }
+
+        GraphicsContext gc = this.cellCanvas.getGraphicsContext2D();
+        if (full || viewChanged) gc.clearRect(0, 0, this.cellCanvas.getWidth(), this.cellCanvas.getHeight());
+        gc.setImageSmoothing(false);
+        // the last block may be partial, the image covers the whole blocks
+        double blockSize = this.metrics.cellSize() * (1 << this.level);
+        gc.drawImage(this.image,
+                this.metrics.offsetX() + this.windowColFrom * this.metrics.cellSize(),
+                this.metrics.offsetY() + this.windowRowFrom * this.metrics.cellSize(),
+                imageCols * blockSize, imageRows * blockSize);
+    }
+
+    /**
+     * Draw the states cell by cell, into the pixels of the image for the big boards or onto the canvas,
+     * only the cells whose state differs from the drawn one are written
+     * @param grid - the live cells of the generation
+     * @param states - the states of the generation
+     * @param viewChanged - true when the image must be drawn again even without any change
+     */
+    private void renderStates(BitGrid grid, ByteGrid states, boolean viewChanged) {
+        int cols = grid.getCols();
+        long[] words = grid.getWords();
+        int stride = grid.getStride();
+        byte[] cells = states.getCells();
+        boolean full = this.drawnStates == null || this.drawnStates.length != cells.length;
+        if (full) this.drawnStates = new byte[cells.length];
+
+        // the image covers the window, at the level 0 it is just the visible part of the board as on the canvas
+        int rowFrom = this.metrics.firstVisibleRow();
+        int rowTo = this.metrics.lastVisibleRow();
+        int colFrom = this.metrics.firstVisibleCol();
+        int colTo = this.metrics.lastVisibleCol();
+        int imageRows = Math.max(0, rowTo - rowFrom);
+        int imageCols = Math.max(0, colTo - colFrom);
+
+        GraphicsContext gc = this.cellCanvas.getGraphicsContext2D();
+        if (this.bulk) {
+            if (imageRows == 0 || imageCols == 0) {
+                clearImage(viewChanged);
+                return;
+            }
+            if (full) allocateImage(imageRows, imageCols);
+        } else if (full) {
+            gc.clearRect(0, 0, this.cellCanvas.getWidth(), this.cellCanvas.getHeight());
+            gc.setFill(DEAD_COLOR);
+            gc.fillRect(this.metrics.offsetX(), this.metrics.offsetY(), this.metrics.totalGridWidth(), this.metrics.totalGridHeight());
+        }
+
+        int firstRow = imageRows;
+        int lastRow = -1;
+        long painted = 0;
+        for (int r = rowFrom; r < rowTo; r++) {
+            int base = r * stride;
+            for (int c = colFrom; c < colTo; c++) {
+                int index = r * cols + c;
+                int state;
+                if (((words[base + (c >>> 6)] >>> c) & 1L) != 0) {
+                    state = 1;
+                } else {
+                    state = cells[index] & 0xFF;
+                    if (state == 1) state = 0;
+                }
+                if (!full && this.drawnStates[index] == (byte) state) continue;
+                if (full && state == 0 && !this.bulk) continue;
+
+                this.drawnStates[index] = (byte) state;
+                int color = Math.min(state, this.palette.length - 1);
+                if (this.bulk) {
+                    this.pixels[(r - rowFrom) * imageCols + c - colFrom] = this.palette[color];
+                    firstRow = Math.min(firstRow, r - rowFrom);
+                    lastRow = r - rowFrom;
+                } else {
+                    gc.setFill(this.paletteColors[color]);
+                    fillCell(gc, r, c);
+                }
+                painted++;
+            }
+        }
+        this.lastPaintedCells = painted;
+        if (this.bulk) drawImage(imageCols, imageRows, firstRow, lastRow, full, viewChanged);
+    }
+
+    private void fillCellPixels(long[] words, int stride, int imageCols) {
+        for (int r = this.windowRowFrom; r < this.windowRowTo; r++) {
+            int base = r * stride;
+            int pixel = (r - this.windowRowFrom) * imageCols - this.windowColFrom;
+            for (int c = this.windowColFrom; c < this.windowColTo; c++) {
+                this.pixels[pixel + c] = ((words[base + (c >>> 6)] >>> c) & 1L) != 0 ? LIVE_ARGB : DEAD_ARGB;
+            }
+        }
+    }
+
+    /**
+     * Count the live cells of every block of the window from the set bits and shade the pixels by the counts
+     */
+    private void fillBlockPixels(long[] words, int stride, int imageCols) {
+        if (this.blockCounts == null || this.blockCounts.length != this.pixels.length) {
+            this.blockCounts = new int[this.pixels.length];
+        } else {
+            Arrays.fill(this.blockCounts, 0);
+        }
+        for (int r = this.windowRowFrom; r < this.windowRowTo; r++) {
+            int rowBase = ((r - this.windowRowFrom) >> this.level) * imageCols;
+            for (int w = this.windowColFrom >>> 6; w < stride && (w << 6) < this.windowColTo; w++) {
+                long word = words[r * stride + w];
+                while (word != 0) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    int col = (w << 6) + bit;
+                    if (col < this.windowColFrom || col >= this.windowColTo) continue;
+                    this.blockCounts[rowBase + ((col - this.windowColFrom) >> this.level)]++;
+                }
+            }
+        }
+        for (int i = 0; i < this.pixels.length; i++) {
+            this.pixels[i] = shade(this.blockCounts[i]);
+        }
+    }
+
+    /**
+     * @param count - the live cells of the block
+     * @return the gray which is the darker the denser the block is, any live cell is visible
+     */
+    private int shade(int count) {
+        if (count == 0) return DEAD_ARGB;
+        int cells = 1 << (2 * this.level);
+        int gray = 224 - (int) (224L * count / cells);
+        return 0xFF000000 | (gray << 16) | (gray << 8) | gray;
+    }
+
+    private void paintAll(BitGrid grid) {
+        GraphicsContext gc = this.cellCanvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, this.cellCanvas.getWidth(), this.cellCanvas.getHeight());
+        gc.setFill(DEAD_COLOR);
+        gc.fillRect(this.metrics.offsetX(), this.metrics.offsetY(), this.metrics.totalGridWidth(), this.metrics.totalGridHeight());
+
+        gc.setFill(LIVE_COLOR);
+        long[] words = grid.getWords();
+        int stride = grid.getStride();
+        int colFrom = this.metrics.firstVisibleCol();
+        int colTo = this.metrics.lastVisibleCol();
+        long painted = 0;
+        for (int r = this.metrics.firstVisibleRow(); r < this.metrics.lastVisibleRow(); r++) {
+            for (int w = colFrom >>> 6; w < stride && (w << 6) < colTo; w++) {
+                long word = words[r * stride + w];
+                while (word != 0) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    int col = (w << 6) + bit;
+                    if (col < colFrom || col >= colTo) continue;
+                    fillCell(gc, r, col);
+                    painted++;
+                }
+            }
+        }
+        this.lastPaintedCells = painted;
+    }
+
+    /**
+     * Paint only the visible cells which differ from the drawn grid, the drawn grid is updated on the way
+     */
+    private void paintChanges(BitGrid grid) {
+        GraphicsContext gc = this.cellCanvas.getGraphicsContext2D();
+        long[] words = grid.getWords();
+        long[] drawn = this.drawnGrid.getWords();
+        int stride = grid.getStride();
+        int rowFrom = this.metrics.firstVisibleRow();
+        int rowTo = this.metrics.lastVisibleRow();
+        int colFrom = this.metrics.firstVisibleCol();
+        int colTo = this.metrics.lastVisibleCol();
+        long painted = 0;
+
+        for (int i = 0; i < words.length; i++) {
+            long diff = words[i] ^ drawn[i];
+            if (diff == 0) continue;
+            drawn[i] = words[i];
+
+            int row = i / stride;
+            if (row < rowFrom || row >= rowTo) continue;
+            while (diff != 0) {
+                int bit = Long.numberOfTrailingZeros(diff);
+                diff &= diff - 1;
+                int col = ((i % stride) << 6) + bit;
+                if (col < colFrom || col >= colTo) continue;
+                gc.setFill(((words[i] >>> bit) & 1L) != 0 ? LIVE_COLOR : DEAD_COLOR);
+                fillCell(gc, row, col);
+                painted++;
+            }
+        }
+        this.lastPaintedCells = painted;
+    }
+
+    /**
+     * @return the channel of the color between the two colors, t = 0 is the first color and t = 1 the last one
+     */
+    private static int blend(int from, int to, int shift, double t) {
+        int a = (from >>> shift) & 0xFF;
+        int b = (to >>> shift) & 0xFF;
+        return (int) Math.round(a + (b - a) * t) << shift;
+    }
+
+    private static Color[] colors(int[] palette) {
+        Color[] colors = new Color[palette.length];
+        for (int i = 0; i < palette.length; i++) {
+            int argb = palette[i];
+            colors[i] = Color.rgb((argb >>> 16) & 0xFF, (argb >>> 8) & 0xFF, argb & 0xFF);
+        }
+        return colors;
+    }
+
+    private void fillCell(GraphicsContext gc, int row, int col) {
+        gc.fillRect(
+                this.metrics.offsetX() + col * this.metrics.cellSize(),
+                this.metrics.offsetY() + row * this.metrics.cellSize(),
+                this.metrics.cellSize(),
+                this.metrics.cellSize());
+    }
+
+    private void drawGridLines() {
+        GraphicsContext gc = this.lineCanvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, this.lineCanvas.getWidth(), this.lineCanvas.getHeight());
+        if (this.bulk) return;
+
+        int rowFrom = this.metrics.firstVisibleRow();
+        int rowTo = this.metrics.lastVisibleRow();
+        int colFrom = this.metrics.firstVisibleCol();
+        int colTo = this.metrics.lastVisibleCol();
+        double left = this.metrics.offsetX() + colFrom * this.metrics.cellSize();
+        double right = this.metrics.offsetX() + colTo * this.metrics.cellSize();
+        double top = this.metrics.offsetY() + rowFrom * this.metrics.cellSize();
+        double bottom = this.metrics.offsetY() + rowTo * this.metrics.cellSize();
+
+        gc.setStroke(Color.GRAY);
+        gc.setLineWidth(0.5);
+        for (int r = rowFrom; r <= rowTo; r++) {
+            double y = this.metrics.offsetY() + r * this.metrics.cellSize();
+            gc.strokeLine(left, y, right, y);
+        }
+        for (int c = colFrom; c <= colTo; c++) {
+            double x = this.metrics.offsetX() + c * this.metrics.cellSize();
+            gc.strokeLine(x, top, x, bottom);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.automaton.control.ui;
+
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.value.ObservableBooleanValue;
+import org.automaton.control.enums.GameStatus;
+import org.automaton.control.model.GameConfigModel;
+
+import java.util.function.LongConsumer;
+
+/**
+ * The link between the history slider and the model. The slider spans the generations kept in the history and
+ * follows the shown generation, its range and position are set from the model, not bound, so the slider clamps
+ * its position on every change of the range. Those changes are made under the guard and never rewind the game,
+ * only the position set by the user does: the released drag or the click and the key on the idle slider.
+ */
+public class HistoryScrubber {
+
+    private final GameConfigModel model;
+    private final DoubleProperty min;
+    private final DoubleProperty max;
+    private final DoubleProperty value;
+    private final ObservableBooleanValue valueChanging;
+    /** true while the slider is updated from the model */
+    private boolean updating;
+    private LongConsumer onRewind = epoch -> {};
+
+    /**
+     * @param model - the model with the history range and the shown generation
+     * @param min - the lower end of the slider
+     * @param max - the upper end of the slider
+     * @param value - the position of the slider
+     * @param valueChanging - true while the slider is dragged
+     */
+    public HistoryScrubber(GameConfigModel model, DoubleProperty min, DoubleProperty max, DoubleProperty value,
+                           ObservableBooleanValue valueChanging) {
+        this.model = model;
+        this.min = min;
+        this.max = max;
+        this.value = value;
+        this.valueChanging = valueChanging;
+
+        this.model.getHistoryOldest().addListener((obs, oldVal, newVal) -> sync());
+        this.model.getHistoryNewest().addListener((obs, oldVal, newVal) -> sync());
+        this.model.getEpochCount().addListener((obs, oldVal, newVal) -> sync());
+        // the rewind happens when the slider is released, not on every position of the drag
+        this.valueChanging.addListener((obs, wasChanging, changing) -> {
+            if (!changing) rewind();
+        });
+        this.value.addListener((obs, oldVal, newVal) -> {
+            if (!this.valueChanging.get()) rewind();
+        });
+        sync();
+    }
+
+    /**
+     * @param onRewind - takes the generation the user has chosen on the slider
+     */
+    public void setOnRewind(LongConsumer onRewind) {
+        this.onRewind = onRewind;
+    }
+
+    /**
+     * Put the history range and the shown generation on the slider, the dragged slider keeps its position
+     */
+    private void sync() {
+        double oldest = this.model.getHistoryOldest().get();
+        double newest = this.model.getHistoryNewest().get();
+        this.updating = true;
+        try {
+            // the ends are moved in the order which never puts the lower end above the upper one
+            if (newest >= this.min.get()) {
+                this.max.set(newest);
+                this.min.set(oldest);
+            } else {
+                this.min.set(oldest);
+                this.max.set(newest);
+            }
+            if (!this.valueChanging.get()) this.value.set(this.model.getEpochCountPrimitive());
+        } finally {
+            this.updating = false;
+        }
+    }
+
+    private void rewind() {
+        if (this.updating || this.model.getGameStatus().get() == GameStatus.RUNNING) return;
+
+        long epoch = Math.round(this.value.get());
+        if (epoch != this.model.getEpochCountPrimitive()) this.onRewind.accept(epoch);
+    }
+}
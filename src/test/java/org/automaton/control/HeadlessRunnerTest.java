@@ -0,0 +1,85 @@
+package org.automaton.control;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.enums.NeighborhoodType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class HeadlessRunnerTest {
+
+    @Test
+    void parse_GivenOptions_OverrideDefaults() {
+        HeadlessRunner.Options options = HeadlessRunner.parse(new String[]{
+                "--rows", "10", "--cols", "20", "--mode", "infinite", "--neighborhood", "VON_NEUMANN",
+                "--seed", "7", "--live", "50", "--generations", "3", "--stats", "-"});
+
+        assertThat(options.rows()).isEqualTo(10);
+        assertThat(options.cols()).isEqualTo(20);
+        assertThat(options.mapMode()).isEqualTo(MapMode.INFINITE);
+        assertThat(options.neighborhood()).isEqualTo(NeighborhoodType.VON_NEUMANN);
+        assertThat(options.seed()).isEqualTo(7);
+        assertThat(options.livePercent()).isEqualTo(50);
+        assertThat(options.generations()).isEqualTo(3);
+        assertThat(options.threads()).isEqualTo(1);
+        assertThat(options.statsPath()).isEqualTo("-");
+        assertThat(options.outPath()).isNull();
+    }
+
+    @Test
+    void parse_UnknownOption_Throws() {
+        assertThatThrownBy(() -> HeadlessRunner.parse(new String[]{"--speed", "1"}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HeadlessRunner.parse(new String[]{"--rows"}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HeadlessRunner.parse(new String[]{"--rows", "x"}))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("--rows");
+        assertThatThrownBy(() -> HeadlessRunner.parse(new String[]{"--mode", "UNBOUNDED", "--rule", "B0/S"}))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("UNBOUNDED");
+    }
+
+    @Test
+    void run_SameSeed_SameResultAndOneStatsLinePerGeneration() throws IOException {
+        HeadlessRunner.Options options = HeadlessRunner.parse(new String[]{
+                "--rows", "50", "--cols", "70", "--mode", "INFINITE", "--seed", "42", "--generations", "25"});
+
+        StringWriter stats = new StringWriter();
+        HeadlessRunner.Result first = HeadlessRunner.run(options, stats);
+        HeadlessRunner.Result second = HeadlessRunner.run(options, null);
+
+        assertThat(first.epoch()).isEqualTo(25);
+        assertThat(first.liveCount()).isEqualTo(first.grid().countLive());
+        assertThat(first.grid().getWords()).isEqualTo(second.grid().getWords());
+
+        String[] lines = stats.toString().split("\n");
+        assertThat(lines).hasSize(27);
+        assertThat(lines[0]).isEqualTo("generation,live,nanos");
+        assertThat(lines[26]).startsWith("25," + first.liveCount() + ",");
+    }
+
+    @Test
+    void run_CycleLimit_SkipsTheRestWithTheSameResult() throws IOException {
+        String[] args = {"--rows", "24", "--cols", "24", "--neighborhood", "MOORE", "--seed", "3", "--generations", "5000"};
+        HeadlessRunner.Options stepping = HeadlessRunner.parse(args);
+        String[] detectingArgs = Arrays.copyOf(args, args.length + 2);
+        detectingArgs[args.length] = "--cycle-limit";
+        detectingArgs[args.length + 1] = "64";
+        HeadlessRunner.Options detecting = HeadlessRunner.parse(detectingArgs);
+
+        HeadlessRunner.Result expected = HeadlessRunner.run(stepping, null);
+        StringWriter stats = new StringWriter();
+        HeadlessRunner.Result result = HeadlessRunner.run(detecting, stats);
+
+        assertThat(detecting.cycleLimit()).isEqualTo(64);
+        assertThat(result.period()).isPositive();
+        assertThat(result.epoch()).isEqualTo(5000);
+        assertThat(result.grid().getWords()).isEqualTo(expected.grid().getWords());
+        // the stats end with the generation the cycle was detected in
+        assertThat(stats.toString().split("\n").length).isLessThan(5000);
+    }
+}
@@ -0,0 +1,38 @@
+package org.automaton.control;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.enums.NeighborhoodType;
+import org.automaton.control.sweep.SweepParameters;
+import org.automaton.control.sweep.SweepSeeds;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SweepRunnerTest {
+
+    @Test
+    void parse_GivenOptions_OverrideDefaults() {
+        SweepRunner.Options options = SweepRunner.parse(new String[]{
+                "--live", "10,50", "--neighborhood", "moore,von_neumann", "--mode", "FINITE,INFINITE",
+                "--size", "32", "--seeds", "3..6", "--generations", "100", "--parallel", "2", "--memory", "1"});
+
+        SweepParameters parameters = options.parameters();
+        assertThat(parameters.livePercents()).containsExactly(10, 50);
+        assertThat(parameters.neighborhoods()).containsExactly(NeighborhoodType.MOORE, NeighborhoodType.VON_NEUMANN);
+        assertThat(parameters.mapModes()).containsExactly(MapMode.FINITE, MapMode.INFINITE);
+        assertThat(parameters.seeds()).isEqualTo(new SweepSeeds.Range(3, 6));
+        assertThat(parameters.memoryLimit()).isEqualTo(1 << 20);
+        assertThat(parameters.size()).isEqualTo(32);
+        assertThat(options.parallel()).isEqualTo(2);
+        assertThat(options.outPath()).isNull();
+    }
+
+    @Test
+    void parse_InvalidOptions_Throws() {
+        assertThatThrownBy(() -> SweepRunner.parse(new String[]{"--seeds", "5..1"})).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SweepRunner.parse(new String[]{"--speed", "1"})).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SweepRunner.parse(new String[]{"--size", "x"}))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("--size");
+    }
+}
@@ -1,11 +1,20 @@
 package org.automaton.control.game;
 
 import org.automaton.control.enums.GameStatus;
+import org.automaton.control.enums.MapMode;
 import org.automaton.control.enums.NeighborhoodType;
+import org.automaton.control.enums.RunMode;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.grid.Grid;
+import org.automaton.control.game.grid.RandomFill;
+import org.automaton.control.game.io.BoardState;
 import org.automaton.control.model.GameConfigModel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class GameEngineTest {
@@ -33,8 +42,11 @@ public class GameEngineTest {
                 {0, 1, 1, 0, 0}
         };
 
-        this.model.getGridData().set(grid);
+        this.model.getGridData().set(BitGrid.of(grid));
         this.model.getSelectedNeighborhood().set(NeighborhoodType.MOORE);
+        this.model.getSelectedMode().set(MapMode.FINITE);
+        this.model.getRunMode().set(RunMode.FIXED_RATE);
+        this.model.getGenerationLimit().set(0);
 
         this.gameEngine.setSelectedNeighborhoodStrategy();
     }
@@ -72,6 +84,181 @@ public class GameEngineTest {
                 {0, 1, 0, 0, 0}
         };
 
-        assertThat(model.getGridData().get()).isEqualTo(resultGrid);
+        assertThat(model.getGridData().get().toArray()).isEqualTo(resultGrid);
+    }
+
+    @Test
+    void performOneEpochIteration_SwapsFrontAndBackBuffers(){
+        Grid first = this.model.getGridData().get();
+
+        this.gameEngine.performOneEpochIteration();
+        Grid second = this.model.getGridData().get();
+        this.gameEngine.performOneEpochIteration();
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(this.model.getGridData().get()).isSameAs(first);
+    }
+
+    @Test
+    void toggleDataGridCoordinate_MutatesInPlace_MarksDirty(){
+        Grid grid = this.model.getGridData().get();
+        long revision = this.model.getGridRevision().get();
+
+        this.model.toggleDataGridCoordinate(0, 0);
+
+        assertThat(this.model.getGridData().get()).isSameAs(grid);
+        assertThat(grid.get(0, 0)).isEqualTo(1);
+        assertThat(this.model.getGridRevision().get()).isEqualTo(revision + 1);
+    }
+
+    @Test
+    void startGame_PublishesSnapshotsOffThread_StopSyncsModel() throws InterruptedException {
+        this.gameEngine.startGame();
+
+        GenerationSnapshot snapshot = null;
+        for (int i = 0; i < 200 && snapshot == null; i++) {
+            snapshot = this.gameEngine.getSnapshots().poll();
+            if (snapshot == null) Thread.sleep(10);
+        }
+        this.gameEngine.stopSimulation();
+
+        assertThat(snapshot).isNotNull();
+        assertThat(snapshot.epoch()).isEqualTo(1);
+        assertThat(snapshot.liveCount()).isEqualTo(5);
+        assertThat(this.model.getEpochCountPrimitive()).isGreaterThanOrEqualTo(1);
+        assertThat(this.gameEngine.getSnapshots().poll()).isNull();
+    }
+
+    @Test
+    void startGame_MaxSpeedWithLimit_StopsAfterLimit() throws InterruptedException {
+        this.model.getRunMode().set(RunMode.MAX_SPEED);
+        this.model.getGenerationLimit().set(1000);
+        this.gameEngine.startGame();
+
+        GenerationSnapshot snapshot = null;
+        for (int i = 0; i < 500 && (snapshot == null || !snapshot.finished()); i++) {
+            GenerationSnapshot polled = this.gameEngine.getSnapshots().poll();
+            if (polled != null) snapshot = polled;
+            else Thread.sleep(10);
+        }
+        this.gameEngine.stopSimulation();
+
+        assertThat(snapshot).isNotNull();
+        assertThat(snapshot.finished()).isTrue();
+        assertThat(snapshot.epoch()).isEqualTo(1000);
+        assertThat(this.model.getEpochCountPrimitive()).isEqualTo(1000);
+    }
+
+    @Test
+    void jumpGenerations_RunsOffThread_PublishesFinishedSnapshot() throws InterruptedException {
+        this.gameEngine.jumpGenerations(500);
+
+        GenerationSnapshot snapshot = null;
+        for (int i = 0; i < 500 && snapshot == null; i++) {
+            snapshot = this.gameEngine.getSnapshots().poll();
+            if (snapshot == null) Thread.sleep(10);
+        }
+        this.gameEngine.stopSimulation();
+
+        assertThat(snapshot).isNotNull();
+        assertThat(snapshot.finished()).isTrue();
+        assertThat(snapshot.epoch()).isEqualTo(500);
+        assertThat(this.model.getEpochCountPrimitive()).isEqualTo(500);
+    }
+
+    @Test
+    void jumpGenerations_Stopped_CancelsAtReachedGeneration() {
+        BitGrid board = new BitGrid(256, 256);
+        RandomFill.fill(board, 0.3, 42);
+        this.model.getGridData().set(board);
+        this.model.getCycleLimit().set(0);
+        this.gameEngine.jumpGenerations(Integer.MAX_VALUE);
+
+        this.gameEngine.stopSimulation();
+
+        assertThat(this.model.getEpochCountPrimitive()).isLessThan(Integer.MAX_VALUE);
+        assertThat(this.gameEngine.getSnapshots().poll()).isNull();
+    }
+
+    @Test
+    void captureBoard_Running_CopiedBySimulationThread() throws Exception {
+        this.model.getRunMode().set(RunMode.MAX_SPEED);
+        this.gameEngine.startGame();
+
+        BoardState state = this.gameEngine.captureBoard().get(5, TimeUnit.SECONDS);
+        this.gameEngine.stopSimulation();
+
+        assertThat(state.mapMode()).isEqualTo(MapMode.FINITE);
+        assertThat(state.neighborhood()).isEqualTo(NeighborhoodType.MOORE);
+        assertThat(state.rule()).isEqualTo(this.model.getActiveRule());
+        assertThat(state.epoch()).isGreaterThanOrEqualTo(1);
+        // the private copy, not the grid the simulation goes on with
+        assertThat(state.grid()).isNotSameAs(this.model.getGridData().get());
+        assertThat(state.grid().getRows()).isEqualTo(5);
+    }
+
+    @Test
+    void captureBoard_Stopped_CopiesModelGrid() {
+        CompletableFuture<BoardState> capture = this.gameEngine.captureBoard();
+
+        assertThat(capture).isDone();
+        BoardState state = capture.join();
+        assertThat(state.epoch()).isZero();
+        assertThat(state.grid()).isNotSameAs(this.model.getGridData().get());
+        assertThat(state.grid().getWords()).isEqualTo(((BitGrid) this.model.getGridData().get()).getWords());
+    }
+
+    @Test
+    void performOneEpochIteration_Unbounded_GliderLeavesTheBoardAlive() {
+        int[][] glider = {
+                {0, 1, 0, 0, 0},
+                {0, 0, 1, 0, 0},
+                {1, 1, 1, 0, 0},
+                {0, 0, 0, 0, 0},
+                {0, 0, 0, 0, 0}
+        };
+        this.model.getGridData().set(BitGrid.of(glider));
+        this.model.getSelectedMode().set(MapMode.UNBOUNDED);
+        this.gameEngine.setSelectedNeighborhoodStrategy();
+        this.gameEngine.resetGame();
+        this.model.getGridData().set(BitGrid.of(glider));
+
+        for (int i = 0; i < 40; i++) {
+            this.gameEngine.performOneEpochIteration();
+        }
+
+        // the glider is 10 cells away from the board, it has not wrapped and it still lives
+        assertThat(this.model.getGridData().get().countLive()).isZero();
+        assertThat(this.model.getLiveCount().get()).isEqualTo(5);
+    }
+
+    @Test
+    void rewindTo_RecordedGeneration_RestoresAndStepsOnFromIt(){
+        this.gameEngine.resetGame();
+        this.model.getGridData().set(BitGrid.of(new int[][]{
+                {0, 1, 0, 0, 0, 0},
+                {0, 0, 1, 0, 0, 0},
+                {1, 1, 1, 0, 0, 0},
+                {0, 0, 0, 0, 0, 0},
+                {0, 0, 0, 0, 0, 0},
+                {0, 0, 0, 0, 0, 0}
+        }));
+        this.model.markGridDirty();
+
+        this.gameEngine.performOneEpochIteration();
+        int[][] first = this.model.getGridData().get().toArray();
+        this.gameEngine.performOneEpochIteration();
+        this.gameEngine.performOneEpochIteration();
+        int[][] third = this.model.getGridData().get().toArray();
+
+        assertThat(this.model.getHistoryNewest().get()).isEqualTo(3);
+        assertThat(this.gameEngine.rewindTo(1)).isTrue();
+        assertThat(this.model.getEpochCountPrimitive()).isEqualTo(1);
+        assertThat(this.model.getGridData().get().toArray()).isEqualTo(first);
+        assertThat(this.gameEngine.rewindTo(7)).isFalse();
+
+        this.gameEngine.performOneEpochIteration();
+        this.gameEngine.performOneEpochIteration();
+        assertThat(this.model.getGridData().get().toArray()).isEqualTo(third);
     }
 }
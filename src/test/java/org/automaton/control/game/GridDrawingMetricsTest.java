@@ -0,0 +1,36 @@
+package org.automaton.control.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GridDrawingMetricsTest {
+
+    @Test
+    void cellAt_FittedGrid_HitsTheCellUnderThePoint() {
+        GridDrawingMetrics metrics = GridDrawingMetrics.calculate(10, 20, 400, 300);
+
+        // 20 columns fit into 300 px, so the cell is 15 px and the grid is centered horizontally
+        assertThat(metrics.cellSize()).isEqualTo(15);
+        assertThat(metrics.offsetX()).isEqualTo(50);
+        assertThat(metrics.cellAt(50 + 15 * 3 + 1, 75 + 15 * 2 + 1)).isEqualTo(new GridPoint(2, 3));
+        assertThat(metrics.cellAt(49, 80)).isNull();
+        assertThat(metrics.visibleCells()).isEqualTo(200);
+    }
+
+    @Test
+    void visibleRange_ZoomedAndPanned_CoversOnlyTheCanvas() {
+        GridDrawingMetrics metrics = GridDrawingMetrics.calculate(1000, 1000, 500, 500, 10, 0, 0);
+
+        // the cell is 5 px, the center of the grid is in the center of the canvas
+        assertThat(metrics.cellSize()).isEqualTo(5);
+        assertThat(metrics.firstVisibleRow()).isEqualTo(450);
+        assertThat(metrics.lastVisibleRow()).isEqualTo(550);
+        assertThat(metrics.visibleCells()).isEqualTo(100 * 100);
+        assertThat(metrics.cellAt(0, 0)).isEqualTo(new GridPoint(450, 450));
+
+        GridDrawingMetrics panned = GridDrawingMetrics.calculate(1000, 1000, 500, 500, 10, 50, 0);
+        assertThat(panned.firstVisibleCol()).isEqualTo(440);
+        assertThat(panned.cellAt(0, 0)).isEqualTo(new GridPoint(450, 440));
+    }
+}
@@ -0,0 +1,63 @@
+package org.automaton.control.game.grid;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BitGridTest {
+
+    @Test
+    void setAndGet_AcrossWordBoundary_KeepsNeighboursIntact() {
+        BitGrid grid = new BitGrid(3, 130);
+
+        grid.set(1, 63, 1);
+        grid.set(1, 64, 1);
+        grid.set(2, 129, 1);
+
+        assertThat(grid.get(1, 63)).isEqualTo(1);
+        assertThat(grid.get(1, 64)).isEqualTo(1);
+        assertThat(grid.get(1, 62)).isEqualTo(0);
+        assertThat(grid.get(2, 129)).isEqualTo(1);
+        assertThat(grid.get(0, 129)).isEqualTo(0);
+        assertThat(grid.countLive()).isEqualTo(3);
+
+        grid.set(1, 64, 0);
+        assertThat(grid.get(1, 64)).isEqualTo(0);
+        assertThat(grid.get(1, 63)).isEqualTo(1);
+    }
+
+    @Test
+    void stride_IsPaddedToWholeWords() {
+        BitGrid grid = new BitGrid(10, 65);
+
+        assertThat(grid.getStride()).isEqualTo(2);
+        assertThat(grid.getWords()).hasSize(20);
+        assertThat(grid.lastWordMask()).isEqualTo(1L);
+    }
+
+    @Test
+    void ofAndToArray_RoundTrip() {
+        int[][] cells = {
+                {0, 1, 0},
+                {1, 1, 0}
+        };
+
+        assertThat(BitGrid.of(cells).toArray()).isEqualTo(cells);
+        assertThat(BitGrid.of(cells).copy().toArray()).isEqualTo(cells);
+    }
+
+    @Test
+    void setRun_AcrossWords_SetsOnlyTheRun() {
+        BitGrid grid = new BitGrid(3, 200);
+
+        grid.setRun(1, 60, 190);
+        grid.setRun(2, 3, 5);
+
+        assertThat(grid.countLive()).isEqualTo(132);
+        assertThat(grid.get(1, 59)).isZero();
+        assertThat(grid.get(1, 60)).isEqualTo(1);
+        assertThat(grid.get(1, 189)).isEqualTo(1);
+        assertThat(grid.get(1, 190)).isZero();
+        assertThat(grid.get(2, 4)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,44 @@
+package org.automaton.control.game.grid;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class RandomFillTest {
+
+    @Test
+    void fill_SameSeed_SameBoard() {
+        BitGrid first = new BitGrid(300, 333);
+        BitGrid second = new BitGrid(300, 333);
+        BitGrid other = new BitGrid(300, 333);
+
+        RandomFill.fill(first, 0.3, 42);
+        RandomFill.fill(second, 0.3, 42);
+        RandomFill.fill(other, 0.3, 43);
+
+        assertThat(first.getWords()).isEqualTo(second.getWords());
+        assertThat(first.getWords()).isNotEqualTo(other.getWords());
+    }
+
+    @Test
+    void fill_Density_LiveCellsCloseToIt() {
+        BitGrid grid = new BitGrid(500, 500);
+        for (double density : new double[]{0.05, 0.2, 0.5, 0.8}) {
+            RandomFill.fill(grid, density, 7);
+            assertThat(grid.countLive() / 250_000.0).isCloseTo(density, within(0.01));
+        }
+    }
+
+    @Test
+    void fill_Edges_EmptyOrFullWithoutPaddingBits() {
+        BitGrid grid = new BitGrid(10, 70);
+
+        RandomFill.fill(grid, 1, 1);
+        assertThat(grid.countLive()).isEqualTo(700);
+        assertThat(grid.getWords()[grid.rowOffset(3) + 1]).isEqualTo(grid.lastWordMask());
+
+        RandomFill.fill(grid, 0, 1);
+        assertThat(grid.countLive()).isZero();
+    }
+}
@@ -0,0 +1,51 @@
+package org.automaton.control.game.grid;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SparseGridTest {
+
+    @Test
+    void set_AllocatesAndFreesChunks() {
+        SparseGrid grid = new SparseGrid();
+
+        grid.set(-1, -1, 1);
+        grid.set(1_000_000, 5_000_000_000L, 1);
+
+        assertThat(grid.getChunkCount()).isEqualTo(2);
+        assertThat(grid.get(-1, -1)).isEqualTo(1);
+        assertThat(grid.get(-1, 0)).isEqualTo(0);
+        assertThat(grid.get(1_000_000, 5_000_000_000L)).isEqualTo(1);
+        assertThat(grid.countLive()).isEqualTo(2);
+
+        grid.set(-1, -1, 0);
+        assertThat(grid.getChunkCount()).isEqualTo(1);
+    }
+
+    @Test
+    void pasteAndCopyWindow_AtUnalignedOrigin_KeepTheCellsAround() {
+        SparseGrid grid = new SparseGrid();
+        grid.set(-10, -40, 1);
+        grid.set(5, 200, 1);
+
+        BitGrid window = new BitGrid(20, 130);
+        window.set(0, 0, 1);
+        window.set(19, 129, 1);
+        grid.pasteWindow(window, -3, -37);
+
+        assertThat(grid.get(-3, -37)).isEqualTo(1);
+        assertThat(grid.get(16, 92)).isEqualTo(1);
+        assertThat(grid.get(-10, -40)).isEqualTo(1);
+        assertThat(grid.get(5, 200)).isEqualTo(1);
+        assertThat(grid.countLive()).isEqualTo(4);
+
+        BitGrid copy = new BitGrid(20, 130);
+        grid.copyWindow(copy, -3, -37);
+        assertThat(copy.getWords()).isEqualTo(window.getWords());
+
+        // the empty window clears its part of the plane
+        grid.pasteWindow(new BitGrid(20, 130), -3, -37);
+        assertThat(grid.countLive()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,114 @@
+package org.automaton.control.game.hashlife;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.enums.NeighborhoodType;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.kernel.BitwiseLifeKernel;
+import org.automaton.control.game.kernel.StencilKernel;
+import org.automaton.control.game.rule.LifeRule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HashLifeTest {
+
+    private static BitGrid randomGrid(int rows, int cols, long seed) {
+        Random random = new Random(seed);
+        BitGrid grid = new BitGrid(rows, cols);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                grid.set(r, c, random.nextInt(100) < 30 ? 1 : 0);
+            }
+        }
+        return grid;
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1, 2, 7, 64, 100, 333})
+    void advanceTorus_MatchesStepByStepKernel(long generations) {
+        BitGrid expected = randomGrid(37, 50, generations);
+        BitGrid jumped = expected.copy();
+
+        BitwiseLifeKernel kernel = new BitwiseLifeKernel(MapMode.INFINITE);
+        BitGrid back = new BitGrid(37, 50);
+        int expectedLive = expected.countLive();
+        for (long i = 0; i < generations; i++) {
+            expectedLive = kernel.step(expected, back);
+            BitGrid swap = expected; expected = back; back = swap;
+        }
+
+        long advanced = new HashLife(100_000).advanceTorus(jumped, generations);
+
+        assertThat(jumped.getWords()).isEqualTo(expected.getWords());
+        assertThat(jumped.countLive()).isEqualTo(expectedLive);
+        assertThat(advanced).isEqualTo(generations);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"B36/S23", "B2/S", "B3678/S34678"})
+    void advanceTorus_OtherRules_MatchStencilKernel(String rulestring) {
+        LifeRule rule = LifeRule.parse(rulestring);
+        BitGrid expected = randomGrid(40, 45, rulestring.length());
+        BitGrid jumped = expected.copy();
+
+        StencilKernel kernel = new StencilKernel(NeighborhoodType.MOORE.getStrategy(), rule, MapMode.INFINITE);
+        BitGrid back = new BitGrid(40, 45);
+        for (int i = 0; i < 50; i++) {
+            kernel.step(expected, back);
+            BitGrid swap = expected; expected = back; back = swap;
+        }
+
+        new HashLife(100_000, rule).advanceTorus(jumped, 50);
+
+        assertThat(jumped.getWords()).isEqualTo(expected.getWords());
+    }
+
+    @Test
+    void advanceTorus_RepeatedJumps_ReuseTheCache() {
+        BitGrid grid = new BitGrid(64, 64);
+        // a block and a blinker, they are stable or periodic
+        grid.set(10, 10, 1); grid.set(10, 11, 1); grid.set(11, 10, 1); grid.set(11, 11, 1);
+        grid.set(40, 40, 1); grid.set(40, 41, 1); grid.set(40, 42, 1);
+
+        HashLife hashLife = new HashLife(100_000);
+        hashLife.advanceTorus(grid, 16);
+        long missesAfterFirst = hashLife.getStats().misses();
+        hashLife.advanceTorus(grid, 16);
+
+        assertThat(grid.countLive()).isEqualTo(7);
+        assertThat(hashLife.getStats().misses()).isEqualTo(missesAfterFirst);
+        assertThat(hashLife.getStats().hitRate()).isGreaterThan(0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {64, 48})
+    void advanceTorus_HugeJump_SameAsTheRestOfThePeriod(int rows) {
+        int cols = 80;
+        // the glider moves by one cell diagonally in 4 generations, it is back after 4 * lcm(rows, cols) generations
+        long period = 4L * rows * cols / gcd(rows, cols);
+        long generations = (1L << 50) + 12345;
+        BitGrid expected = new BitGrid(rows, cols);
+        expected.set(1, 2, 1); expected.set(2, 3, 1); expected.set(3, 1, 1); expected.set(3, 2, 1); expected.set(3, 3, 1);
+        BitGrid jumped = expected.copy();
+
+        BitwiseLifeKernel kernel = new BitwiseLifeKernel(MapMode.INFINITE);
+        BitGrid back = new BitGrid(rows, cols);
+        for (long i = 0; i < generations % period; i++) {
+            kernel.step(expected, back);
+            BitGrid swap = expected; expected = back; back = swap;
+        }
+
+        long advanced = new HashLife(100_000).advanceTorus(jumped, generations);
+
+        assertThat(advanced).isEqualTo(generations);
+        assertThat(jumped.getWords()).isEqualTo(expected.getWords());
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+}
@@ -0,0 +1,161 @@
+package org.automaton.control.game.history;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.enums.NeighborhoodType;
+import org.automaton.control.game.Simulation;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.grid.RandomFill;
+import org.automaton.control.game.kernel.ActiveTileKernel;
+import org.automaton.control.game.kernel.StencilKernel;
+import org.automaton.control.game.rule.LifeRule;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CycleDetectorTest {
+
+    private final StencilKernel kernel = new StencilKernel(NeighborhoodType.MOORE.getStrategy(), MapMode.INFINITE);
+
+    /**
+     * @return the number of the generations until the detector reports the period, or -1 when it does not within the limit
+     */
+    private int detect(CycleDetector detector, BitGrid grid, int limit) {
+        detector.reset(grid);
+        BitGrid back = new BitGrid(grid.getRows(), grid.getCols());
+        for (int generation = 1; generation <= limit; generation++) {
+            this.kernel.step(grid, back);
+            if (detector.update(grid, back) > 0) return generation;
+            BitGrid swap = grid; grid = back; back = swap;
+        }
+        return -1;
+    }
+
+    private static BitGrid glider(int size) {
+        BitGrid grid = new BitGrid(size, size);
+        grid.set(0, 1, 1);
+        grid.set(1, 2, 1);
+        grid.set(2, 0, 1);
+        grid.set(2, 1, 1);
+        grid.set(2, 2, 1);
+        return grid;
+    }
+
+    @Test
+    void update_IncrementalHash_EqualsTheHashOfTheWholeGeneration() {
+        BitGrid grid = new BitGrid(50, 130);
+        RandomFill.fill(grid, 0.3, 5);
+        BitGrid back = new BitGrid(50, 130);
+        CycleDetector detector = new CycleDetector(8, 1);
+        detector.reset(grid);
+
+        for (int generation = 0; generation < 20; generation++) {
+            this.kernel.step(grid, back);
+            detector.update(grid, back);
+            assertThat(detector.getHash()).isEqualTo(CycleDetector.hash(back));
+            BitGrid swap = grid; grid = back; back = swap;
+        }
+    }
+
+    @Test
+    void updateTiles_ChangedTilesOfActiveTileKernel_SameHashAsTheWholeGeneration() {
+        // the small soup in the corner of the big board, most tiles never change
+        BitGrid soup = new BitGrid(40, 60);
+        RandomFill.fill(soup, 0.3, 11);
+        BitGrid grid = new BitGrid(512, 1024);
+        for (int r = 0; r < 40; r++) {
+            for (int c = 0; c < 60; c++) grid.set(r + 10, c + 10, soup.get(r, c));
+        }
+        BitGrid back = new BitGrid(512, 1024);
+        CycleDetector detector = new CycleDetector(8, 1);
+        detector.reset(grid);
+
+        try (ActiveTileKernel tiles = new ActiveTileKernel(
+                () -> new StencilKernel(NeighborhoodType.MOORE.getStrategy(), MapMode.INFINITE), 1, MapMode.INFINITE, 1)) {
+            for (int generation = 0; generation < 300; generation++) {
+                tiles.step(grid, back);
+                detector.update(grid, back, tiles.getChangedTiles(), ActiveTileKernel.TILE_ROWS);
+                assertThat(detector.getHash()).as("generation " + generation).isEqualTo(CycleDetector.hash(back));
+                BitGrid swap = grid; grid = back; back = swap;
+            }
+            assertThat(tiles.getActiveTileRatio()).isLessThan(0.5);
+        }
+    }
+
+    @Test
+    void update_StillLifeAndBlinker_ReportTheirPeriods() {
+        BitGrid block = new BitGrid(10, 10);
+        block.set(4, 4, 1);
+        block.set(4, 5, 1);
+        block.set(5, 4, 1);
+        block.set(5, 5, 1);
+        CycleDetector stillLife = new CycleDetector(10, 1);
+        assertThat(detect(stillLife, block, 10)).isEqualTo(1);
+        assertThat(stillLife.getPeriod()).isEqualTo(1);
+
+        BitGrid blinker = new BitGrid(10, 70);
+        blinker.setRun(5, 62, 65);
+        CycleDetector oscillator = new CycleDetector(10, 1);
+        assertThat(detect(oscillator, blinker, 10)).isEqualTo(2);
+        assertThat(oscillator.getPeriod()).isEqualTo(2);
+    }
+
+    @Test
+    void update_GliderOnTheTorus_OnlyWithinTheLimit() {
+        // the glider moves by one cell in 4 generations, it comes back on the 16x16 torus after 64
+        CycleDetector wide = new CycleDetector(100, 1);
+        assertThat(detect(wide, glider(16), 200)).isEqualTo(64);
+        assertThat(wide.getPeriod()).isEqualTo(64);
+
+        // the bounded map does not remember the generation of 64 generations ago
+        assertThat(detect(new CycleDetector(63, 1), glider(16), 200)).isEqualTo(-1);
+    }
+
+    @Test
+    void update_Confirmations_RepeatedBeforeTheReport() {
+        BitGrid empty = new BitGrid(8, 8);
+        assertThat(detect(new CycleDetector(4, 3), empty, 10)).isEqualTo(3);
+    }
+
+    @Test
+    void simulationAdvance_SkipsOverTheCycle_SameGenerationAsStepping() {
+        BitGrid start = glider(32);
+        start.setRun(20, 5, 8);
+        try (Simulation detecting = new Simulation(NeighborhoodType.MOORE.getStrategy(), LifeRule.LIFE, MapMode.FINITE, 1);
+             Simulation stepping = new Simulation(NeighborhoodType.MOORE.getStrategy(), LifeRule.LIFE, MapMode.FINITE, 1)) {
+            // the glider settles in the corner of the finite board, the blinker stays
+            detecting.setCycleLimit(16);
+            detecting.load(start.copy(), 0, true);
+            detecting.advance(10_001);
+
+            stepping.load(start.copy(), 0, true);
+            for (int i = 0; i < 10_001; i++) stepping.step();
+
+            assertThat(detecting.getPeriod()).isEqualTo(2);
+            assertThat(detecting.getCycleStart()).isPositive();
+            assertThat(detecting.getEpoch()).isEqualTo(10_001);
+            assertThat(detecting.getGrid().getWords()).isEqualTo(stepping.getGrid().getWords());
+            assertThat(detecting.getLiveCount()).isEqualTo(stepping.getLiveCount());
+        }
+    }
+
+    @Test
+    void simulationAdvance_TorusJump_SkipsOverTheDetectedCycle() {
+        long generations = (1L << 40) + 5;
+        try (Simulation detecting = new Simulation(NeighborhoodType.MOORE.getStrategy(), LifeRule.LIFE, MapMode.INFINITE, 1);
+             Simulation stepping = new Simulation(NeighborhoodType.MOORE.getStrategy(), LifeRule.LIFE, MapMode.INFINITE, 1)) {
+            // the glider comes back on the 32x32 torus after 128 generations
+            detecting.setCycleLimit(200);
+            detecting.load(glider(32), 0, true);
+            detecting.advance(generations);
+
+            stepping.load(glider(32), 0, true);
+            for (int i = 0; i < generations % 128; i++) stepping.step();
+
+            assertThat(detecting.getPeriod()).isEqualTo(128);
+            assertThat(detecting.getEpoch()).isEqualTo(generations);
+            assertThat(detecting.getGrid().getWords()).isEqualTo(stepping.getGrid().getWords());
+            // the cycle was found by stepping, the quadtree was never built
+            assertThat(detecting.getHashLifeStats()).isNull();
+        }
+    }
+}
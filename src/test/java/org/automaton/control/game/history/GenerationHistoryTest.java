@@ -0,0 +1,86 @@
+package org.automaton.control.game.history;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.enums.NeighborhoodType;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.grid.RandomFill;
+import org.automaton.control.game.kernel.StencilKernel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GenerationHistoryTest {
+
+    /**
+     * @return the generations 0 to count - 1 of the Moore board with the random soup in one corner
+     */
+    private static List<BitGrid> generations(int count) {
+        StencilKernel kernel = new StencilKernel(NeighborhoodType.MOORE.getStrategy(), MapMode.FINITE);
+        List<BitGrid> generations = new ArrayList<>();
+        BitGrid soup = new BitGrid(64, 64);
+        RandomFill.fill(soup, 0.3, 11);
+        BitGrid grid = new BitGrid(256, 512);
+        for (int r = 0; r < 64; r++) {
+            for (int c = 0; c < 64; c++) grid.set(r + 100, c + 200, soup.get(r, c));
+        }
+        generations.add(grid);
+        for (int i = 1; i < count; i++) {
+            BitGrid next = new BitGrid(256, 512);
+            kernel.step(grid, next);
+            generations.add(next);
+            grid = next;
+        }
+        return generations;
+    }
+
+    @Test
+    void restore_EveryRecordedGeneration_SameCells() {
+        List<BitGrid> generations = generations(100);
+        GenerationHistory history = new GenerationHistory(16, Long.MAX_VALUE);
+        for (int i = 0; i < generations.size(); i++) history.record(i, generations.get(i));
+
+        assertThat(history.getOldestEpoch()).isZero();
+        assertThat(history.getNewestEpoch()).isEqualTo(99);
+        for (int i = 0; i < generations.size(); i++) {
+            assertThat(history.restore(i).getWords()).isEqualTo(generations.get(i).getWords());
+        }
+        assertThat(history.restore(100)).isNull();
+        // the soup changes only a part of the words, the deltas take a fraction of the full grids
+        assertThat(history.getMemoryUsage()).isLessThan(100L * generations.getFirst().getWords().length * Long.BYTES / 2);
+    }
+
+    @Test
+    void record_OverBudget_OldestKeyframesEvicted() {
+        List<BitGrid> generations = generations(200);
+        long gridBytes = (long) generations.getFirst().getWords().length * Long.BYTES;
+        GenerationHistory history = new GenerationHistory(8, 6 * gridBytes);
+        for (int i = 0; i < generations.size(); i++) history.record(i, generations.get(i));
+
+        assertThat(history.getOldestEpoch()).isPositive();
+        assertThat(history.getNewestEpoch()).isEqualTo(199);
+        assertThat(history.getMemoryUsage()).isLessThanOrEqualTo(6 * gridBytes);
+        long oldest = history.getOldestEpoch();
+        assertThat(history.restore(oldest).getWords()).isEqualTo(generations.get((int) oldest).getWords());
+        assertThat(history.contains(oldest - 1)).isFalse();
+    }
+
+    @Test
+    void record_RecordedEpochAgain_LaterGenerationsDropped() {
+        List<BitGrid> generations = generations(30);
+        GenerationHistory history = new GenerationHistory(16, Long.MAX_VALUE);
+        for (int i = 0; i < generations.size(); i++) history.record(i, generations.get(i));
+
+        BitGrid edited = generations.get(10).copy();
+        edited.set(0, 0, 1 - edited.get(0, 0));
+        history.record(10, edited);
+        history.record(11, generations.get(11));
+
+        assertThat(history.getNewestEpoch()).isEqualTo(11);
+        assertThat(history.restore(9).getWords()).isEqualTo(generations.get(9).getWords());
+        assertThat(history.restore(10).getWords()).isEqualTo(edited.getWords());
+        assertThat(history.restore(11).getWords()).isEqualTo(generations.get(11).getWords());
+    }
+}
@@ -0,0 +1,165 @@
+package org.automaton.control.game.io;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.enums.NeighborhoodType;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.grid.RandomFill;
+import org.automaton.control.game.rule.TotalisticRule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BoardFileTest {
+
+    @TempDir
+    Path dir;
+
+    @ParameterizedTest
+    @ValueSource(doubles = {0, 0.001, 0.3, 1})
+    void saveLoad_Board_SameState(double density) throws IOException {
+        BitGrid grid = new BitGrid(257, 333);
+        RandomFill.fill(grid, density, 5);
+        Path file = this.dir.resolve("board.board");
+
+        BoardFile.save(new BoardState(MapMode.INFINITE, NeighborhoodType.VON_NEUMANN_EXTENDED, null, 1234, grid), file);
+        BoardState loaded = BoardFile.load(file);
+
+        assertThat(loaded.mapMode()).isEqualTo(MapMode.INFINITE);
+        assertThat(loaded.neighborhood()).isEqualTo(NeighborhoodType.VON_NEUMANN_EXTENDED);
+        assertThat(loaded.rule()).isNull();
+        assertThat(loaded.epoch()).isEqualTo(1234);
+        assertThat(loaded.grid().getRows()).isEqualTo(257);
+        assertThat(loaded.grid().getCols()).isEqualTo(333);
+        assertThat(loaded.grid().getWords()).isEqualTo(grid.getWords());
+    }
+
+    @Test
+    void save_SparseBoard_CompressedBelowRawSize() throws IOException {
+        BitGrid grid = new BitGrid(1024, 1024);
+        grid.set(10, 10, 1);
+        grid.set(900, 1000, 1);
+        Path file = this.dir.resolve("sparse.board");
+
+        BoardFile.save(new BoardState(MapMode.FINITE, NeighborhoodType.MOORE, null, 0, grid), file);
+
+        assertThat(Files.size(file)).isLessThan(100);
+        assertThat(BoardFile.load(file).grid().getWords()).isEqualTo(grid.getWords());
+    }
+
+    @Test
+    void saveAsync_Board_WrittenInBackground() throws Exception {
+        BitGrid grid = new BitGrid(100, 100);
+        RandomFill.fill(grid, 0.5, 9);
+        Path file = this.dir.resolve("async.board");
+
+        BoardFile.saveAsync(new BoardState(MapMode.UNBOUNDED, NeighborhoodType.MOORE, null, 7, grid.copy()), file).get();
+
+        assertThat(BoardFile.load(file).grid().getWords()).isEqualTo(grid.getWords());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"B36/S23", "B2/S/C3", "/2/200", "R5,C0,M1,S34..58,B34..45,NM"})
+    void saveLoad_Rule_SameRule(String rulestring) throws IOException {
+        BitGrid grid = new BitGrid(64, 100);
+        RandomFill.fill(grid, 0.3, 3);
+        TotalisticRule rule = TotalisticRule.parse(rulestring);
+        Path file = this.dir.resolve("rule.board");
+
+        BoardFile.save(new BoardState(MapMode.FINITE, NeighborhoodType.MOORE, rule, 5, grid), file);
+        BoardState loaded = BoardFile.load(file);
+
+        assertThat(loaded.rule()).isEqualTo(rule);
+        assertThat(loaded.rule().states()).isEqualTo(rule.states());
+        assertThat(loaded.grid().getWords()).isEqualTo(grid.getWords());
+    }
+
+    @Test
+    void load_FirstVersion_DefaultRule() throws IOException {
+        Path file = sparseBoard("first.board");
+        // the file of the version 1 has the same layout without the rule
+        patch(file, 4, new byte[]{1, 0});
+
+        BoardState loaded = BoardFile.load(file);
+
+        assertThat(loaded.rule()).isNull();
+        assertThat(loaded.grid().countLive()).isEqualTo(2);
+    }
+
+    @Test
+    void load_RuleWithOtherStates_Throws() throws IOException {
+        Path file = this.dir.resolve("states.board");
+        BoardFile.save(new BoardState(MapMode.FINITE, NeighborhoodType.MOORE, TotalisticRule.parse("B2/S/C3"), 0,
+                new BitGrid(16, 16)), file);
+        patch(file, 18, new byte[]{4, 0});
+
+        assertThatThrownBy(() -> BoardFile.load(file)).isInstanceOf(IOException.class).hasMessageContaining("4 states");
+    }
+
+    @Test
+    void load_NotBoardFile_Throws() throws IOException {
+        Path file = this.dir.resolve("text.board");
+        Files.writeString(file, "this is not a board, just some text of enough length");
+
+        assertThatThrownBy(() -> BoardFile.load(file)).isInstanceOf(IOException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {-1, Long.MAX_VALUE, 1L << 40, 1L << 61})
+    void load_CorruptedPayloadLength_Throws(long payloadWords) throws IOException {
+        Path file = sparseBoard("payload.board");
+        patch(file, 28, payloadWords);
+
+        assertThatThrownBy(() -> BoardFile.load(file)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void load_HugeBoardInHeader_Throws() throws IOException {
+        Path file = sparseBoard("huge.board");
+        ByteBuffer size = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putInt(Integer.MAX_VALUE).putInt(Integer.MAX_VALUE);
+        patch(file, 8, size.array());
+
+        assertThatThrownBy(() -> BoardFile.load(file)).isInstanceOf(IOException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {Long.MIN_VALUE, 1000})
+    void load_CorruptedRunLengthToken_Throws(long token) throws IOException {
+        Path file = sparseBoard("token.board");
+        // the first token of the payload right after the header
+        patch(file, 40, token);
+
+        assertThatThrownBy(() -> BoardFile.load(file)).isInstanceOf(IOException.class);
+    }
+
+    /**
+     * @return the file of the run-length compressed board
+     */
+    private Path sparseBoard(String name) throws IOException {
+        BitGrid grid = new BitGrid(1024, 1024);
+        grid.set(10, 10, 1);
+        grid.set(900, 1000, 1);
+        Path file = this.dir.resolve(name);
+        BoardFile.save(new BoardState(MapMode.FINITE, NeighborhoodType.MOORE, null, 0, grid), file);
+        return file;
+    }
+
+    private static void patch(Path file, int offset, long value) throws IOException {
+        patch(file, offset, ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).putLong(value).array());
+    }
+
+    private static void patch(Path file, int offset, byte[] bytes) throws IOException {
+        byte[] content = Files.readAllBytes(file);
+        System.arraycopy(bytes, 0, content, offset, bytes.length);
+        Files.write(file, content);
+    }
+}
@@ -0,0 +1,35 @@
+package org.automaton.control.game.io;
+
+import org.automaton.control.game.grid.BitGrid;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PlaintextFormatTest {
+
+    @Test
+    void read_Glider_PlacedAtOffset() throws IOException {
+        BitGrid grid = new BitGrid(5, 6);
+
+        PatternInfo info = PlaintextFormat.read(new StringReader("!Name: Glider\r\n.O.\r\n..O\r\nOOO\r\n"), grid, 1, 3);
+
+        assertThat(info).isEqualTo(new PatternInfo(3, 3, null));
+        assertThat(grid.countLive()).isEqualTo(5);
+        assertThat(grid.get(1, 4)).isEqualTo(1);
+        assertThat(grid.get(3, 3)).isEqualTo(1);
+    }
+
+    @Test
+    void write_Grid_OneLinePerRow() throws IOException {
+        BitGrid grid = BitGrid.of(new int[][]{{1, 0, 1}, {0, 0, 0}});
+
+        StringWriter out = new StringWriter();
+        PlaintextFormat.write(grid, out, "test");
+
+        assertThat(out.toString()).isEqualTo("!Name: test\nO.O\n...\n");
+    }
+}
@@ -0,0 +1,85 @@
+package org.automaton.control.game.io;
+
+import org.automaton.control.enums.NeighborhoodType;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.grid.RandomFill;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RleFormatTest {
+
+    private static final String GLIDER = """
+            #N Glider
+            #C The smallest spaceship
+            x = 3, y = 3, rule = B3/S23
+            bob$2bo$3o!
+            """;
+
+    @Test
+    void read_Glider_PlacedAtOffset() throws IOException {
+        BitGrid grid = new BitGrid(10, 10);
+
+        PatternInfo info = RleFormat.read(new StringReader(GLIDER), grid, 2, 5);
+
+        assertThat(info).isEqualTo(new PatternInfo(3, 3, "B3/S23"));
+        assertThat(grid.countLive()).isEqualTo(5);
+        assertThat(grid.get(2, 6)).isEqualTo(1);
+        assertThat(grid.get(3, 7)).isEqualTo(1);
+        assertThat(grid.get(4, 5)).isEqualTo(1);
+        assertThat(grid.get(4, 6)).isEqualTo(1);
+        assertThat(grid.get(4, 7)).isEqualTo(1);
+    }
+
+    @Test
+    void read_PatternOverTheEdge_Clipped() throws IOException {
+        BitGrid grid = new BitGrid(10, 100);
+
+        RleFormat.read(new StringReader("x = 200, y = 2\n1000000b200o$\n3$150o!"), grid, -1, -20);
+
+        assertThat(grid.countLive()).isEqualTo(100);
+        assertThat(grid.get(3, 0)).isEqualTo(1);
+
+        RleFormat.read(new StringReader("x = 200, y = 2\n200o$150o!"), grid, 9, -20);
+        assertThat(grid.countLive()).isEqualTo(200);
+    }
+
+    @Test
+    void read_UnknownCharacter_Throws() {
+        assertThatThrownBy(() -> RleFormat.read(new StringReader("x = 3, y = 1\n3z!"), new BitGrid(5, 5), 0, 0))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void writeRead_RandomBoard_SameCellsInBoundingBox() throws IOException {
+        BitGrid grid = new BitGrid(150, 200);
+        RandomFill.fill(grid, 0.2, 3);
+        grid.set(0, 0, 1);
+        grid.set(149, 199, 1);
+
+        StringWriter out = new StringWriter();
+        RleFormat.write(grid, out, RleFormat.ruleOf(NeighborhoodType.MOORE));
+        BitGrid copy = new BitGrid(150, 200);
+        PatternInfo info = RleFormat.read(new StringReader(out.toString()), copy, 0, 0);
+
+        assertThat(info).isEqualTo(new PatternInfo(200, 150, "B3/S23"));
+        assertThat(copy.getWords()).isEqualTo(grid.getWords());
+        assertThat(out.toString().lines()).allMatch(line -> line.length() <= 70);
+    }
+
+    @Test
+    void write_Glider_StandardRle() throws IOException {
+        BitGrid grid = new BitGrid(20, 20);
+        RleFormat.read(new StringReader(GLIDER), grid, 7, 9);
+
+        StringWriter out = new StringWriter();
+        RleFormat.write(grid, out, "B3/S23");
+
+        assertThat(out.toString()).isEqualTo("x = 3, y = 3, rule = B3/S23\nbo$2bo$3o!\n");
+    }
+}
@@ -0,0 +1,121 @@
+package org.automaton.control.game.kernel;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.enums.NeighborhoodType;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.neighborhood.LargeRadiusStrategy;
+import org.automaton.control.game.rule.LargerThanLifeRule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ActiveTileKernelTest {
+
+    @ParameterizedTest
+    @EnumSource(NeighborhoodType.class)
+    void step_MatchesFullKernel_OnSparseBoard(NeighborhoodType neighborhoodType) {
+        for (MapMode mapMode : MapMode.values()) {
+            // the random blobs near the corners, so the activity crosses the edges of the torus
+            BitGrid fullFront = new BitGrid(203, 333);
+            Random random = new Random(5);
+            for (int[] corner : new int[][]{{0, 0}, {190, 320}, {100, 150}}) {
+                for (int r = 0; r < 12; r++) {
+                    for (int c = 0; c < 12; c++) {
+                        if (random.nextInt(100) < 45) fullFront.set(corner[0] + r, corner[1] + c, 1);
+                    }
+                }
+            }
+            BitGrid tileFront = fullFront.copy();
+            BitGrid fullBack = new BitGrid(203, 333);
+            BitGrid tileBack = new BitGrid(203, 333);
+
+            StencilKernel full = new StencilKernel(neighborhoodType.getStrategy(), mapMode);
+            try (ActiveTileKernel tiles = new ActiveTileKernel(
+                    () -> new StencilKernel(neighborhoodType.getStrategy(), mapMode),
+                    neighborhoodType.getStrategy().getStencil().radius(), mapMode, 1)) {
+                for (int epoch = 0; epoch < 60; epoch++) {
+                    int fullLive = full.step(fullFront, fullBack);
+                    int tileLive = tiles.step(tileFront, tileBack);
+
+                    assertThat(tileBack.getWords()).as(mapMode + " epoch " + epoch).isEqualTo(fullBack.getWords());
+                    assertThat(tileLive).isEqualTo(fullLive);
+
+                    BitGrid swap = fullFront; fullFront = fullBack; fullBack = swap;
+                    swap = tileFront; tileFront = tileBack; tileBack = swap;
+                }
+            }
+        }
+    }
+
+    @Test
+    void step_SkipsStillTiles() {
+        BitGrid front = new BitGrid(512, 1024);
+        // the glider in the middle and the block far away from it
+        int[][] glider = {{0, 1}, {1, 2}, {2, 0}, {2, 1}, {2, 2}};
+        for (int[] cell : glider) front.set(100 + cell[0], 200 + cell[1], 1);
+        front.set(10, 10, 1); front.set(10, 11, 1); front.set(11, 10, 1); front.set(11, 11, 1);
+        BitGrid back = new BitGrid(512, 1024);
+
+        try (ActiveTileKernel tiles = new ActiveTileKernel(() -> new BitwiseLifeKernel(MapMode.INFINITE), 1, MapMode.INFINITE, 1)) {
+            assertThat(tiles.step(front, back)).isEqualTo(9);
+            assertThat(tiles.getActiveTileRatio()).isEqualTo(1.0);
+
+            for (int epoch = 0; epoch < 10; epoch++) {
+                BitGrid swap = front; front = back; back = swap;
+                assertThat(tiles.step(front, back)).isEqualTo(9);
+                assertThat(tiles.getActiveTileRatio()).isLessThan(0.1);
+            }
+
+            // the edit outside of the kernel is only seen after the invalidation
+            back.set(200, 400, 1);
+            tiles.invalidate();
+            BitGrid swap = front; front = back; back = swap;
+            assertThat(tiles.step(front, back)).isEqualTo(9);
+            assertThat(back.get(200, 400)).isZero();
+        }
+    }
+
+    @Test
+    void step_LargeRadius_RectanglesMatchFullKernel() {
+        LargerThanLifeRule rule = LargerThanLifeRule.parse("R10,C0,M1,S40..80,B45..60,NM");
+        LargeRadiusStrategy strategy = new LargeRadiusStrategy(rule);
+        for (MapMode mapMode : new MapMode[]{MapMode.FINITE, MapMode.INFINITE}) {
+            // two blobs in the different columns of the same tile rows, and one near the corner
+            BitGrid fullFront = new BitGrid(300, 400);
+            Random random = new Random(11);
+            for (int[] corner : new int[][]{{40, 20}, {50, 300}, {280, 385}}) {
+                for (int r = 0; r < 15; r++) {
+                    for (int c = 0; c < 15; c++) {
+                        if (random.nextInt(100) < 60) fullFront.set(corner[0] + r, corner[1] + c, 1);
+                    }
+                }
+            }
+            BitGrid tileFront = fullFront.copy();
+            BitGrid fullBack = new BitGrid(300, 400);
+            BitGrid tileBack = new BitGrid(300, 400);
+
+            LargeRadiusKernel full = new LargeRadiusKernel(strategy, rule, mapMode);
+            double lowestRatio = 1;
+            try (ActiveTileKernel tiles = new ActiveTileKernel(
+                    () -> new LargeRadiusKernel(strategy, rule, mapMode), strategy.getRadius(), mapMode, 1)) {
+                for (int epoch = 0; epoch < 12; epoch++) {
+                    int fullLive = full.step(fullFront, fullBack);
+                    int tileLive = tiles.step(tileFront, tileBack);
+
+                    assertThat(tileBack.getWords()).as(mapMode + " epoch " + epoch).isEqualTo(fullBack.getWords());
+                    assertThat(tileLive).isEqualTo(fullLive);
+                    lowestRatio = Math.min(lowestRatio, tiles.getActiveTileRatio());
+
+                    BitGrid swap = fullFront; fullFront = fullBack; fullBack = swap;
+                    swap = tileFront; tileFront = tileBack; tileBack = swap;
+                }
+            }
+            // the rectangles of the dirty tiles were used, not only the full board step
+            assertThat(lowestRatio).isLessThan(0.5);
+        }
+    }
+}
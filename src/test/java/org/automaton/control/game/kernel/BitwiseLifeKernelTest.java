@@ -0,0 +1,45 @@
+package org.automaton.control.game.kernel;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.enums.NeighborhoodType;
+import org.automaton.control.game.grid.BitGrid;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BitwiseLifeKernelTest {
+
+    @ParameterizedTest
+    @CsvSource({"1, 1", "3, 64", "17, 65", "40, 200", "64, 128"})
+    void step_MatchesStencilKernel_InBothMapModes(int rows, int cols) {
+        for (MapMode mapMode : MapMode.values()) {
+            BitGrid scalarFront = new BitGrid(rows, cols);
+            Random random = new Random(rows * 31L + cols);
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    scalarFront.set(r, c, random.nextInt(100) < 40 ? 1 : 0);
+                }
+            }
+            BitGrid bitwiseFront = scalarFront.copy();
+            BitGrid scalarBack = new BitGrid(rows, cols);
+            BitGrid bitwiseBack = new BitGrid(rows, cols);
+
+            StencilKernel scalar = new StencilKernel(NeighborhoodType.MOORE.getStrategy(), mapMode);
+            BitwiseLifeKernel bitwise = new BitwiseLifeKernel(mapMode);
+
+            for (int epoch = 0; epoch < 30; epoch++) {
+                int scalarLive = scalar.step(scalarFront, scalarBack);
+                int bitwiseLive = bitwise.step(bitwiseFront, bitwiseBack);
+
+                assertThat(bitwiseBack.getWords()).as(mapMode + " epoch " + epoch).isEqualTo(scalarBack.getWords());
+                assertThat(bitwiseLive).isEqualTo(scalarLive);
+
+                BitGrid swap = scalarFront; scalarFront = scalarBack; scalarBack = swap;
+                swap = bitwiseFront; bitwiseFront = bitwiseBack; bitwiseBack = swap;
+            }
+        }
+    }
+}
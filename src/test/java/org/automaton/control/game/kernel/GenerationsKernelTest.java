@@ -0,0 +1,110 @@
+package org.automaton.control.game.kernel;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.enums.NeighborhoodType;
+import org.automaton.control.game.Simulation;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.grid.ByteGrid;
+import org.automaton.control.game.grid.RandomFill;
+import org.automaton.control.game.neighborhood.NeighborhoodStrategy;
+import org.automaton.control.game.rule.GenerationsRule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GenerationsKernelTest {
+
+    private final NeighborhoodStrategy moore = NeighborhoodType.MOORE.getStrategy();
+
+    /**
+     * The reference generation: every cell by the rule itself, only the live neighbors are counted
+     */
+    private static int[][] reference(int[][] cells, GenerationsRule rule, MapMode mapMode) {
+        int rows = cells.length;
+        int cols = cells[0].length;
+        int[][] next = new int[rows][cols];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                int count = 0;
+                for (int dr = -1; dr <= 1; dr++) {
+                    for (int dc = -1; dc <= 1; dc++) {
+                        if (dr == 0 && dc == 0) continue;
+                        int nr = r + dr;
+                        int nc = c + dc;
+                        if (mapMode == MapMode.INFINITE) {
+                            nr = Math.floorMod(nr, rows);
+                            nc = Math.floorMod(nc, cols);
+                        } else if (nr < 0 || nr >= rows || nc < 0 || nc >= cols) {
+                            continue;
+                        }
+                        if (cells[nr][nc] == 1) count++;
+                    }
+                }
+                next[r][c] = rule.next(cells[r][c], count);
+            }
+        }
+        return next;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"B2/S/C3", "B2/S345/C4", "B3/S23/C2", "B34/S34/C25"})
+    void simulation_MatchesTheReference_InBothMapModes(String rulestring) {
+        GenerationsRule rule = GenerationsRule.parse(rulestring);
+        for (MapMode mapMode : new MapMode[]{MapMode.FINITE, MapMode.INFINITE}) {
+            BitGrid grid = new BitGrid(37, 130);
+            RandomFill.fill(grid, 0.35, rulestring.hashCode());
+            try (Simulation simulation = new Simulation(this.moore, rule, mapMode, 1)) {
+                simulation.load(grid, 0, true);
+                int[][] expected = simulation.getStates().toArray();
+
+                for (int epoch = 0; epoch < 12; epoch++) {
+                    expected = reference(expected, rule, mapMode);
+                    simulation.step();
+
+                    assertThat(simulation.getStates().toArray()).as(mapMode + " epoch " + epoch).isEqualTo(expected);
+                    int live = 0;
+                    for (int[] row : expected) {
+                        for (int state : row) {
+                            if (state == 1) live++;
+                        }
+                    }
+                    assertThat(simulation.getGrid().countLive()).isEqualTo(live);
+                    assertThat(simulation.getLiveCount()).isEqualTo(live);
+                }
+            }
+        }
+    }
+
+    @Test
+    void load_EditedLiveCells_KeepTheDyingCells() {
+        GenerationsRule rule = GenerationsRule.parse("B2/S/C5");
+        BitGrid live = new BitGrid(3, 70);
+        ByteGrid states = new ByteGrid(3, 70);
+        states.set(0, 0, 3);
+        states.set(1, 65, 1);
+        states.set(2, 2, 4);
+        states.set(2, 3, 9);
+        live.set(2, 2, 1);
+        live.set(0, 1, 1);
+
+        new GenerationsKernel(rule).load(live, states);
+
+        assertThat(states.get(0, 0)).isEqualTo(3);
+        // the live cell removed from the grid is dead, the one added is live even over the dying one
+        assertThat(states.get(1, 65)).isZero();
+        assertThat(states.get(2, 2)).isEqualTo(1);
+        assertThat(states.get(0, 1)).isEqualTo(1);
+        // the state the rule does not have is dead
+        assertThat(states.get(2, 3)).isZero();
+    }
+
+    @Test
+    void supports_GenerationsRule_NotOnTheUnboundedPlane() {
+        GenerationsRule rule = GenerationsRule.parse("B2/S/C3");
+
+        assertThat(Simulation.supports(this.moore, rule, MapMode.INFINITE)).isTrue();
+        assertThat(Simulation.supports(this.moore, rule, MapMode.UNBOUNDED)).isFalse();
+    }
+}
@@ -0,0 +1,93 @@
+package org.automaton.control.game.kernel;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.grid.RandomFill;
+import org.automaton.control.game.neighborhood.LargeRadiusStrategy;
+import org.automaton.control.game.rule.LargerThanLifeRule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LargeRadiusKernelTest {
+
+    private static final int[][] SIZES = {{5, 9}, {40, 150}, {70, 64}};
+
+    @ParameterizedTest
+    @ValueSource(strings = {"R3,C0,M0,S5..9,B6..8,NM", "R4,C0,M1,S3..6,B4..5,N+", "R7,C0,M1,S34..58,B34..45,NM", "R2,C0,M0,S1..3,B2,N+"})
+    void step_MatchesStencilKernel_InBothMapModes(String rulestring) {
+        LargerThanLifeRule rule = LargerThanLifeRule.parse(rulestring);
+        LargeRadiusStrategy strategy = new LargeRadiusStrategy(rule);
+
+        for (MapMode mapMode : new MapMode[]{MapMode.FINITE, MapMode.INFINITE}) {
+            for (int[] size : SIZES) {
+                BitGrid stencilFront = new BitGrid(size[0], size[1]);
+                RandomFill.fill(stencilFront, 0.45, size[0] * 31L + size[1]);
+                BitGrid largeFront = stencilFront.copy();
+                BitGrid stencilBack = new BitGrid(size[0], size[1]);
+                BitGrid largeBack = new BitGrid(size[0], size[1]);
+
+                StencilKernel stencil = new StencilKernel(strategy, rule, mapMode);
+                LargeRadiusKernel large = new LargeRadiusKernel(strategy, rule, mapMode);
+
+                for (int epoch = 0; epoch < 5; epoch++) {
+                    int stencilLive = stencil.step(stencilFront, stencilBack);
+                    int largeLive = large.step(largeFront, largeBack);
+
+                    assertThat(largeBack.getWords()).as(mapMode + " " + size[0] + "x" + size[1] + " epoch " + epoch)
+                            .isEqualTo(stencilBack.getWords());
+                    assertThat(largeLive).isEqualTo(stencilLive);
+
+                    BitGrid swap = stencilFront; stencilFront = stencilBack; stencilBack = swap;
+                    swap = largeFront; largeFront = largeBack; largeBack = swap;
+                }
+            }
+        }
+    }
+
+    @Test
+    void step_Rectangle_WritesOnlyItsWords() {
+        LargerThanLifeRule rule = LargerThanLifeRule.parse("R5,C0,M1,S10..30,B12..20,NM");
+        LargeRadiusStrategy strategy = new LargeRadiusStrategy(rule);
+        BitGrid source = new BitGrid(60, 200);
+        RandomFill.fill(source, 0.45, 3);
+
+        BitGrid expected = new BitGrid(60, 200);
+        new StencilKernel(strategy, rule, MapMode.INFINITE).step(source, expected);
+        BitGrid target = new BitGrid(60, 200);
+        int live = new LargeRadiusKernel(strategy, rule, MapMode.INFINITE).step(source, target, 7, 39, 1, 3);
+
+        int expectedLive = 0;
+        for (int r = 0; r < 60; r++) {
+            for (int w = 0; w < target.getStride(); w++) {
+                long word = target.getWords()[r * target.getStride() + w];
+                if (r >= 7 && r < 39 && w >= 1 && w < 3) {
+                    assertThat(word).isEqualTo(expected.getWords()[r * expected.getStride() + w]);
+                    expectedLive += Long.bitCount(word);
+                } else {
+                    assertThat(word).isZero();
+                }
+            }
+        }
+        assertThat(live).isEqualTo(expectedLive);
+    }
+
+    @Test
+    void step_RadiusFifty_ThroughStepKernels() {
+        LargerThanLifeRule rule = LargerThanLifeRule.parse("R50,C0,M1,S3000..5000,B3400..4500,NM");
+        LargeRadiusStrategy strategy = new LargeRadiusStrategy(rule);
+        StepKernel kernel = StepKernels.create(strategy, rule, MapMode.INFINITE);
+        BitGrid source = new BitGrid(128, 128);
+        RandomFill.fill(source, 0.45, 11);
+        BitGrid target = new BitGrid(128, 128);
+
+        int live = kernel.step(source, target);
+
+        assertThat(kernel).isInstanceOf(LargeRadiusKernel.class);
+        // on the torus smaller than the window every cell sees the whole board, more than once
+        assertThat(strategy.getStencil().size()).isEqualTo(101 * 101);
+        assertThat(live).isEqualTo(target.countLive());
+    }
+}
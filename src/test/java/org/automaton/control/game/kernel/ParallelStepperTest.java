@@ -0,0 +1,45 @@
+package org.automaton.control.game.kernel;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.enums.NeighborhoodType;
+import org.automaton.control.game.grid.BitGrid;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ParallelStepperTest {
+
+    @ParameterizedTest
+    @EnumSource(NeighborhoodType.class)
+    void step_MatchesSequentialKernel_InBothMapModes(NeighborhoodType neighborhoodType) {
+        for (MapMode mapMode : MapMode.values()) {
+            BitGrid sequentialFront = new BitGrid(517, 300);
+            Random random = new Random(11);
+            for (int r = 0; r < sequentialFront.getRows(); r++) {
+                for (int c = 0; c < sequentialFront.getCols(); c++) {
+                    sequentialFront.set(r, c, random.nextInt(100) < 30 ? 1 : 0);
+                }
+            }
+            BitGrid parallelFront = sequentialFront.copy();
+            BitGrid sequentialBack = new BitGrid(517, 300);
+            BitGrid parallelBack = new BitGrid(517, 300);
+
+            StencilKernel sequential = new StencilKernel(neighborhoodType.getStrategy(), mapMode);
+            try (ParallelStepper parallel = new ParallelStepper(() -> new StencilKernel(neighborhoodType.getStrategy(), mapMode), 4)) {
+                for (int epoch = 0; epoch < 8; epoch++) {
+                    int sequentialLive = sequential.step(sequentialFront, sequentialBack);
+                    int parallelLive = parallel.step(parallelFront, parallelBack);
+
+                    assertThat(parallelBack.getWords()).as(mapMode + " epoch " + epoch).isEqualTo(sequentialBack.getWords());
+                    assertThat(parallelLive).isEqualTo(sequentialLive);
+
+                    BitGrid swap = sequentialFront; sequentialFront = sequentialBack; sequentialBack = swap;
+                    swap = parallelFront; parallelFront = parallelBack; parallelBack = swap;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.automaton.control.game.kernel;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.enums.NeighborhoodType;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.grid.SparseGrid;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SparseKernelTest {
+
+    @ParameterizedTest
+    @EnumSource(NeighborhoodType.class)
+    void step_MatchesFiniteKernel_AwayFromTheEdges(NeighborhoodType neighborhoodType) {
+        // the finite board is big enough that nothing reaches its border in the tested generations
+        BitGrid front = new BitGrid(300, 300);
+        Random random = new Random(3);
+        for (int r = 120; r < 180; r++) {
+            for (int c = 100; c < 190; c++) {
+                if (random.nextInt(100) < 35) front.set(r, c, 1);
+            }
+        }
+        BitGrid back = new BitGrid(300, 300);
+        SparseGrid plane = new SparseGrid();
+        SparseGrid planeBack = new SparseGrid();
+        plane.pasteWindow(front, -150, -150);
+
+        StencilKernel finite = new StencilKernel(neighborhoodType.getStrategy(), MapMode.FINITE);
+        SparseKernel sparse = new SparseKernel(new StencilKernel(neighborhoodType.getStrategy(), MapMode.FINITE),
+                neighborhoodType.getStrategy().getStencil().radius());
+        BitGrid window = new BitGrid(300, 300);
+        for (int epoch = 0; epoch < 20; epoch++) {
+            int finiteLive = finite.step(front, back);
+            int sparseLive = sparse.step(plane, planeBack);
+
+            planeBack.copyWindow(window, -150, -150);
+            assertThat(window.getWords()).as("epoch " + epoch).isEqualTo(back.getWords());
+            assertThat(sparseLive).isEqualTo(finiteLive).isEqualTo(planeBack.countLive());
+
+            BitGrid swap = front; front = back; back = swap;
+            SparseGrid swapPlane = plane; plane = planeBack; planeBack = swapPlane;
+        }
+    }
+
+    @Test
+    void step_GliderTravelsWithoutWrapping() {
+        SparseGrid plane = new SparseGrid();
+        SparseGrid planeBack = new SparseGrid();
+        int[][] glider = {{0, 1}, {1, 2}, {2, 0}, {2, 1}, {2, 2}};
+        for (int[] cell : glider) plane.set(cell[0], cell[1], 1);
+
+        SparseKernel sparse = new SparseKernel(new BitwiseLifeKernel(MapMode.FINITE), 1);
+        for (int epoch = 0; epoch < 4000; epoch++) {
+            assertThat(sparse.step(plane, planeBack)).isEqualTo(5);
+            SparseGrid swap = plane; plane = planeBack; planeBack = swap;
+        }
+
+        // the glider moves by one cell down and right every 4 generations
+        for (int[] cell : glider) {
+            assertThat(plane.get(cell[0] + 1000, cell[1] + 1000)).isEqualTo(1);
+        }
+        assertThat(plane.getChunkCount()).isLessThanOrEqualTo(4);
+    }
+}
@@ -0,0 +1,82 @@
+package org.automaton.control.game.kernel;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.enums.NeighborhoodType;
+import org.automaton.control.game.GameEngine;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.model.GameConfigModel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StencilKernelTest {
+
+    private static BitGrid randomGrid(int rows, int cols, long seed) {
+        Random random = new Random(seed);
+        BitGrid grid = new BitGrid(rows, cols);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                grid.set(r, c, random.nextInt(100) < 35 ? 1 : 0);
+            }
+        }
+        return grid;
+    }
+
+    @ParameterizedTest
+    @EnumSource(NeighborhoodType.class)
+    void step_MatchesPerCellIteration_InBothMapModes(NeighborhoodType neighborhoodType) {
+        GameConfigModel model = GameConfigModel.getInstance();
+        GameEngine gameEngine = GameEngine.getInstance();
+
+        for (MapMode mapMode : MapMode.values()) {
+            BitGrid source = randomGrid(23, 70, 42);
+            model.getRows().set(23);
+            model.getCols().set(70);
+            model.getSelectedMode().set(mapMode);
+            model.getSelectedNeighborhood().set(neighborhoodType);
+            model.getGridData().set(source);
+            gameEngine.setSelectedNeighborhoodStrategy();
+
+            BitGrid target = new BitGrid(23, 70);
+            int live = new StencilKernel(neighborhoodType.getStrategy(), mapMode).step(source, target);
+
+            int[][] expected = new int[23][70];
+            for (int r = 0; r < 23; r++) {
+                for (int c = 0; c < 70; c++) {
+                    expected[r][c] = gameEngine.performOnePointIteration(r, c);
+                }
+            }
+            assertThat(target.toArray()).as(mapMode.name()).isEqualTo(expected);
+            assertThat(live).isEqualTo(target.countLive());
+        }
+    }
+
+    @Test
+    void step_AfterWarmUp_DoesNotAllocate() {
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        StencilKernel kernel = new StencilKernel(NeighborhoodType.MOORE.getStrategy(), MapMode.INFINITE);
+        BitGrid front = randomGrid(200, 200, 7);
+        BitGrid back = new BitGrid(200, 200);
+        for (int i = 0; i < 20; i++) {
+            kernel.step(front, back);
+            BitGrid swap = front; front = back; back = swap;
+        }
+
+        threadBean.getThreadAllocatedBytes(threadId);
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 20; i++) {
+            kernel.step(front, back);
+            BitGrid swap = front; front = back; back = swap;
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertThat(allocated).isZero();
+    }
+}
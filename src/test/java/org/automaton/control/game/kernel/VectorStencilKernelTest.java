@@ -0,0 +1,91 @@
+package org.automaton.control.game.kernel;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.enums.NeighborhoodType;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.rule.LifeRule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class VectorStencilKernelTest {
+
+    private static final int[][] SIZES = {{1, 1}, {5, 63}, {9, 130}, {33, 513}, {20, 1000}};
+
+    @BeforeEach
+    public void setup(){
+        assumeTrue(StepKernels.isVectorApiPresent(), "jdk.incubator.vector is not present");
+    }
+
+    @ParameterizedTest
+    @EnumSource(NeighborhoodType.class)
+    void step_MatchesStencilKernel_InBothMapModes(NeighborhoodType neighborhoodType) {
+        for (MapMode mapMode : MapMode.values()) {
+            for (int[] size : SIZES) {
+                BitGrid scalarFront = new BitGrid(size[0], size[1]);
+                Random random = new Random(size[0] * 31L + size[1]);
+                for (int r = 0; r < size[0]; r++) {
+                    for (int c = 0; c < size[1]; c++) {
+                        scalarFront.set(r, c, random.nextInt(100) < 35 ? 1 : 0);
+                    }
+                }
+                BitGrid vectorFront = scalarFront.copy();
+                BitGrid scalarBack = new BitGrid(size[0], size[1]);
+                BitGrid vectorBack = new BitGrid(size[0], size[1]);
+
+                StencilKernel scalar = new StencilKernel(neighborhoodType.getStrategy(), mapMode);
+                VectorStencilKernel vector = new VectorStencilKernel(neighborhoodType.getStrategy(), mapMode);
+
+                for (int epoch = 0; epoch < 10; epoch++) {
+                    int scalarLive = scalar.step(scalarFront, scalarBack);
+                    int vectorLive = vector.step(vectorFront, vectorBack);
+
+                    assertThat(vectorBack.getWords()).as(mapMode + " " + size[0] + "x" + size[1] + " epoch " + epoch)
+                            .isEqualTo(scalarBack.getWords());
+                    assertThat(vectorLive).isEqualTo(scalarLive);
+
+                    BitGrid swap = scalarFront; scalarFront = scalarBack; scalarBack = swap;
+                    swap = vectorFront; vectorFront = vectorBack; vectorBack = swap;
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"B36/S23", "B2/S", "B0/S8", "B1357/S02468"})
+    void step_OtherRules_MatchStencilKernel(String rulestring) {
+        LifeRule rule = LifeRule.parse(rulestring);
+        for (NeighborhoodType neighborhoodType : NeighborhoodType.values()) {
+            BitGrid scalarFront = new BitGrid(33, 300);
+            Random random = new Random(rulestring.hashCode());
+            for (int r = 0; r < 33; r++) {
+                for (int c = 0; c < 300; c++) {
+                    scalarFront.set(r, c, random.nextInt(100) < 35 ? 1 : 0);
+                }
+            }
+            BitGrid vectorFront = scalarFront.copy();
+            BitGrid scalarBack = new BitGrid(33, 300);
+            BitGrid vectorBack = new BitGrid(33, 300);
+
+            StencilKernel scalar = new StencilKernel(neighborhoodType.getStrategy(), rule, MapMode.INFINITE);
+            VectorStencilKernel vector = new VectorStencilKernel(neighborhoodType.getStrategy(), rule, MapMode.INFINITE);
+
+            for (int epoch = 0; epoch < 5; epoch++) {
+                int scalarLive = scalar.step(scalarFront, scalarBack);
+                int vectorLive = vector.step(vectorFront, vectorBack);
+
+                assertThat(vectorBack.getWords()).as(neighborhoodType + " epoch " + epoch).isEqualTo(scalarBack.getWords());
+                assertThat(vectorLive).isEqualTo(scalarLive);
+
+                BitGrid swap = scalarFront; scalarFront = scalarBack; scalarBack = swap;
+                swap = vectorFront; vectorFront = vectorBack; vectorBack = swap;
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.automaton.control.game.rule;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class GenerationsRuleTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"B2/S/C3", "b2/s/c3", "/2/3", "B2/S/3", " /2/G3 "})
+    void parse_BriansBrain_AcceptedNotations(String rulestring) {
+        GenerationsRule rule = GenerationsRule.parse(rulestring);
+
+        assertThat(rule.life()).isEqualTo(LifeRule.parse("B2/S"));
+        assertThat(rule.states()).isEqualTo(3);
+        assertThat(rule).hasToString("B2/S/C3");
+    }
+
+    @Test
+    void parse_SurviveBirthStates_StarWars() {
+        GenerationsRule rule = GenerationsRule.parse("345/2/4");
+
+        assertThat(rule.life().surviveCounts()).containsExactly(3, 4, 5);
+        assertThat(rule.life().birthCounts()).containsExactly(2);
+        assertThat(rule).hasToString("B2/S345/C4");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"B2/S/C", "B2/S/C1", "B2/S/C257", "B2/S/Cx", "B2/S3"})
+    void parse_Malformed_Throws(String rulestring) {
+        assertThatThrownBy(() -> GenerationsRule.parse(rulestring)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void next_LiveCellDecaysThroughTheDyingStates() {
+        GenerationsRule rule = GenerationsRule.parse("B2/S345/C4");
+
+        assertThat(rule.next(0, 2)).isEqualTo(1);
+        assertThat(rule.next(0, 3)).isEqualTo(0);
+        assertThat(rule.next(1, 3)).isEqualTo(1);
+        assertThat(rule.next(1, 2)).isEqualTo(2);
+        // the dying cell is not born and ignores its neighbors
+        assertThat(rule.next(2, 2)).isEqualTo(3);
+        assertThat(rule.next(3, 4)).isEqualTo(0);
+    }
+
+    @Test
+    void transitionTable_IsTheTableOfTheLiveCells() {
+        GenerationsRule rule = GenerationsRule.parse("B2/S/C3");
+
+        assertThat(rule.transitionTable(8)).isEqualTo(rule.life().transitionTable(8));
+    }
+
+    @Test
+    void totalisticParse_DispatchesByTheNotation() {
+        assertThat(TotalisticRule.parse("B2/S/C3")).isInstanceOf(GenerationsRule.class);
+        assertThat(TotalisticRule.parse("/2/3").states()).isEqualTo(3);
+        assertThat(TotalisticRule.parse("B3/S23")).isEqualTo(LifeRule.LIFE);
+        assertThat(TotalisticRule.parse("R5,C0,M1,S34..58,B34..45,NM")).isInstanceOf(LargerThanLifeRule.class);
+    }
+}
@@ -0,0 +1,74 @@
+package org.automaton.control.game.rule;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.game.Simulation;
+import org.automaton.control.game.neighborhood.LargeRadiusStrategy;
+import org.automaton.control.game.neighborhood.MooreStrategy;
+import org.automaton.control.game.neighborhood.NeighborhoodStrategy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LargerThanLifeRuleTest {
+
+    @Test
+    void parse_BoscosRule_RoundTrips() {
+        LargerThanLifeRule rule = LargerThanLifeRule.parse("R5,C0,M1,S34..58,B34..45,NM");
+
+        assertThat(rule).isEqualTo(new LargerThanLifeRule(5, false, true, 34, 58, 34, 45));
+        assertThat(rule).hasToString("R5,C0,M1,S34..58,B34..45,NM");
+        assertThat(rule.neighbors()).isEqualTo(121);
+    }
+
+    @Test
+    void parse_CrossWithDefaults_TakesTheMissingFields() {
+        LargerThanLifeRule rule = LargerThanLifeRule.parse("r3, s2..4, b3, n+");
+
+        assertThat(rule).isEqualTo(new LargerThanLifeRule(3, true, false, 2, 4, 3, 3));
+        assertThat(rule.neighbors()).isEqualTo(12);
+        assertThat(rule.next(0, 3)).isOne();
+        assertThat(rule.next(1, 5)).isZero();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"R0,S1,B1", "R501,S1,B1", "R5,S1", "R5,C3,S1,B1", "R5,S1,B1,NN", "R5,S4..2,B1", "R5,Sx,B1", "R5,S1,B1,M2"})
+    void parse_Malformed_Throws(String rulestring) {
+        assertThatThrownBy(() -> LargerThanLifeRule.parse(rulestring)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void totalisticParse_ChoosesTheNotation() {
+        assertThat(TotalisticRule.parse("R2,C0,M0,S1..3,B2,NM")).isInstanceOf(LargerThanLifeRule.class);
+        assertThat(TotalisticRule.parse("B3/S23")).isEqualTo(LifeRule.LIFE);
+    }
+
+    @Test
+    void neighborhoodFor_ReplacesTheSelectedNeighborhood() {
+        LargerThanLifeRule rule = LargerThanLifeRule.parse("R2,C0,M1,S1..3,B2,N+");
+        MooreStrategy moore = new MooreStrategy();
+
+        assertThat(rule.neighborhoodFor(moore)).isInstanceOf(LargeRadiusStrategy.class);
+        assertThat(rule.neighborhoodFor(moore).getStencil().size()).isEqualTo(rule.neighbors());
+        assertThat(LifeRule.LIFE.neighborhoodFor(moore)).isSameAs(moore);
+    }
+
+    @Test
+    void neighborhoodFor_RadiusAndSizeFromTheRule_SameAsTheStencil() {
+        for (String rulestring : new String[]{"R3,C0,M0,S2..5,B3..4,NM", "R3,C0,M1,S2..5,B3..4,NM", "R4,C0,M1,S1..3,B2,N+"}) {
+            LargerThanLifeRule rule = LargerThanLifeRule.parse(rulestring);
+            NeighborhoodStrategy strategy = rule.neighborhoodFor(new MooreStrategy());
+
+            assertThat(strategy.getSize()).isEqualTo(strategy.getStencil().size());
+            assertThat(strategy.getRadius()).isEqualTo(strategy.getStencil().radius());
+        }
+
+        // the check of the biggest rule does not build its million offsets
+        LargerThanLifeRule biggest = LargerThanLifeRule.parse("R500,C0,M0,S34..58,B34..45,NM");
+        NeighborhoodStrategy strategy = biggest.neighborhoodFor(new MooreStrategy());
+        assertThat(strategy.getSize()).isEqualTo(1001 * 1001 - 1);
+        assertThat(Simulation.supports(strategy, biggest, MapMode.UNBOUNDED)).isFalse();
+    }
+}
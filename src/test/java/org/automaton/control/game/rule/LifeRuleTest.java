@@ -0,0 +1,58 @@
+package org.automaton.control.game.rule;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LifeRuleTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"B36/S23", "b36s23", "S23/B36", "23/36", " B63/S32 "})
+    void parse_AcceptedNotations_GiveTheSameRule(String rulestring) {
+        LifeRule rule = LifeRule.parse(rulestring);
+
+        assertThat(rule.birthCounts()).containsExactly(3, 6);
+        assertThat(rule.surviveCounts()).containsExactly(2, 3);
+        assertThat(rule).hasToString("B36/S23");
+    }
+
+    @Test
+    void parse_EmptySurvive_NoCellSurvives() {
+        LifeRule seeds = LifeRule.parse("B2/S");
+
+        assertThat(seeds.surviveMask()).isZero();
+        assertThat(seeds.next(1, 2)).isZero();
+        assertThat(seeds.next(0, 2)).isOne();
+        assertThat(seeds).hasToString("B2/S");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "B3", "B3/S2x", "B9/S23", "B3/S23/S1", "3", "B3//S23"})
+    void parse_Malformed_Throws(String rulestring) {
+        assertThatThrownBy(() -> LifeRule.parse(rulestring)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void of_BirthAndSurviveRange_IsTheLifeRule() {
+        assertThat(LifeRule.of(3, 2, 3)).isEqualTo(LifeRule.LIFE);
+        assertThat(LifeRule.parse("B3/S23")).isEqualTo(LifeRule.LIFE);
+    }
+
+    @Test
+    void transitionTable_IndexedByCountAndState_MatchesNext() {
+        LifeRule rule = LifeRule.parse("B0368/S1458");
+        byte[] table = rule.transitionTable(8);
+
+        assertThat(table).hasSize(18);
+        for (int count = 0; count <= 8; count++) {
+            for (int state = 0; state <= 1; state++) {
+                assertThat(table[(count << 1) | state]).as("count " + count + " state " + state)
+                        .isEqualTo((byte) rule.next(state, count));
+            }
+        }
+        assertThat(rule.birthOnEmpty()).isTrue();
+    }
+}
@@ -0,0 +1,91 @@
+package org.automaton.control.sweep;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.enums.NeighborhoodType;
+import org.automaton.control.game.Simulation;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.grid.RandomFill;
+import org.automaton.control.game.neighborhood.NeighborhoodStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SweepEngineTest {
+
+    @Test
+    void runCase_SameAsSteppingSimulation() {
+        SweepParameters parameters = new SweepParameters(List.of(30), List.of(NeighborhoodType.MOORE), List.of(MapMode.INFINITE),
+                List.of(40), new SweepSeeds.Range(7, 7), 500, 16, 1 << 20);
+        SweepCase sweepCase = parameters.caseAt(0);
+
+        SweepResult result = SweepEngine.runCase(parameters, sweepCase);
+
+        BitGrid grid = new BitGrid(40, 40);
+        RandomFill.fill(grid, 0.3, 7);
+        NeighborhoodStrategy strategy = NeighborhoodType.MOORE.getStrategy();
+        try (Simulation simulation = new Simulation(strategy, strategy.getDefaultRule(), MapMode.INFINITE, 1)) {
+            simulation.load(grid, 0, true);
+            for (int i = 0; i < 500; i++) simulation.step();
+
+            assertThat(result.error()).isNull();
+            assertThat(result.epoch()).isEqualTo(500);
+            assertThat(result.liveCount()).isEqualTo(simulation.getLiveCount());
+        }
+    }
+
+    @Test
+    void runCase_BoardOverMemoryLimit_Failed() {
+        SweepParameters parameters = new SweepParameters(List.of(30), List.of(NeighborhoodType.MOORE), List.of(MapMode.FINITE),
+                List.of(1024), new SweepSeeds.Range(1, 1), 10, 8, 1024);
+
+        SweepResult result = SweepEngine.runCase(parameters, parameters.caseAt(0));
+
+        assertThat(result.error()).isNotNull();
+        assertThat(result.liveCount()).isEqualTo(-1);
+    }
+
+    @Test
+    void run_EveryCase_OneCsvLine() throws IOException, InterruptedException {
+        SweepParameters parameters = new SweepParameters(List.of(20, 40), List.of(NeighborhoodType.MOORE, NeighborhoodType.VON_NEUMANN),
+                List.of(MapMode.FINITE, MapMode.INFINITE), List.of(24), new SweepSeeds.Listed(List.of(1L, 2L, 3L)), 200, 16, 1 << 20);
+        StringWriter out = new StringWriter();
+
+        SweepEngine.run(parameters, 3, new SweepCsvWriter(out));
+
+        String[] lines = out.toString().split("\n");
+        assertThat(lines[0]).isEqualTo(SweepCsvWriter.HEADER);
+        assertThat(lines).hasSize(1 + 24);
+        assertThat(Arrays.stream(lines).skip(1).map(line -> line.substring(0, line.indexOf(','))).distinct()).hasSize(24);
+        assertThat(Arrays.stream(lines).skip(1)).allMatch(line -> line.split(",", -1)[6].equals("200"));
+    }
+
+    @Test
+    void run_FailingCase_ReportedAndOthersGoOn() throws InterruptedException {
+        // the board of the second size has more words than any array can hold
+        SweepParameters parameters = new SweepParameters(List.of(30), List.of(NeighborhoodType.MOORE), List.of(MapMode.FINITE),
+                List.of(24, 2_000_000), new SweepSeeds.Range(1, 2), 50, 8, Long.MAX_VALUE);
+        List<SweepResult> results = new CopyOnWriteArrayList<>();
+
+        SweepEngine.run(parameters, 2, results::add);
+
+        assertThat(results).hasSize(4);
+        assertThat(results).filteredOn(result -> result.sweepCase().size() == 24).allMatch(result -> result.error() == null);
+        assertThat(results).filteredOn(result -> result.sweepCase().size() == 2_000_000)
+                .hasSize(2).allMatch(result -> result.error() != null && result.liveCount() == -1);
+    }
+
+    @Test
+    void fitParallel_MemoryOverHeap_Lowered() {
+        long heap = Runtime.getRuntime().maxMemory();
+
+        assertThat(SweepEngine.fitParallel(4, heap / 8)).isEqualTo(4);
+        assertThat(SweepEngine.fitParallel(64, heap / 8)).isEqualTo(8);
+        assertThat(SweepEngine.fitParallel(4, heap * 2)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,61 @@
+package org.automaton.control.sweep;
+
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.enums.NeighborhoodType;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SweepParametersTest {
+
+    @Test
+    void caseAt_EveryIndex_DistinctCombinationSeedsFastest() {
+        SweepParameters parameters = new SweepParameters(List.of(10, 30), List.of(NeighborhoodType.MOORE, NeighborhoodType.VON_NEUMANN),
+                List.of(MapMode.FINITE), List.of(16, 32), new SweepSeeds.Range(1, 3), 10, 8, 1 << 20);
+
+        assertThat(parameters.size()).isEqualTo(24);
+        assertThat(parameters.caseAt(0)).isEqualTo(new SweepCase(0, 10, NeighborhoodType.MOORE, MapMode.FINITE, 16, 1));
+        assertThat(parameters.caseAt(1).seed()).isEqualTo(2);
+        assertThat(parameters.caseAt(3).size()).isEqualTo(32);
+        assertThat(parameters.caseAt(23)).isEqualTo(new SweepCase(23, 30, NeighborhoodType.VON_NEUMANN, MapMode.FINITE, 32, 3));
+
+        Set<SweepCase> cases = new HashSet<>();
+        for (long i = 0; i < parameters.size(); i++) {
+            SweepCase sweepCase = parameters.caseAt(i);
+            cases.add(new SweepCase(0, sweepCase.livePercent(), sweepCase.neighborhood(), sweepCase.mapMode(), sweepCase.size(), sweepCase.seed()));
+        }
+        assertThat(cases).hasSize(24);
+    }
+
+    @Test
+    void new_InvalidValues_Throws() {
+        assertThatThrownBy(() -> new SweepParameters(List.of(), List.of(NeighborhoodType.MOORE), List.of(MapMode.FINITE),
+                List.of(16), new SweepSeeds.Range(1, 1), 10, 8, 1 << 20)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SweepParameters(List.of(101), List.of(NeighborhoodType.MOORE), List.of(MapMode.FINITE),
+                List.of(16), new SweepSeeds.Range(1, 1), 10, 8, 1 << 20)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void seeds_RangeKeptAsBounds_ListedInOrder() {
+        SweepSeeds range = SweepSeeds.parse("5..1000000004");
+        assertThat(range).isEqualTo(new SweepSeeds.Range(5, 1_000_000_004L));
+        assertThat(range.count()).isEqualTo(1_000_000_000L);
+        assertThat(range.get(999_999_999L)).isEqualTo(1_000_000_004L);
+
+        SweepSeeds listed = SweepSeeds.parse("7, 3,11");
+        assertThat(listed.count()).isEqualTo(3);
+        assertThat(listed.get(1)).isEqualTo(3);
+
+        SweepParameters parameters = new SweepParameters(List.of(30), List.of(NeighborhoodType.MOORE), List.of(MapMode.FINITE),
+                List.of(16), range, 10, 8, 1 << 20);
+        assertThat(parameters.caseAt(parameters.size() - 1).seed()).isEqualTo(1_000_000_004L);
+
+        assertThatThrownBy(() -> SweepSeeds.parse("5..1")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SweepSeeds.parse("a,b")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,105 @@
+package org.automaton.control.ui;
+
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import org.automaton.control.enums.GameStatus;
+import org.automaton.control.enums.MapMode;
+import org.automaton.control.enums.NeighborhoodType;
+import org.automaton.control.enums.RunMode;
+import org.automaton.control.game.GameEngine;
+import org.automaton.control.game.grid.BitGrid;
+import org.automaton.control.game.grid.RandomFill;
+import org.automaton.control.model.GameConfigModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HistoryScrubberTest {
+
+    private final GameConfigModel model = GameConfigModel.getInstance();
+    private final GameEngine gameEngine = GameEngine.getInstance();
+
+    /** the slider clamps its position into its range on every change of the range, like the JavaFX one */
+    private final DoubleProperty min = new SimpleDoubleProperty(0);
+    private final DoubleProperty max = new SimpleDoubleProperty(0);
+    private final DoubleProperty value = new SimpleDoubleProperty(0);
+    private final SimpleBooleanProperty valueChanging = new SimpleBooleanProperty(false);
+    private final List<Long> rewinds = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        this.gameEngine.stopSimulation();
+        this.model.getGameStatus().set(GameStatus.STOPED);
+        this.model.getSelectedNeighborhood().set(NeighborhoodType.MOORE);
+        this.model.getSelectedMode().set(MapMode.FINITE);
+        this.model.getRunMode().set(RunMode.MAX_SPEED);
+        this.model.getGenerationLimit().set(0);
+        this.model.getCycleLimit().set(0);
+        this.model.getEpochCount().set(0);
+        this.gameEngine.setSelectedNeighborhoodStrategy();
+
+        this.min.addListener((obs, oldVal, newVal) -> clamp());
+        this.max.addListener((obs, oldVal, newVal) -> clamp());
+        HistoryScrubber scrubber = new HistoryScrubber(this.model, this.min, this.max, this.value, this.valueChanging);
+        scrubber.setOnRewind(epoch -> {
+            this.rewinds.add(epoch);
+            this.gameEngine.rewindTo(epoch);
+        });
+    }
+
+    @Test
+    void resetRunPause_RangeUpdates_KeepTheEpoch() throws InterruptedException {
+        this.gameEngine.resetGame();
+        BitGrid board = new BitGrid(64, 64);
+        RandomFill.fill(board, 0.3, 7);
+        this.model.getGridData().set(board);
+        this.model.markGridDirty();
+
+        this.model.setGameStatus(GameStatus.RUNNING);
+        this.gameEngine.startGame();
+        Thread.sleep(50);
+        this.model.setGameStatus(GameStatus.PAUSED);
+        this.gameEngine.stopSimulation();
+
+        long epoch = this.model.getEpochCountPrimitive();
+        assertThat(epoch).isPositive();
+        assertThat(this.rewinds).isEmpty();
+        assertThat(this.max.get()).isEqualTo(this.model.getHistoryNewest().get());
+        assertThat(this.value.get()).isEqualTo(epoch);
+
+        this.gameEngine.performOneEpochIteration();
+        assertThat(this.model.getEpochCountPrimitive()).isEqualTo(epoch + 1);
+        assertThat(this.rewinds).isEmpty();
+    }
+
+    @Test
+    void userDrag_Released_RewindsOnce() {
+        this.gameEngine.resetGame();
+        BitGrid board = new BitGrid(32, 32);
+        RandomFill.fill(board, 0.3, 7);
+        this.model.getGridData().set(board);
+        this.model.markGridDirty();
+        for (int i = 0; i < 5; i++) this.gameEngine.performOneEpochIteration();
+
+        this.valueChanging.set(true);
+        this.value.set(3);
+        this.value.set(2);
+        assertThat(this.rewinds).isEmpty();
+        this.valueChanging.set(false);
+
+        assertThat(this.rewinds).containsExactly(2L);
+        assertThat(this.model.getEpochCountPrimitive()).isEqualTo(2);
+        assertThat(this.value.get()).isEqualTo(2);
+    }
+
+    private void clamp() {
+        if (this.min.get() <= this.max.get()) {
+            this.value.set(Math.max(this.min.get(), Math.min(this.max.get(), this.value.get())));
+        }
+    }
+}